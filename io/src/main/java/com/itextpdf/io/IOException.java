@@ -114,6 +114,7 @@ public class IOException extends RuntimeException {
     public static final String InvalidTtcFile = "{0} is not a valid TTC file.";
     public static final String IoException = "I/O exception.";
     public static final String Jbig2ImageException = "JBIG2 image exception.";
+    public static final String Jbig2SegmentDataCannotBeRead = "JBIG2 segment data cannot be read. The source of the JBIG2 segment reader must stay open until the segment data is read.";
     public static final String Jpeg2000ImageException = "JPEG2000 image exception.";
     public static final String JpegImageException = "JPEG image exception.";
     public static final String MissingTagsForOjpegCompression = "Missing tag(s) for OJPEG compression";
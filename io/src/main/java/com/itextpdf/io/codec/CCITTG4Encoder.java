@@ -155,6 +155,10 @@ public class CCITTG4Encoder {
     }
 
     private void Fax3Encode2DRow() {
+        if (isSameAsReferenceLine()) {
+            encodeSameAsReferenceLine();
+            return;
+        }
         int a0 = 0;
         int a1 = (pixel(dataBp, offsetData, 0) != 0 ? 0 : finddiff(dataBp, offsetData, 0, rowpixels, 0));
         int b1 = (pixel(refline, 0, 0) != 0 ? 0 : finddiff(refline, 0, 0, rowpixels, 0));
@@ -185,10 +189,38 @@ public class CCITTG4Encoder {
             }
             if (a0 >= rowpixels)
                 break;
-            a1 = finddiff(dataBp, offsetData, a0, rowpixels, pixel(dataBp, offsetData,a0));
-            b1 = finddiff(refline, 0, a0, rowpixels, pixel(dataBp, offsetData,a0) ^ 1);
-            b1 = finddiff(refline, 0, b1, rowpixels, pixel(dataBp, offsetData,a0));
+            int color = pixel(dataBp, offsetData, a0);
+            a1 = finddiff(dataBp, offsetData, a0, rowpixels, color);
+            b1 = finddiff(refline, 0, a0, rowpixels, color ^ 1);
+            b1 = finddiff(refline, 0, b1, rowpixels, color);
+        }
+    }
+
+    /**
+     * Checks whether the current row is the same as the reference one, which is very common in scanned documents,
+     * e.g. for the blank margins.
+     */
+    private boolean isSameAsReferenceLine() {
+        for (int i = 0; i < rowbytes; i++) {
+            if (dataBp[offsetData + i] != refline[i]) {
+                return false;
+            }
         }
+        return true;
+    }
+
+    /**
+     * Encodes the row which is the same as the reference one. Each changing element of such a row, including
+     * the one at the end of the row, is coded in vertical mode with zero offset, so only the runs are looked up.
+     */
+    private void encodeSameAsReferenceLine() {
+        int a0 = 0;
+        int color = 0;
+        do {
+            a0 = finddiff(dataBp, offsetData, a0, rowpixels, color);
+            color ^= 1;
+            putcode(vcodes[3]);
+        } while (a0 < rowpixels);
     }
 
     private void Fax4PostEncode() {
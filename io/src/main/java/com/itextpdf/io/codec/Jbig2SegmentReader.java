@@ -47,7 +47,6 @@ import com.itextpdf.io.source.RandomAccessFileOrArray;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
 import java.util.*;
 
 /**
@@ -57,6 +56,10 @@ import java.util.*;
  * are any.  Or: the minimum required to be able to take a normal sequential
  * or random-access organized file, and be able to embed JBIG2 pages as images
  * in a PDF.
+ * <p>
+ * The segment data is not kept in memory, it's read from the source only when the data of a segment, a page or
+ * the global segments is requested. The {@link RandomAccessFileOrArray} passed to the reader must therefore stay
+ * open until all the needed data is read.
  *
  * TODO: the indeterminate-segment-size value of dataLength, else?
  *
@@ -110,15 +113,44 @@ public class Jbig2SegmentReader {
         public int type = -1;
         public boolean deferredNonRetain = false;
         public int countOfReferredToSegments = -1;
+        /**
+         * The offset of the segment data in the JBIG2 file. The data itself isn't kept in memory, use
+         * {@link #getData()} to read it.
+         */
+        public long dataOffset = -1;
+        /**
+         * The data of a segment that isn't read from a JBIG2 file.
+         *
+         * @deprecated The reader doesn't fill this field anymore, it only keeps the {@link #dataOffset}.
+         * Use {@link #getData()} to get the data of a segment.
+         */
+        @Deprecated
         public byte[] data = null;
         public byte[] headerData = null;
         public boolean page_association_size = false;
         public int page_association_offset = -1;
+        private Jbig2SegmentReader sr;
 
         public Jbig2Segment(int segment_number) {
             this.segmentNumber = segment_number;
         }
 
+        /**
+         * Gets the data of the segment. The data of a segment read from a JBIG2 file is read from the source
+         * of the reader, which must still be open.
+         *
+         * @return the segment data
+         * @throws java.io.IOException
+         */
+        public byte[] getData() throws java.io.IOException {
+            if (sr == null || dataOffset < 0) {
+                return data;
+            }
+            byte[] data = new byte[(int) dataLength];
+            sr.readSegmentData(this, data, 0);
+            return data;
+        }
+
         public int compareTo(Jbig2Segment s) {
             return this.segmentNumber - s.segmentNumber;
         }
@@ -145,42 +177,14 @@ public class Jbig2SegmentReader {
          * return as a single byte array the header-data for each segment in segment number
          * order, EMBEDDED organization, but I am putting the needed segments in SEQUENTIAL organization.
          * if for_embedding, skip the segment types that are known to be not for acrobat.
+         * The segment data is read from the source of the reader, which must still be open.
          *
          * @param for_embedding         True if the bytes represents embedded data, false otherwise
          * @throws java.io.IOException
          * @return a byte array
          */
         public byte[] getData(boolean for_embedding) throws java.io.IOException {
-            ByteArrayOutputStream os = new ByteArrayOutputStream();
-            for (int sn : segs.keySet()) {
-                Jbig2Segment s = segs.get(sn);
-
-                // pdf reference 1.4, section 3.3.6 Jbig2Decode Filter
-                // D.3 Embedded organisation
-                if (for_embedding &&
-                        (s.type == END_OF_FILE || s.type == END_OF_PAGE)) {
-                    continue;
-                }
-
-                if (for_embedding) {
-                    // change the page association to page 1
-                    byte[] headerData_emb = copyByteArray(s.headerData);
-                    if (s.page_association_size) {
-                        headerData_emb[s.page_association_offset] = 0x0;
-                        headerData_emb[s.page_association_offset + 1] = 0x0;
-                        headerData_emb[s.page_association_offset + 2] = 0x0;
-                        headerData_emb[s.page_association_offset + 3] = 0x1;
-                    } else {
-                        headerData_emb[s.page_association_offset] = 0x1;
-                    }
-                    os.write(headerData_emb);
-                } else {
-                    os.write(s.headerData);
-                }
-                os.write(s.data);
-            }
-            os.close();
-            return os.toByteArray();
+            return sr.getSegmentsData(segs.values(), for_embedding, true);
         }
 
         public void addSegment(Jbig2Segment s) {
@@ -228,23 +232,19 @@ public class Jbig2SegmentReader {
     }
 
     void readSegment(Jbig2Segment s) throws java.io.IOException {
-        int ptr = (int) ra.getPosition();
+        long ptr = ra.getPosition();
 
         if (s.dataLength == 0xffffffffl) {
             // TODO figure this bit out, 7.2.7
             return;
         }
 
-        byte[] data = new byte[(int) s.dataLength];
-        ra.read(data);
-        s.data = data;
+        // only the offset of the data is remembered, the data is read when it's needed
+        s.dataOffset = ptr;
 
         if (s.type == PAGE_INFORMATION) {
-            int last = (int) ra.getPosition();
-            ra.seek(ptr);
             int page_bitmap_width = ra.readInt();
             int page_bitmap_height = ra.readInt();
-            ra.seek(last);
             Jbig2Page p = pages.get(s.page);
             if (p == null) {
                 throw new com.itextpdf.io.IOException("referring.to.widht.height.of.page.we.havent.seen.yet.1").setMessageParams(s.page);
@@ -253,6 +253,7 @@ public class Jbig2SegmentReader {
             p.pageBitmapWidth = page_bitmap_width;
             p.pageBitmapHeight = page_bitmap_height;
         }
+        ra.seek(ptr + s.dataLength);
     }
 
     Jbig2Segment readHeader() throws java.io.IOException {
@@ -260,6 +261,7 @@ public class Jbig2SegmentReader {
         // 7.2.1
         int segment_number = ra.readInt();
         Jbig2Segment s = new Jbig2Segment(segment_number);
+        s.sr = this;
 
         // 7.2.3
         int segment_header_flags = ra.read();
@@ -403,32 +405,87 @@ public class Jbig2SegmentReader {
         return pages.get(page);
     }
 
+    /**
+     * Returns the headers and the data of the global segments. The segment data is read from the source
+     * of the reader, which must still be open.
+     *
+     * @param for_embedding true if the data is to be embedded, in which case the end of page
+     *                      and end of file segments are skipped
+     * @return the global segments data, or null if there are no global segments
+     */
     public byte[] getGlobal(boolean for_embedding){
-        ByteArrayOutputStream os = new ByteArrayOutputStream();
         byte[] streamBytes = null;
         try {
-            for (Object element : globals) {
-                Jbig2Segment s = (Jbig2Segment) element;
-                if (for_embedding &&
-                        (s.type == END_OF_FILE || s.type == END_OF_PAGE)) {
-                    continue;
-                }
-                os.write(s.headerData);
-                os.write(s.data);
-            }
-
-            if (os.size() > 0) {
-                streamBytes = os.toByteArray();
-            }
-            os.close();
+            streamBytes = getSegmentsData(globals, for_embedding, false);
         } catch (java.io.IOException e) {
             Logger logger = LoggerFactory.getLogger(Jbig2SegmentReader.class);
             logger.debug(e.getMessage());
         }
+        if (streamBytes != null && streamBytes.length == 0) {
+            streamBytes = null;
+        }
 
         return streamBytes;
     }
 
+    /**
+     * Copies the headers and the data of the segments from the JBIG2 file right into an array of the exact size.
+     * If for_embedding, the end of page and end of file segments are skipped, and if also set_page_association,
+     * the segments are associated with page 1.
+     */
+    byte[] getSegmentsData(Collection<Jbig2Segment> segs, boolean for_embedding, boolean set_page_association)
+            throws java.io.IOException {
+        long size = 0;
+        for (Jbig2Segment s : segs) {
+            if (!for_embedding || (s.type != END_OF_FILE && s.type != END_OF_PAGE)) {
+                size += s.headerData.length + (s.dataOffset >= 0 ? s.dataLength : (s.data != null ? s.data.length : 0));
+            }
+        }
+        byte[] data = new byte[(int) size];
+        int pos = 0;
+        for (Jbig2Segment s : segs) {
+            // pdf reference 1.4, section 3.3.6 Jbig2Decode Filter
+            // D.3 Embedded organisation
+            if (for_embedding &&
+                    (s.type == END_OF_FILE || s.type == END_OF_PAGE)) {
+                continue;
+            }
+
+            System.arraycopy(s.headerData, 0, data, pos, s.headerData.length);
+            if (for_embedding && set_page_association) {
+                // change the page association to page 1
+                if (s.page_association_size) {
+                    data[pos + s.page_association_offset] = 0x0;
+                    data[pos + s.page_association_offset + 1] = 0x0;
+                    data[pos + s.page_association_offset + 2] = 0x0;
+                    data[pos + s.page_association_offset + 3] = 0x1;
+                } else {
+                    data[pos + s.page_association_offset] = 0x1;
+                }
+            }
+            pos += s.headerData.length;
+            if (s.dataOffset >= 0) {
+                readSegmentData(s, data, pos);
+                pos += (int) s.dataLength;
+            } else if (s.data != null) {
+                // a segment that wasn't read from the file
+                System.arraycopy(s.data, 0, data, pos, s.data.length);
+                pos += s.data.length;
+            }
+        }
+        return data;
+    }
+
+    void readSegmentData(Jbig2Segment s, byte[] data, int off) throws java.io.IOException {
+        try {
+            ra.seek(s.dataOffset);
+            ra.read(data, off, (int) s.dataLength);
+        } catch (IllegalStateException e) {
+            // the closed array and mapped channel sources fail this way
+            throw new com.itextpdf.io.IOException(com.itextpdf.io.IOException.Jbig2SegmentDataCannotBeRead, e);
+        }
+    }
+
     @Override
     public String toString() {
         if (this.read) {
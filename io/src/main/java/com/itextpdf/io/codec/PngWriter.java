@@ -63,6 +63,9 @@ public class PngWriter {
     private static final byte[] IEND = ByteUtils.getIsoBytes("IEND");
     private static final byte[] iCCP = ByteUtils.getIsoBytes("iCCP");
 
+    // the maximum size of an IDAT chunk, the compressed image data is written in chunks of this size as soon as it's ready
+    private static final int IDAT_CHUNK_SIZE = 65536;
+
     private static int[] crc_table;
 
     private OutputStream outp;
@@ -89,8 +92,7 @@ public class PngWriter {
     }
 
     public void writeData(byte[] data, int stride) throws IOException {
-        ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        DeflaterOutputStream zip = new DeflaterOutputStream(stream);
+        DeflaterOutputStream zip = new DeflaterOutputStream(new ChunkOutputStream(IDAT, IDAT_CHUNK_SIZE));
         int k;
         for (k = 0; k < data.length - stride; k += stride) {
             zip.write(0);
@@ -102,7 +104,6 @@ public class PngWriter {
             zip.write(data, k, remaining);
         }
         zip.close();
-        writeChunk(IDAT, stream.toByteArray());
     }
 
     public void writePalette(byte[] data) throws IOException {
@@ -170,12 +171,65 @@ public class PngWriter {
     }
 
     public void writeChunk(byte[] chunkType, byte[] data) throws IOException {
-        outputInt(data.length);
+        writeChunk(chunkType, data, data.length);
+    }
+
+    private void writeChunk(byte[] chunkType, byte[] data, int length) throws IOException {
+        outputInt(length);
         outp.write(chunkType, 0, 4);
-        outp.write(data);
+        outp.write(data, 0, length);
         int c = update_crc(-1, chunkType, 0, chunkType.length);
-        c = ~update_crc(c, data, 0, data.length);
+        c = ~update_crc(c, data, 0, length);
         outputInt(c);
     }
 
+    /**
+     * Splits the written data into chunks of the specified type. A chunk is written as soon as it's full,
+     * the last one is written on closing. The underlying stream is not closed.
+     */
+    private class ChunkOutputStream extends OutputStream {
+        private final byte[] chunkType;
+        private final byte[] buffer;
+        private int count;
+
+        ChunkOutputStream(byte[] chunkType, int chunkSize) {
+            this.chunkType = chunkType;
+            this.buffer = new byte[chunkSize];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                writeBuffer();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buffer.length) {
+                    writeBuffer();
+                }
+                int n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (count > 0) {
+                writeBuffer();
+            }
+        }
+
+        private void writeBuffer() throws IOException {
+            writeChunk(chunkType, buffer, count);
+            count = 0;
+        }
+    }
+
 }
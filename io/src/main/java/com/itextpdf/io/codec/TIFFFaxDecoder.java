@@ -76,30 +76,6 @@ public class TIFFFaxDecoder {
     // should iText try to recover from images it can't read?
     private boolean recoverFromImageError;
 
-    static int[] table1 = {
-            0x00, // 0 bits are left in first byte - SHOULD NOT HAPPEN
-            0x01, // 1 bits are left in first byte
-            0x03, // 2 bits are left in first byte
-            0x07, // 3 bits are left in first byte
-            0x0f, // 4 bits are left in first byte
-            0x1f, // 5 bits are left in first byte
-            0x3f, // 6 bits are left in first byte
-            0x7f, // 7 bits are left in first byte
-            0xff  // 8 bits are left in first byte
-    };
-
-    static int[] table2 = {
-            0x00, // 0
-            0x80, // 1
-            0xc0, // 2
-            0xe0, // 3
-            0xf0, // 4
-            0xf8, // 5
-            0xfc, // 6
-            0xfe, // 7
-            0xff  // 8
-    };
-
     // Table to be used when fillOrder = 2, for flipping bytes.
     public static byte[] flipTable = {
             (byte) 0x00, (byte) 0x80, (byte) 0x40, (byte) 0xc0, (byte) 0x20, (byte) 0xa0, (byte) 0x60, (byte) 0xe0,
@@ -615,10 +591,28 @@ public class TIFFFaxDecoder {
             b[k] = flipTable[b[k] & 0xff];
     }
 
+    /**
+     * Gets the compressed data with the most significant bit first. The data in the reversed fill order is flipped
+     * once here, so that the bits are read the same way regardless of the fill order.
+     */
+    private byte[] getMsbFirstData(byte[] compData) {
+        if (fillOrder == 1) {
+            return compData;
+        } else if (fillOrder == 2) {
+            byte[] flipped = new byte[compData.length];
+            for (int k = 0; k < compData.length; ++k) {
+                flipped[k] = flipTable[compData[k] & 0xff];
+            }
+            return flipped;
+        } else {
+            throw new IOException(IOException.TiffFillOrderTagMustBeEither1Or2);
+        }
+    }
+
     // One-dimensional decoding methods
 
     public void decode1D(byte[] buffer, byte[] compData, int startX, int height) {
-        this.data = compData;
+        this.data = getMsbFirstData(compData);
 
         int lineOffset = 0;
         int scanlineStride = (w + 7) / 8;
@@ -769,7 +763,7 @@ public class TIFFFaxDecoder {
     // Two-dimensional decoding methods
 
     public void decode2D(byte[] buffer, byte[] compData, int startX, int height, long tiffT4Options) {
-        this.data = compData;
+        this.data = getMsbFirstData(compData);
         compression = 3;
 
         bitPointer = 0;
@@ -920,7 +914,7 @@ public class TIFFFaxDecoder {
                          int startX,
                          int height,
                          long tiffT6Options) {
-        this.data = compData;
+        this.data = getMsbFirstData(compData);
         compression = 4;
 
         bitPointer = 0;
@@ -1151,39 +1145,33 @@ public class TIFFFaxDecoder {
                             int numBits) {
         int bitNum = 8 * lineOffset + bitOffset;
         int lastBit = bitNum + numBits;
+        if (recoverFromImageError && lastBit > 8 * buffer.length) {
+            lastBit = 8 * buffer.length;
+        }
+        fillBlack(buffer, bitNum, lastBit);
+    }
 
+    /**
+     * Sets the bits from {@code bitNum} inclusive to {@code lastBit} exclusive. The partial bytes at both ends
+     * are set with a single mask, the bytes in between are filled as a whole.
+     */
+    static void fillBlack(byte[] buffer, int bitNum, int lastBit) {
+        if (bitNum >= lastBit) {
+            return;
+        }
         int byteNum = bitNum >> 3;
-
-        // Handle bits in first byte
-        int shift = bitNum & 0x7;
-        if (shift > 0) {
-            int maskVal = 1 << (7 - shift);
-            byte val = buffer[byteNum];
-            while (maskVal > 0 && bitNum < lastBit) {
-                val |= (byte) maskVal;
-                maskVal >>= 1;
-                ++bitNum;
-            }
-            buffer[byteNum] = val;
+        int lastByteNum = (lastBit - 1) >> 3;
+        int firstMask = 0xff >>> (bitNum & 0x7);
+        int lastMask = (0xff << (7 - ((lastBit - 1) & 0x7))) & 0xff;
+        if (byteNum == lastByteNum) {
+            buffer[byteNum] |= (byte) (firstMask & lastMask);
+            return;
         }
-
-        // Fill in 8 bits at a time
-        byteNum = bitNum >> 3;
-        while (bitNum < lastBit - 7) {
+        buffer[byteNum++] |= (byte) firstMask;
+        while (byteNum < lastByteNum) {
             buffer[byteNum++] = (byte) 255;
-            bitNum += 8;
-        }
-
-        // Fill in remaining bits
-        while (bitNum < lastBit) {
-            byteNum = bitNum >> 3;
-            if (recoverFromImageError && !(byteNum < buffer.length)) {
-                // do nothing
-            } else {
-                buffer[byteNum] |= (byte) (1 << (7 - (bitNum & 0x7)));
-            }
-            ++bitNum;
         }
+        buffer[lastByteNum] |= (byte) lastMask;
     }
 
     // Returns run length
@@ -1392,122 +1380,38 @@ public class TIFFFaxDecoder {
     }
 
     private int nextNBits(int bitsToGet) {
-        byte b, next, next2next;
         int l = data.length - 1;
         int bp = this.bytePointer;
 
-        if (fillOrder == 1) {
-            b = data[bp];
-
-            if (bp == l) {
-                next = 0x00;
-                next2next = 0x00;
-            } else if ((bp + 1) == l) {
-                next = data[bp + 1];
-                next2next = 0x00;
-            } else {
-                next = data[bp + 1];
-                next2next = data[bp + 2];
-            }
-        } else if (fillOrder == 2) {
-            b = flipTable[data[bp] & 0xff];
-
-            if (bp == l) {
-                next = 0x00;
-                next2next = 0x00;
-            } else if ((bp + 1) == l) {
-                next = flipTable[data[bp + 1] & 0xff];
-                next2next = 0x00;
-            } else {
-                next = flipTable[data[bp + 1] & 0xff];
-                next2next = flipTable[data[bp + 2] & 0xff];
-            }
-        } else {
-            throw new IOException(IOException.TiffFillOrderTagMustBeEither1Or2);
-        }
-
-        int bitsLeft = 8 - bitPointer;
-        int bitsFromNextByte = bitsToGet - bitsLeft;
-        int bitsFromNext2NextByte = 0;
-        if (bitsFromNextByte > 8) {
-            bitsFromNext2NextByte = bitsFromNextByte - 8;
-            bitsFromNextByte = 8;
-        }
-
-        bytePointer++;
-
-        int i1 = (b & table1[bitsLeft]) << (bitsToGet - bitsLeft);
-        int i2 = (next & table2[bitsFromNextByte]) >>> (8 - bitsFromNextByte);
-
-        int i3;
-        if (bitsFromNext2NextByte != 0) {
-            i2 <<= bitsFromNext2NextByte;
-            i3 = (next2next & table2[bitsFromNext2NextByte]) >>>
-                    (8 - bitsFromNext2NextByte);
-            i2 |= i3;
-            bytePointer++;
-            bitPointer = bitsFromNext2NextByte;
-        } else {
-            if (bitsFromNextByte == 8) {
-                bitPointer = 0;
-                bytePointer++;
-            } else {
-                bitPointer = bitsFromNextByte;
-            }
-        }
+        // up to three bytes are needed, the bytes beyond the end of data are read as zeros
+        int b = data[bp] & 0xff;
+        int next = bp < l ? data[bp + 1] & 0xff : 0;
+        int next2next = bp + 1 < l ? data[bp + 2] & 0xff : 0;
 
-        return i1 | i2;
+        int bitsUsed = bitPointer + bitsToGet;
+        int bits = (((b << 16) | (next << 8) | next2next) >>> (24 - bitsUsed)) & ((1 << bitsToGet) - 1);
+        bytePointer += bitsUsed >> 3;
+        bitPointer = bitsUsed & 0x7;
+        return bits;
     }
 
     private int nextLesserThan8Bits(int bitsToGet) {
-        byte b = 0, next = 0;
         int l = data.length - 1;
         int bp = this.bytePointer;
 
-        if (fillOrder == 1) {
-            b = data[bp];
-            if (bp == l) {
-                next = 0x00;
-            } else {
-                next = data[bp + 1];
-            }
-        } else if (fillOrder == 2) {
-            if (recoverFromImageError && !(bp < data.length)) {
-                // do nothing
-            } else {
-                b = flipTable[data[bp] & 0xff];
-                if (bp == l) {
-                    next = 0x00;
-                } else {
-                    next = flipTable[data[bp + 1] & 0xff];
-                }
-            }
+        int b = 0, next = 0;
+        if (recoverFromImageError && !(bp < data.length)) {
+            // do nothing
         } else {
-            throw new IOException(IOException.TiffFillOrderTagMustBeEither1Or2);
-        }
-
-        int bitsLeft = 8 - bitPointer;
-        int bitsFromNextByte = bitsToGet - bitsLeft;
-
-        int shift = bitsLeft - bitsToGet;
-        int i1, i2;
-        if (shift >= 0) {
-            i1 = (b & table1[bitsLeft]) >>> shift;
-            bitPointer += bitsToGet;
-            if (bitPointer == 8) {
-                bitPointer = 0;
-                bytePointer++;
-            }
-        } else {
-            i1 = (b & table1[bitsLeft]) << (-shift);
-            i2 = (next & table2[bitsFromNextByte]) >>> (8 - bitsFromNextByte);
-
-            i1 |= i2;
-            bytePointer++;
-            bitPointer = bitsFromNextByte;
+            b = data[bp] & 0xff;
+            next = bp < l ? data[bp + 1] & 0xff : 0;
         }
 
-        return i1;
+        int bitsUsed = bitPointer + bitsToGet;
+        int bits = (((b << 8) | next) >>> (16 - bitsUsed)) & ((1 << bitsToGet) - 1);
+        bytePointer += bitsUsed >> 3;
+        bitPointer = bitsUsed & 0x7;
+        return bits;
     }
 
     // Move pointer backwards by given amount of bits
@@ -52,7 +52,9 @@ import com.itextpdf.io.font.cmap.CMapLocationResource;
 import com.itextpdf.io.font.cmap.CMapParser;
 import com.itextpdf.io.font.cmap.CMapUniCid;
 import com.itextpdf.io.font.constants.FontResources;
+import com.itextpdf.io.util.ContentKey;
 import com.itextpdf.io.util.IntHashtable;
+import com.itextpdf.io.util.LruCache;
 import com.itextpdf.io.util.ResourceUtil;
 
 import java.io.InputStream;
@@ -77,6 +79,18 @@ public class FontCache {
 
     private static Map<FontCacheKey, FontProgram> fontCache = new ConcurrentHashMap<>();
 
+    // Parsed CMaps are not modified after parsing, so the same instances are shared by all the fonts
+    private static final Map<String, CMapCidUni> cid2UniCmaps = new ConcurrentHashMap<>();
+    private static final Map<String, CMapUniCid> uni2CidCmaps = new ConcurrentHashMap<>();
+    private static final Map<String, CMapByteCid> byte2CidCmaps = new ConcurrentHashMap<>();
+    private static final Map<String, CMapCidByte> cid2ByteCmaps = new ConcurrentHashMap<>();
+
+    // WOFF and WOFF2 fonts are decoded once, the decoded TrueType data is only read by the font programs.
+    // The decoded data is cached even for the font programs that are created not cached themselves.
+    // Only the most recently used fonts are kept, since the decoded data is large.
+    private static final int MAX_DECODED_WEB_FONTS_COUNT = 16;
+    private static final LruCache<ContentKey, byte[]> decodedWebFonts = new LruCache<>(MAX_DECODED_WEB_FONTS_COUNT);
+
     static {
         try {
             loadRegistry();
@@ -129,23 +143,39 @@ public class FontCache {
     }
 
     public static CMapCidUni getCid2UniCmap(String uniMap) {
-        CMapCidUni cidUni = new CMapCidUni();
-        return parseCmap(uniMap, cidUni);
+        CMapCidUni cidUni = cid2UniCmaps.get(uniMap);
+        if (cidUni == null) {
+            cidUni = parseCmap(uniMap, new CMapCidUni());
+            cid2UniCmaps.put(uniMap, cidUni);
+        }
+        return cidUni;
     }
 
     public static CMapUniCid getUni2CidCmap(String uniMap) {
-        CMapUniCid uniCid = new CMapUniCid();
-        return parseCmap(uniMap, uniCid);
+        CMapUniCid uniCid = uni2CidCmaps.get(uniMap);
+        if (uniCid == null) {
+            uniCid = parseCmap(uniMap, new CMapUniCid());
+            uni2CidCmaps.put(uniMap, uniCid);
+        }
+        return uniCid;
     }
 
     public static CMapByteCid getByte2CidCmap(String cmap) {
-        CMapByteCid uniCid = new CMapByteCid();
-        return parseCmap(cmap, uniCid);
+        CMapByteCid byteCid = byte2CidCmaps.get(cmap);
+        if (byteCid == null) {
+            byteCid = parseCmap(cmap, new CMapByteCid());
+            byte2CidCmaps.put(cmap, byteCid);
+        }
+        return byteCid;
     }
 
     public static CMapCidByte getCid2Byte(String cmap) {
-        CMapCidByte cidByte = new CMapCidByte();
-        return parseCmap(cmap, cidByte);
+        CMapCidByte cidByte = cid2ByteCmaps.get(cmap);
+        if (cidByte == null) {
+            cidByte = parseCmap(cmap, new CMapCidByte());
+            cid2ByteCmaps.put(cmap, cidByte);
+        }
+        return cidByte;
     }
 
     public static FontProgram getFont(String fontName) {
@@ -169,6 +199,22 @@ public class FontCache {
         return font;
     }
 
+    /**
+     * Clears the cache of the decoded WOFF and WOFF2 fonts.
+     */
+    public static void clearDecodedWebFonts() {
+        decodedWebFonts.clear();
+    }
+
+    static byte[] getDecodedWebFont(byte[] webFont) {
+        return decodedWebFonts.get(new ContentKey(webFont));
+    }
+
+    static byte[] saveDecodedWebFont(byte[] webFont, byte[] decodedFont) {
+        // the key keeps only the hash of the web font, so the caller may reuse its buffer
+        return decodedWebFonts.putIfAbsent(new ContentKey(webFont), decodedFont);
+    }
+
     private static void loadRegistry() throws java.io.IOException {
         InputStream resource = ResourceUtil.getResourceStream(FontResources.CMAPS + CJK_REGISTRY_FILENAME);
         try {
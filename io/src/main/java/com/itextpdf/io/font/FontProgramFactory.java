@@ -174,9 +174,9 @@ public final class FontProgramFactory {
             if (fontProgram != null) {
                 try {
                     if (WoffConverter.isWoffFont(fontProgram)) {
-                        fontProgram = WoffConverter.convert(fontProgram);
+                        fontProgram = decodeWebFont(fontProgram, false);
                     } else if (Woff2Converter.isWoff2Font(fontProgram)) {
-                        fontProgram = Woff2Converter.convert(fontProgram);
+                        fontProgram = decodeWebFont(fontProgram, true);
                     }
                     fontBuilt = new TrueTypeFont(fontProgram);
                 } catch (Exception ignored) {
@@ -210,13 +210,13 @@ public final class FontProgramFactory {
                 }
                 if (".woff".equals(fontFileExtension)) {
                     try {
-                        fontProgram = WoffConverter.convert(fontProgram);
+                        fontProgram = decodeWebFont(fontProgram, false);
                     } catch (IllegalArgumentException woffException) {
                         throw new IOException(IOException.InvalidWoffFile, woffException);
                     }
                 } else { // ".woff2".equals(fontFileExtension)
                     try {
-                        fontProgram = Woff2Converter.convert(fontProgram);
+                        fontProgram = decodeWebFont(fontProgram, true);
                     } catch (FontCompressionException woff2Exception) {
                         throw new IOException(IOException.InvalidWoff2File, woff2Exception);
                     }
@@ -463,6 +463,24 @@ public final class FontProgramFactory {
         return cached ? FontCache.saveFont(fontProgram, fontKey) : fontProgram;
     }
 
+    /**
+     * Decodes WOFF or WOFF2 font data into TrueType font data. The decoded data is cached by the content
+     * of the web font, whether the font program itself is cached or not, so that the same web font
+     * is not decoded again while it stays in the cache.
+     *
+     * @param webFont the WOFF or WOFF2 font data
+     * @param woff2   true if the font data is WOFF2
+     * @return the TrueType font data
+     */
+    static byte[] decodeWebFont(byte[] webFont, boolean woff2) throws java.io.IOException {
+        byte[] decodedFont = FontCache.getDecodedWebFont(webFont);
+        if (decodedFont == null) {
+            decodedFont = woff2 ? Woff2Converter.convert(webFont) : WoffConverter.convert(webFont);
+            decodedFont = FontCache.saveDecodedWebFont(webFont, decodedFont);
+        }
+        return decodedFont;
+    }
+
     private static FontCacheKey createFontCacheKey(String name, byte[] fontProgram) {
         FontCacheKey key;
         if (name != null) {
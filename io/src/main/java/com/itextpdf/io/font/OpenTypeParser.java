@@ -222,6 +222,13 @@ class OpenTypeParser implements Serializable, Closeable {
      */
     protected Map<String, int[]> tables;
 
+    /**
+     * The table directory and the loca table read by the first subset of the font, reused by the next subsets.
+     */
+    private transient Map<String, int[]> subsetTableDirectory;
+    private transient int[] subsetLocaTable;
+    private transient boolean subsetLocaShortTable;
+
     public OpenTypeParser(byte[] ttf) throws java.io.IOException {
         raf = new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(ttf));
         initializeSfntTables();
@@ -374,9 +381,26 @@ class OpenTypeParser implements Serializable, Closeable {
     }
 
     public byte[] getSubset(Set<Integer> glyphs, boolean subset) throws java.io.IOException {
+        Map<String, int[]> tableDirectory;
+        int[] locaTable;
+        boolean locaShortTable;
+        synchronized (this) {
+            tableDirectory = subsetTableDirectory;
+            locaTable = subsetLocaTable;
+            locaShortTable = subsetLocaShortTable;
+        }
         TrueTypeFontSubset sb = new TrueTypeFontSubset(fileName,
-                raf.createView(), glyphs, directoryOffset, true, !subset);
-        return sb.process();
+                raf.createView(), glyphs, directoryOffset, true, !subset, tableDirectory, locaTable, locaShortTable);
+        byte[] subsetBytes = sb.process();
+        if (locaTable == null) {
+            synchronized (this) {
+                // both tables are only read by the subset, so they can be shared by the following subsets of this font
+                subsetTableDirectory = sb.tableDirectory;
+                subsetLocaTable = sb.locaTable;
+                subsetLocaShortTable = sb.locaShortTable;
+            }
+        }
+        return subsetBytes;
     }
 
     @Override
@@ -536,25 +560,32 @@ class OpenTypeParser implements Serializable, Closeable {
         if (table_location == null) {
             return kerning;
         }
-        raf.seek(table_location[0] + 2);
-        int nTables = raf.readUnsignedShort();
-        int checkpoint = table_location[0] + 4;
-        int length = 0;
-        for (int k = 0; k < nTables; k++) {
-            checkpoint += length;
-            raf.seek(checkpoint);
-            raf.skipBytes(2);
-            length = raf.readUnsignedShort();
-            int coverage = raf.readUnsignedShort();
-            if ((coverage & 0xfff7) == 0x0001) {
-                int nPairs = raf.readUnsignedShort();
-                raf.skipBytes(6);
-                for (int j = 0; j < nPairs; ++j) {
-                    int pair = raf.readInt();
-                    int value = raf.readShort() * TrueTypeFont.UNITS_NORMALIZATION / unitsPerEm;
-                    kerning.put(pair, value);
+        // The kerning table is read on demand, possibly while other threads read the same font,
+        // so an independent view is used instead of the shared position of raf.
+        RandomAccessFileOrArray rf = raf.createView();
+        try {
+            rf.seek(table_location[0] + 2);
+            int nTables = rf.readUnsignedShort();
+            int checkpoint = table_location[0] + 4;
+            int length = 0;
+            for (int k = 0; k < nTables; k++) {
+                checkpoint += length;
+                rf.seek(checkpoint);
+                rf.skipBytes(2);
+                length = rf.readUnsignedShort();
+                int coverage = rf.readUnsignedShort();
+                if ((coverage & 0xfff7) == 0x0001) {
+                    int nPairs = rf.readUnsignedShort();
+                    rf.skipBytes(6);
+                    for (int j = 0; j < nPairs; ++j) {
+                        int pair = rf.readInt();
+                        int value = rf.readShort() * TrueTypeFont.UNITS_NORMALIZATION / unitsPerEm;
+                        kerning.put(pair, value);
+                    }
                 }
             }
+        } finally {
+            rf.close();
         }
         return kerning;
     }
@@ -82,6 +82,14 @@ public class TrueTypeFont extends FontProgram {
      */
     protected IntHashtable kerning = new IntHashtable();
 
+    /**
+     * The kerning and the OpenType layout tables are used only for some texts,
+     * so they are read on first request rather than when the font is created.
+     * The flags are volatile, so that the lock is taken only while the tables are not read yet.
+     */
+    private volatile boolean kerningRead;
+    private volatile boolean openTypeTablesRead;
+
     private byte[] fontStreamBytes;
 
     protected TrueTypeFont() {
@@ -114,6 +122,7 @@ public class TrueTypeFont extends FontProgram {
 
     @Override
     public boolean hasKernPairs() {
+        ensureKerningRead();
         return kerning.size() > 0;
     }
 
@@ -129,6 +138,7 @@ public class TrueTypeFont extends FontProgram {
         if (first == null || second == null) {
             return 0;
         }
+        ensureKerningRead();
         return kerning.get((first.getCode() << 16) + second.getCode());
     }
 
@@ -151,7 +161,7 @@ public class TrueTypeFont extends FontProgram {
         }
     }
 
-    public byte[] getFontStreamBytes() {
+    public synchronized byte[] getFontStreamBytes() {
         if (fontStreamBytes != null)
             return fontStreamBytes;
         try {
@@ -192,14 +202,17 @@ public class TrueTypeFont extends FontProgram {
     }
 
     public GlyphSubstitutionTableReader getGsubTable() {
+        ensureOpenTypeTablesRead();
         return gsubTable;
     }
 
     public GlyphPositioningTableReader getGposTable() {
+        ensureOpenTypeTablesRead();
         return gposTable;
     }
 
     public OpenTypeGdefTableReader getGdefTable() {
+        ensureOpenTypeTablesRead();
         return gdefTable;
     }
 
@@ -214,9 +227,9 @@ public class TrueTypeFont extends FontProgram {
     protected void readGdefTable() throws java.io.IOException {
         int[] gdef = fontParser.tables.get("GDEF");
         if (gdef != null) {
-            gdefTable = new OpenTypeGdefTableReader(fontParser.raf, gdef[0]);
+            gdefTable = new OpenTypeGdefTableReader(fontParser.raf.createView(), gdef[0]);
         } else {
-            gdefTable = new OpenTypeGdefTableReader(fontParser.raf, 0);
+            gdefTable = new OpenTypeGdefTableReader(fontParser.raf.createView(), 0);
         }
         gdefTable.readTable();
     }
@@ -224,14 +237,14 @@ public class TrueTypeFont extends FontProgram {
     protected void readGsubTable() throws java.io.IOException {
         int[] gsub = fontParser.tables.get("GSUB");
         if (gsub != null) {
-            gsubTable = new GlyphSubstitutionTableReader(fontParser.raf, gsub[0], gdefTable, codeToGlyph, fontMetrics.getUnitsPerEm());
+            gsubTable = new GlyphSubstitutionTableReader(fontParser.raf.createView(), gsub[0], gdefTable, codeToGlyph, fontMetrics.getUnitsPerEm());
         }
     }
 
     protected void readGposTable() throws java.io.IOException {
         int[] gpos = fontParser.tables.get("GPOS");
         if (gpos != null) {
-            gposTable = new GlyphPositioningTableReader(fontParser.raf, gpos[0], gdefTable, codeToGlyph,  fontMetrics.getUnitsPerEm());
+            gposTable = new GlyphPositioningTableReader(fontParser.raf.createView(), gpos[0], gdefTable, codeToGlyph,  fontMetrics.getUnitsPerEm());
         }
     }
 
@@ -242,7 +255,6 @@ public class TrueTypeFont extends FontProgram {
         OpenTypeParser.WindowsMetrics os_2 = fontParser.getOs_2Table();
         OpenTypeParser.PostTable post = fontParser.getPostTable();
         isFontSpecific = fontParser.getCmapTable().fontSpecific;
-        kerning = fontParser.readKerning(head.unitsPerEm);
         bBoxes = fontParser.readBbox(head.unitsPerEm);
 
         // font names group
@@ -326,13 +338,45 @@ public class TrueTypeFont extends FontProgram {
             avgWidth /= codeToGlyph.size();
         }
 
-        readGdefTable();
-        readGsubTable();
-        readGposTable();
-
         isVertical = false;
     }
 
+    private void ensureKerningRead() {
+        if (!kerningRead) {
+            synchronized (this) {
+                if (!kerningRead) {
+                    if (fontParser != null) {
+                        try {
+                            kerning = fontParser.readKerning(fontMetrics.getUnitsPerEm());
+                        } catch (java.io.IOException e) {
+                            throw new IOException(IOException.IoException, e);
+                        }
+                    }
+                    kerningRead = true;
+                }
+            }
+        }
+    }
+
+    private void ensureOpenTypeTablesRead() {
+        if (!openTypeTablesRead) {
+            synchronized (this) {
+                if (!openTypeTablesRead) {
+                    if (fontParser != null) {
+                        try {
+                            readGdefTable();
+                            readGsubTable();
+                            readGposTable();
+                        } catch (java.io.IOException e) {
+                            throw new IOException(IOException.IoException, e);
+                        }
+                    }
+                    openTypeTablesRead = true;
+                }
+            }
+        }
+    }
+
     /**
      * Gets the code pages supported by the font.
      *
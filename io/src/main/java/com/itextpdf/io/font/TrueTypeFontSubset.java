@@ -125,6 +125,28 @@ class TrueTypeFontSubset {
         glyphsInList = new ArrayList<>(glyphsUsed);
     }
 
+    /**
+     * Creates a new TrueTypeFontSubSet which reuses the table directory and the loca table
+     * read by a previous subset of the same font instead of reading them again.
+     *
+     * @param directoryOffset The offset from the start of the file to the table directory
+     * @param fileName        the file name of the font
+     * @param glyphsUsed      the glyphs used
+     * @param includeCmap     {@code true} if the table cmap is to be included in the generated font
+     * @param tableDirectory  the table directory read by a previous subset, or {@code null}
+     * @param locaTable       the loca table read by a previous subset, or {@code null}
+     * @param locaShortTable  {@code true} if the loca table uses the short format
+     */
+    TrueTypeFontSubset(String fileName, RandomAccessFileOrArray rf, Set<Integer> glyphsUsed, int directoryOffset, boolean includeCmap, boolean includeExtras,
+                       Map<String, int[]> tableDirectory, int[] locaTable, boolean locaShortTable) {
+        this(fileName, rf, glyphsUsed, directoryOffset, includeCmap, includeExtras);
+        if (tableDirectory != null && locaTable != null) {
+            this.tableDirectory = tableDirectory;
+            this.locaTable = locaTable;
+            this.locaShortTable = locaShortTable;
+        }
+    }
+
     /**
      * Does the actual work of subsetting the font.
      *
@@ -134,8 +156,12 @@ class TrueTypeFontSubset {
      */
     byte[] process() throws java.io.IOException {
         try {
-            createTableDirectory();
-            readLoca();
+            if (tableDirectory == null) {
+                createTableDirectory();
+            }
+            if (locaTable == null) {
+                readLoca();
+            }
             flatGlyphs();
             createNewGlyphTables();
             locaToBytes();
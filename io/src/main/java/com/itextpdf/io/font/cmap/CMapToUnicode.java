@@ -51,6 +51,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -64,17 +65,32 @@ public class CMapToUnicode extends AbstractCMap {
     private static final long serialVersionUID = 1037675640549795312L;
     public static CMapToUnicode EmptyCMapToUnicodeMap = new CMapToUnicode(true);
 
-    private Map<Integer, char[]> byteMappings;
+    /**
+     * Codes have one or two bytes, so the mappings are kept in pages of 256 codes indexed by the high byte.
+     * The mapped chars are created once when the CMap is read, so lookups return the same arrays without allocations.
+     * Longer codes are rare, they are kept in a map.
+     */
+    private static final int PAGE_SIZE = 256;
+
+    private char[][][] pages;
+    private Map<Integer, char[]> longCodeMappings;
+    private int size;
+    private final boolean emptyCMap;
+    private transient volatile Set<Integer> codes;
 
     private CMapToUnicode(boolean emptyCMap) {
-        byteMappings = Collections.<Integer, char[]>emptyMap();
+        this.pages = new char[0][][];
+        this.longCodeMappings = Collections.<Integer, char[]>emptyMap();
+        this.emptyCMap = emptyCMap;
     }
 
     /**
      * Creates a new instance of CMap.
      */
     public CMapToUnicode() {
-        byteMappings = new HashMap<>();
+        this.pages = new char[PAGE_SIZE][][];
+        this.longCodeMappings = new HashMap<>();
+        this.emptyCMap = false;
     }
 
     public static CMapToUnicode getIdentity() {
@@ -91,7 +107,7 @@ public class CMapToUnicode extends AbstractCMap {
      * @return true If there are any two byte mappings, false otherwise.
      */
     public boolean hasByteMappings() {
-        return byteMappings.size() != 0;
+        return size != 0;
     }
 
     /**
@@ -107,13 +123,13 @@ public class CMapToUnicode extends AbstractCMap {
         int key;
         if (length == 1) {
             key = code[offset] & 0xff;
-            result = byteMappings.get(key);
+            result = lookup(key);
         } else if (length == 2) {
             int intKey = code[offset] & 0xff;
             intKey <<= 8;
             intKey += code[offset + 1] & 0xff;
             key = intKey;
-            result = byteMappings.get(key);
+            result = lookup(key);
         }
         return result;
     }
@@ -123,18 +139,48 @@ public class CMapToUnicode extends AbstractCMap {
     }
 
     public char[] lookup(int code) {
-        return byteMappings.get(code);
+        if (code < 0 || code / PAGE_SIZE >= pages.length) {
+            return longCodeMappings.get(code);
+        }
+        char[][] page = pages[code / PAGE_SIZE];
+        return page != null ? page[code % PAGE_SIZE] : null;
     }
 
+    /**
+     * Gets the mapped codes in ascending order, followed by the codes longer than two bytes.
+     *
+     * @return the unmodifiable set of the mapped codes
+     */
     public Set<Integer> getCodes() {
-        return byteMappings.keySet();
+        Set<Integer> result = codes;
+        if (result == null) {
+            Set<Integer> mappedCodes = new LinkedHashSet<>(size);
+            for (int i = 0; i < pages.length; i++) {
+                if (pages[i] != null) {
+                    for (int j = 0; j < PAGE_SIZE; j++) {
+                        if (pages[i][j] != null) {
+                            mappedCodes.add(i * PAGE_SIZE + j);
+                        }
+                    }
+                }
+            }
+            mappedCodes.addAll(longCodeMappings.keySet());
+            result = Collections.unmodifiableSet(mappedCodes);
+            codes = result;
+        }
+        return result;
     }
 
     public IntHashtable createDirectMapping() {
         IntHashtable result = new IntHashtable();
-        for (Map.Entry<Integer, char[]> entry : byteMappings.entrySet()) {
-            if (entry.getValue().length == 1) {
-                result.put((int) entry.getKey(), convertToInt(entry.getValue()));
+        for (int i = 0; i < pages.length; i++) {
+            if (pages[i] != null) {
+                for (int j = 0; j < PAGE_SIZE; j++) {
+                    char[] uni = pages[i][j];
+                    if (uni != null && uni.length == 1) {
+                        result.put(i * PAGE_SIZE + j, uni[0]);
+                    }
+                }
             }
         }
         return result;
@@ -142,36 +188,51 @@ public class CMapToUnicode extends AbstractCMap {
 
     public Map<Integer, Integer> createReverseMapping() throws java.io.IOException {
         Map<Integer, Integer> result = new HashMap<>();
-        for (Map.Entry<Integer, char[]> entry : byteMappings.entrySet()) {
-            if (entry.getValue().length == 1) {
-                result.put(convertToInt(entry.getValue()), entry.getKey());
+        for (int i = 0; i < pages.length; i++) {
+            if (pages[i] != null) {
+                for (int j = 0; j < PAGE_SIZE; j++) {
+                    char[] uni = pages[i][j];
+                    if (uni != null && uni.length == 1) {
+                        result.put((int) uni[0], i * PAGE_SIZE + j);
+                    }
+                }
             }
         }
         return result;
     }
 
-    private int convertToInt(char[] s) {
-        int value = 0;
-        for (int i = 0; i < s.length - 1; i++) {
-            value += s[i];
-            value <<= 8;
-        }
-        value += s[s.length - 1];
-        return value;
-    }
-
     void addChar(int cid, char[] uni) {
-        byteMappings.put(cid, uni);
+        if (emptyCMap) {
+            throw new UnsupportedOperationException();
+        }
+        codes = null;
+        int pageIndex = cid / PAGE_SIZE;
+        if (cid < 0 || pageIndex >= pages.length) {
+            if (longCodeMappings.put(cid, uni) == null) {
+                size++;
+            }
+            return;
+        }
+        char[][] page = pages[pageIndex];
+        if (page == null) {
+            page = new char[PAGE_SIZE][];
+            pages[pageIndex] = page;
+        }
+        int index = cid % PAGE_SIZE;
+        if (page[index] == null) {
+            size++;
+        }
+        page[index] = uni;
     }
 
     @Override
     void addChar(String mark, CMapObject code) {
         if (mark.length() == 1) {
             char[] dest = createCharsFromDoubleBytes((byte[]) code.getValue());
-            byteMappings.put((int) mark.charAt(0), dest);
+            addChar((int) mark.charAt(0), dest);
         } else if (mark.length() == 2) {
             char[] dest = createCharsFromDoubleBytes((byte[]) code.getValue());
-            byteMappings.put((mark.charAt(0) << 8) + mark.charAt(1), dest);
+            addChar((mark.charAt(0) << 8) + mark.charAt(1), dest);
         } else {
             Logger logger = LoggerFactory.getLogger(CMapToUnicode.class);
             logger.warn(LogMessageConstant.TOUNICODE_CMAP_MORE_THAN_2_BYTES_NOT_SUPPORTED);
@@ -58,6 +58,9 @@ public class GlyphLine implements Serializable {
     public int end;
     public int idx;
 
+    // The glyphs and actual text are shared with another line and shall be copied before the first modification
+    private boolean copyOnWrite;
+
     public GlyphLine() {
         this.glyphs = new ArrayList<>();
     }
@@ -110,6 +113,7 @@ public class GlyphLine implements Serializable {
         this.start = other.start;
         this.end = other.end;
         this.idx = other.idx;
+        this.copyOnWrite = other.copyOnWrite;
     }
 
     /**
@@ -126,6 +130,7 @@ public class GlyphLine implements Serializable {
         this.start = 0;
         this.end = end - start;
         this.idx = other.idx - start;
+        this.copyOnWrite = other.copyOnWrite;
     }
 
     /**
@@ -171,15 +176,42 @@ public class GlyphLine implements Serializable {
         return glyphLine;
     }
 
+    /**
+     * Copy a slice of this Glyphline. If the slice covers all the glyphs, they are not copied but shared
+     * by both lines until either of them is modified, so that lines which are only read never copy the glyphs.
+     * A partial slice is copied like with {@link #copy(int, int)}.
+     * <p>
+     * Note, lines created with {@link #GlyphLine(GlyphLine)} from this line still share the glyphs with it.
+     *
+     * @param left leftmost index of the slice
+     * @param right rightmost index of the slice
+     * @return new GlyphLine containing the glyphs of the slice
+     */
+    public GlyphLine copyOnWrite(int left, int right) {
+        if (left != 0 || right != glyphs.size()) {
+            return copy(left, right);
+        }
+        GlyphLine glyphLine = new GlyphLine();
+        glyphLine.start = 0;
+        glyphLine.end = right - left;
+        glyphLine.glyphs = glyphs;
+        glyphLine.actualText = actualText;
+        glyphLine.copyOnWrite = true;
+        copyOnWrite = true;
+        return glyphLine;
+    }
+
     public Glyph get(int index) {
         return glyphs.get(index);
     }
 
     public Glyph set(int index, Glyph glyph) {
+        ensureNotShared();
         return glyphs.set(index, glyph);
     }
 
     public void add(Glyph glyph) {
+        ensureNotShared();
         glyphs.add(glyph);
         if (actualText != null) {
             actualText.add(null);
@@ -187,6 +219,7 @@ public class GlyphLine implements Serializable {
     }
 
     public void add(int index, Glyph glyph) {
+        ensureNotShared();
         glyphs.add(index, glyph);
         if (actualText != null) {
             actualText.add(index, null);
@@ -198,9 +231,11 @@ public class GlyphLine implements Serializable {
         start = 0;
         end = replacementGlyphs.size();
         actualText = null;
+        copyOnWrite = false;
     }
 
     public void replaceContent(GlyphLine other) {
+        ensureNotShared();
         glyphs.clear();
         glyphs.addAll(other.glyphs);
         if (actualText != null) {
@@ -221,6 +256,7 @@ public class GlyphLine implements Serializable {
     }
 
     public void substituteManyToOne(OpenTypeFontTableReader tableReader, int lookupFlag, int rightPartLen, int substitutionGlyphIndex) {
+        ensureNotShared();
         OpenTableLookup.GlyphIndexer gidx = new OpenTableLookup.GlyphIndexer();
         gidx.line = this;
         gidx.idx = idx;
@@ -252,6 +288,7 @@ public class GlyphLine implements Serializable {
     }
 
     public void substituteOneToOne(OpenTypeFontTableReader tableReader, int substitutionGlyphIndex) {
+        ensureNotShared();
         Glyph oldGlyph = glyphs.get(idx);
         Glyph newGlyph = tableReader.getGlyph(substitutionGlyphIndex);
         if (oldGlyph.getChars() != null) {
@@ -265,6 +302,7 @@ public class GlyphLine implements Serializable {
     }
 
     public void substituteOneToMany(OpenTypeFontTableReader tableReader, int[] substGlyphIds) {
+        ensureNotShared();
         int substCode = substGlyphIds[0]; //sequence length shall be at least 1
         Glyph glyph = tableReader.getGlyph(substCode);
         glyphs.set(idx, glyph);
@@ -304,6 +342,7 @@ public class GlyphLine implements Serializable {
     }
 
     public void setActualText(int left, int right, String text) {
+        ensureNotShared();
         if (this.actualText == null) {
             this.actualText = new ArrayList<>(glyphs.size());
             for (int i = 0; i < glyphs.size(); i++)
@@ -338,18 +377,28 @@ public class GlyphLine implements Serializable {
             int otherPos = other.start + i - start;
             Glyph myGlyph = get(i);
             Glyph otherGlyph = other.get(otherPos);
-            if (myGlyph == null && otherGlyph != null || !myGlyph.equals(otherGlyph)) {
+            if (myGlyph == null && otherGlyph != null || myGlyph != null && !myGlyph.equals(otherGlyph)) {
                 return false;
             }
             ActualText myAT = actualText == null ? null : actualText.get(i);
             ActualText otherAT = other.actualText == null ? null : other.actualText.get(otherPos);
-            if (myAT == null && otherAT != null || !myAT.equals(otherAT)) {
+            if (myAT == null && otherAT != null || myAT != null && !myAT.equals(otherAT)) {
                 return false;
             }
         }
         return true;
     }
 
+    private void ensureNotShared() {
+        if (copyOnWrite) {
+            glyphs = new ArrayList<>(glyphs);
+            if (actualText != null) {
+                actualText = new ArrayList<>(actualText);
+            }
+            copyOnWrite = false;
+        }
+    }
+
     private void removeGlyph(int index) {
         glyphs.remove(index);
         if (actualText != null) {
@@ -479,8 +479,6 @@ class Woff2Dec {
             int glyph_size = 0;
             int n_contours = 0;
             boolean have_bbox = false;
-            byte[] bitmap = new byte[bitmap_length];
-            System.arraycopy(data, bbox_bitmap_offset, bitmap, 0, bitmap_length);
             if ((data[bbox_bitmap_offset + (i >> 3)] & (0x80 >> (i & 7))) != 0) {
                 have_bbox = true;
             }
@@ -740,7 +738,7 @@ class Woff2Dec {
         try {
             BrotliInputStream stream = new BrotliInputStream(new ByteArrayInputStream(src_buf, src_offset, src_length));
             while (remain > 0) {
-                int read = stream.read(dst_buf, dst_offset, dst_length);
+                int read = stream.read(dst_buf, dst_offset + dst_length - remain, remain);
                 if (read < 0) {
                     throw new FontCompressionException(FontCompressionException.BROTLI_DECODING_FAILED);
                 }
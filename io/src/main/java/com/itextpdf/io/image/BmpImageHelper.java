@@ -47,7 +47,9 @@ import com.itextpdf.io.IOException;
 import com.itextpdf.io.font.PdfEncodings;
 
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -969,163 +971,107 @@ final class BmpImageHelper {
     }
 
     private static void readRLE8(BmpParameters bmp) throws java.io.IOException {
-
-        // If imageSize field is not provided, calculate it.
-        int imSize = (int) bmp.imageSize;
-        if (imSize == 0) {
-            imSize = (int) (bmp.bitmapFileSize - bmp.bitmapOffset);
-        }
-
-        // Read till we have the whole image
-        byte[] values = new byte[imSize];
-        int bytesRead = 0;
-        while (bytesRead < imSize) {
-            bytesRead += bmp.inputStream.read(values, bytesRead,
-                    imSize - bytesRead);
-        }
-
-        // Since data is compressed, decompress it
-        byte[] val = decodeRLE(true, values, bmp);
-
-        // Uncompressed data does not have any padding
-        imSize = bmp.width * bmp.height;
-
-        if (bmp.isBottomUp) {
-
-            // Convert the bottom up image to a top down format by copying
-            // one scanline from the bottom to the top at a time.
-            // int bytesPerScanline = (int)Math.ceil((double)width/8.0);
-            byte[] temp = new byte[val.length];
-            int bytesPerScanline = bmp.width;
-            for (int i = 0; i < bmp.height; i++) {
-                System.arraycopy(val,
-                        imSize - (i + 1) * bytesPerScanline,
-                        temp,
-                        i * bytesPerScanline, bytesPerScanline);
-            }
-            val = temp;
-        }
-        indexedModel(val, 8, 4, bmp);
+        indexedModel(decodeRLE(true, bmp), 8, 4, bmp);
     }
 
     private static void readRLE4(BmpParameters bmp) throws java.io.IOException {
-        // If imageSize field is not specified, calculate it.
-        int imSize = (int) bmp.imageSize;
-        if (imSize == 0) {
-            imSize = (int) (bmp.bitmapFileSize - bmp.bitmapOffset);
-        }
-
-        // Read till we have the whole image
-        byte[] values = new byte[imSize];
-        int bytesRead = 0;
-        while (bytesRead < imSize) {
-            bytesRead += bmp.inputStream.read(values, bytesRead,
-                    imSize - bytesRead);
-        }
-
-        // Decompress the RLE4 compressed data.
-        byte[] val = decodeRLE(false, values, bmp);
-
-        // Invert it as it is bottom up format.
-        if (bmp.isBottomUp) {
-
-            byte[] inverted = val;
-            val = new byte[bmp.width * bmp.height];
-            int l = 0, index, lineEnd;
-
-            for (int i = bmp.height - 1; i >= 0; i--) {
-                index = i * bmp.width;
-                lineEnd = l + bmp.width;
-                while (l != lineEnd) {
-                    val[l++] = inverted[index++];
-                }
-            }
-        }
-        int stride = (bmp.width + 1) / 2;
-        byte[] bdata = new byte[stride * bmp.height];
-        int ptr = 0;
-        int sh = 0;
-        for (int h = 0; h < bmp.height; ++h) {
-            for (int w = 0; w < bmp.width; ++w) {
-                if ((w & 1) == 0)
-                    bdata[sh + w / 2] = (byte) (val[ptr++] << 4);
-                else
-                    bdata[sh + w / 2] |= (byte) (val[ptr++] & 0x0f);
-            }
-            sh += stride;
-        }
-        indexedModel(bdata, 4, 4, bmp);
+        indexedModel(decodeRLE(false, bmp), 4, 4, bmp);
     }
 
-    private static byte[] decodeRLE(boolean is8, byte[] values, BmpParameters bmp) {
-        byte[] val = new byte[bmp.width * bmp.height];
+    /**
+     * Decodes RLE8 or RLE4 compressed data right into the packed top down rows of the image, so that neither
+     * the compressed data nor the expanded pixels are copied to intermediate buffers. The runs which go beyond
+     * the end of a row are clipped.
+     */
+    private static byte[] decodeRLE(boolean is8, BmpParameters bmp) throws java.io.IOException {
+        int stride = is8 ? bmp.width : (bmp.width + 1) / 2;
+        byte[] bdata = new byte[stride * bmp.height];
+        InputStream stream = bmp.inputStream;
         try {
-            int ptr = 0;
             int x = 0;
-            int q = 0;
-            for (int y = 0; y < bmp.height && ptr < values.length; ) {
-                int count = values[ptr++] & 0xff;
+            for (int y = 0; y < bmp.height; ) {
+                int rowStart = (bmp.isBottomUp ? bmp.height - 1 - y : y) * stride;
+                int count = readRLEByte(stream);
                 if (count != 0) {
                     // encoded mode
-                    int bt = values[ptr++] & 0xff;
+                    int bt = readRLEByte(stream);
                     if (is8) {
-                        for (int i = count; i != 0; --i) {
-                            val[q++] = (byte) bt;
+                        if (x < bmp.width) {
+                            Arrays.fill(bdata, rowStart + x, rowStart + Math.min(x + count, bmp.width), (byte) bt);
                         }
                     } else {
                         for (int i = 0; i < count; ++i) {
-                            val[q++] = (byte) ((i & 1) == 1 ? bt & 0x0f : bt >>> 4 & 0x0f);
+                            setRLE4Pixel(bdata, rowStart, x + i, (i & 1) == 1 ? bt & 0x0f : bt >>> 4, bmp);
                         }
                     }
                     x += count;
                 } else {
                     // escape mode
-                    count = values[ptr++] & 0xff;
+                    count = readRLEByte(stream);
                     if (count == 1)
                         break;
                     switch (count) {
                         case 0:
                             x = 0;
                             ++y;
-                            q = y * bmp.width;
                             break;
                         case 2:
                             // delta mode
-                            x += values[ptr++] & 0xff;
-                            y += values[ptr++] & 0xff;
-                            q = y * bmp.width + x;
+                            x += readRLEByte(stream);
+                            y += readRLEByte(stream);
                             break;
                         default:
                             // absolute mode
                             if (is8) {
-                                for (int i = count; i != 0; --i)
-                                    val[q++] = (byte) (values[ptr++] & 0xff);
+                                for (int i = 0; i < count; ++i) {
+                                    int bt = readRLEByte(stream);
+                                    if (x + i < bmp.width)
+                                        bdata[rowStart + x + i] = (byte) bt;
+                                }
                             } else {
                                 int bt = 0;
                                 for (int i = 0; i < count; ++i) {
                                     if ((i & 1) == 0)
-                                        bt = values[ptr++] & 0xff;
-                                    val[q++] = (byte) ((i & 1) == 1 ? bt & 0x0f : bt >>> 4 & 0x0f);
+                                        bt = readRLEByte(stream);
+                                    setRLE4Pixel(bdata, rowStart, x + i, (i & 1) == 1 ? bt & 0x0f : bt >>> 4, bmp);
                                 }
                             }
                             x += count;
                             // read pad byte
                             if (is8) {
                                 if ((count & 1) == 1)
-                                    ++ptr;
+                                    stream.read();
                             } else {
                                 if ((count & 3) == 1 || (count & 3) == 2)
-                                    ++ptr;
+                                    stream.read();
                             }
                             break;
                     }
                 }
             }
-        } catch (Exception e) {
-            //empty on purpose
+        } catch (EOFException e) {
+            // the pixels missing from the truncated image data are left with index 0
         }
+        return bdata;
+    }
 
-        return val;
+    private static void setRLE4Pixel(byte[] bdata, int rowStart, int x, int value, BmpParameters bmp) {
+        if (x < bmp.width) {
+            int index = rowStart + x / 2;
+            if ((x & 1) == 0) {
+                bdata[index] = (byte) (bdata[index] & 0x0f | value << 4);
+            } else {
+                bdata[index] = (byte) (bdata[index] & 0xf0 | value);
+            }
+        }
+    }
+
+    private static int readRLEByte(InputStream stream) throws java.io.IOException {
+        int b = stream.read();
+        if (b < 0) {
+            throw new EOFException();
+        }
+        return b;
     }
 
     // Windows defined data type reading methods - everything is little endian
@@ -45,11 +45,14 @@ package com.itextpdf.io.image;
 
 import com.itextpdf.io.IOException;
 import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.io.source.DeflaterOutputStream;
 import com.itextpdf.io.util.StreamUtil;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -57,6 +60,9 @@ public final class GifImageHelper {
 
     static final int MAX_STACK_SIZE = 4096;   // max decoder pixel stack size
 
+    // frames which are not larger than this are kept uncompressed, e.g. so that they can be written as inline images
+    private static final int MAX_BUFFERED_FRAME_SIZE = 4096;
+
     private static class GifParameters {
 
         public GifParameters(GifImageData image) {
@@ -92,6 +98,7 @@ public final class GifImageHelper {
         byte[] pixels;
 
         byte[] m_out;
+        boolean m_deflated;
         int m_bpc;
         int m_gbpc;
         byte[] m_global_table;
@@ -305,6 +312,7 @@ public final class GifImageHelper {
             ad.put("ColorSpace", colorspace);
             RawImageData img = new RawImageData(gif.m_out, ImageType.NONE);
             RawImageHelper.updateRawImageParameters(img, gif.iw, gif.ih, 1, gif.m_bpc, gif.m_out);
+            img.setDeflated(gif.m_deflated);
             RawImageHelper.updateImageAttributes(img, ad);
             gif.image.addFrame(img);
             if (gif.transparency) {
@@ -330,11 +338,25 @@ public final class GifImageHelper {
             gif.pixelStack = new byte[MAX_STACK_SIZE +1];
 
         gif.m_line_stride = (gif.iw * gif.m_bpc + 7) / 8;
-        gif.m_out = new byte[gif.m_line_stride * gif.ih];
+        // Rows of non-interlaced images come in order, so each row of a large frame is compressed as soon as it
+        // is decoded and m_out only holds the current row. Interlaced images need the whole frame to merge the passes.
+        gif.m_deflated = !gif.interlace && gif.m_line_stride * gif.ih > MAX_BUFFERED_FRAME_SIZE;
+        ByteArrayOutputStream outStream = null;
+        DeflaterOutputStream outZip = null;
+        if (gif.m_deflated) {
+            gif.m_out = new byte[gif.m_line_stride];
+            outStream = new ByteArrayOutputStream();
+            outZip = new DeflaterOutputStream(outStream);
+        } else {
+            gif.m_out = new byte[gif.m_line_stride * gif.ih];
+        }
         int pass = 1;
         int inc = gif.interlace ? 8 : 1;
         int line = 0;
         int xpos = 0;
+        // position of the next pixel in m_out
+        int pos = 0;
+        int shift = 8 - gif.m_bpc;
 
         //  Initialize GIF data stream decoder.
 
@@ -429,10 +451,30 @@ public final class GifImageHelper {
             top--;
             i++;
 
-            setPixel(xpos, line, gif.pixelStack[top], gif);
+            if (gif.m_bpc == 8) {
+                gif.m_out[pos++] = gif.pixelStack[top];
+            } else {
+                gif.m_out[pos] |= (byte) (gif.pixelStack[top] << shift);
+                shift -= gif.m_bpc;
+                if (shift < 0) {
+                    shift = 8 - gif.m_bpc;
+                    pos++;
+                }
+            }
             ++xpos;
             if (xpos >= gif.iw) {
                 xpos = 0;
+                shift = 8 - gif.m_bpc;
+                if (outZip != null) {
+                    // like the buffered path, which clamps to the last row, never write more than gif.ih rows
+                    if (line < gif.ih) {
+                        outZip.write(gif.m_out);
+                        line++;
+                    }
+                    Arrays.fill(gif.m_out, (byte) 0);
+                    pos = 0;
+                    continue;
+                }
                 line += inc;
                 if (line >= gif.ih) {
                     if (gif.interlace) {
@@ -461,22 +503,19 @@ public final class GifImageHelper {
                         inc = 0;
                     }
                 }
+                pos = gif.m_line_stride * line;
             }
         }
-        return skipZero;
-    }
-
-
-    private static void setPixel(int x, int y, int v, GifParameters gif) {
-        if (gif.m_bpc == 8) {
-            int pos = x + gif.iw * y;
-            gif.m_out[pos] = (byte)v;
-        }
-        else {
-            int pos = gif.m_line_stride * y + x / (8 / gif.m_bpc);
-            int vout = v << 8 - gif.m_bpc * (x % (8 / gif.m_bpc))- gif.m_bpc;
-            gif.m_out[pos] |= (byte) vout;
+        if (outZip != null) {
+            // the pixels missing from the truncated image data are left with index 0
+            for (; line < gif.ih; line++) {
+                outZip.write(gif.m_out);
+                Arrays.fill(gif.m_out, (byte) 0);
+            }
+            outZip.close();
+            gif.m_out = outStream.toByteArray();
         }
+        return skipZero;
     }
 
     /**
@@ -131,6 +131,39 @@ public final class ImageDataFactory {
         return create(filename, false);
     }
 
+    /**
+     * Create an ImageData instance representing the image from the file located at the specified url,
+     * which is read and decoded only when its data is needed.
+     * Only the header of JPEG and PNG images is read, the images of other types are processed at once.
+     * @param url location of the image
+     * @param recoverImage whether to recover from a image error (for TIFF-images)
+     * @return The created ImageData object, {@link LazyImageData} for JPEG and PNG images.
+     */
+    public static ImageData createLazy(URL url, boolean recoverImage) {
+        byte[] imageType = readImageType(url);
+        if (imageTypeIs(imageType, jpeg)) {
+            ImageData image = new LazyImageData(url, ImageType.JPEG, recoverImage);
+            JpegImageHelper.processImageHeader(image);
+            return image;
+        } else if (imageTypeIs(imageType, png)) {
+            ImageData image = new LazyImageData(url, ImageType.PNG, recoverImage);
+            PngImageHelper.processImageHeader(image);
+            return image;
+        }
+        return createImageInstance(url, recoverImage);
+    }
+
+    /**
+     * Create an ImageData instance representing the image from the file located at the specified url,
+     * which is read and decoded only when its data is needed.
+     * @param url location of the image
+     * @return The created ImageData object.
+     * @see #createLazy(URL, boolean)
+     */
+    public static ImageData createLazy(URL url) {
+        return createLazy(url, false);
+    }
+
     /**
      * Create an ImageData instance from the passed parameters.
      *
@@ -404,6 +437,39 @@ public final class ImageDataFactory {
 
     }
 
+    /**
+     * Returns the images of all the pages of a JBIG2 image. Unlike creating the images page by page,
+     * the image is parsed only once, and the pages share the same global segments data, so that Image XObjects
+     * created for them together can refer to a single /JBIG2Globals stream. A local file is read through
+     * a random access source rather than loaded into memory as a whole.
+     *
+     * @param url url of the JBIG2 image
+     * @return the list of the images of the pages
+     */
+    public static List<ImageData> createJbig2Pages(URL url) {
+        byte[] imageType = readImageType(url);
+        if (imageTypeIs(imageType, jbig2)) {
+            return Jbig2ImageHelper.processPages(null, url);
+        }
+        throw new IOException(IOException.ImageFormatCannotBeRecognized);
+    }
+
+    /**
+     * Returns the images of all the pages of a JBIG2 image. Unlike creating the images page by page,
+     * the image is parsed only once, and the pages share the same global segments data, so that Image XObjects
+     * created for them together can refer to a single /JBIG2Globals stream.
+     *
+     * @param bytes array containing the JBIG2 image
+     * @return the list of the images of the pages
+     */
+    public static List<ImageData> createJbig2Pages(byte[] bytes) {
+        byte[] imageType = readImageType(bytes);
+        if (imageTypeIs(imageType, jbig2)) {
+            return Jbig2ImageHelper.processPages(bytes, null);
+        }
+        throw new IOException(IOException.ImageFormatCannotBeRecognized);
+    }
+
     /**
      * Create a ImageData instance from a Jpeg image url
      * @param url
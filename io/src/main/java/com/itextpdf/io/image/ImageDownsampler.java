@@ -0,0 +1,342 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.image;
+
+import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.util.ContentKey;
+import com.itextpdf.io.util.FutureUtil;
+import com.itextpdf.io.util.LruCache;
+import com.itextpdf.io.util.MessageFormatUtil;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reduces the resolution of oversized JPEG images, e.g. of phone photos, to the target resolution
+ * for the size at which they are displayed.
+ * <p>
+ * Downsampling is an optional stage applied to the {@link ImageData} before the image is added to a document.
+ * By default the images are not downsampled and JPEG images are embedded as is. An image is resampled and
+ * re-encoded only if its resolution exceeds the target one by more than {@link #RESAMPLING_THRESHOLD} times,
+ * the images which don't need it are returned as is, without reading or decoding their data.
+ * <p>
+ * The downsampled images are cached by their content, target size and quality, so an image which is used
+ * several times, even in different documents, is resampled only once. A single instance may be shared by threads.
+ */
+public class ImageDownsampler {
+
+    /**
+     * The default maximum number of downsampled images kept in the cache.
+     */
+    public static final int DEFAULT_MAX_CACHE_SIZE = 100;
+
+    /**
+     * The default quality of the re-encoded JPEG images.
+     */
+    public static final float DEFAULT_QUALITY = 0.85f;
+
+    /**
+     * The images whose resolution exceeds the target one at most this many times are not downsampled,
+     * since the size reduction wouldn't be worth the quality loss of re-encoding.
+     */
+    public static final float RESAMPLING_THRESHOLD = 1.5f;
+
+    // marks the images which are not smaller after resampling in the cache
+    private static final byte[] NOT_REDUCED = new byte[0];
+
+    private final float targetDpi;
+    private float quality = DEFAULT_QUALITY;
+    private int parallelism = 1;
+    private final LruCache<ContentKey, byte[]> cache;
+
+    /**
+     * Creates a downsampler which keeps at most {@link #DEFAULT_MAX_CACHE_SIZE} downsampled images in its cache.
+     *
+     * @param targetDpi the target resolution of the displayed images, in pixels per inch, must be positive
+     */
+    public ImageDownsampler(float targetDpi) {
+        this(targetDpi, DEFAULT_MAX_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a downsampler which keeps at most the specified number of downsampled images in its cache.
+     *
+     * @param targetDpi    the target resolution of the displayed images, in pixels per inch, must be positive
+     * @param maxCacheSize the maximum number of downsampled images kept in the cache, must be positive
+     */
+    public ImageDownsampler(float targetDpi, int maxCacheSize) {
+        if (targetDpi <= 0) {
+            throw new IllegalArgumentException("Target resolution must be positive.");
+        }
+        this.targetDpi = targetDpi;
+        this.cache = new LruCache<>(maxCacheSize);
+    }
+
+    /**
+     * Gets the target resolution of the displayed images.
+     *
+     * @return the target resolution in pixels per inch
+     */
+    public float getTargetDpi() {
+        return targetDpi;
+    }
+
+    /**
+     * Sets the quality of the re-encoded JPEG images. Default value - {@link #DEFAULT_QUALITY}.
+     *
+     * @param quality the quality from 0 to 1, where 1 is the highest quality
+     * @return this {@code ImageDownsampler} instance
+     */
+    public ImageDownsampler setQuality(float quality) {
+        if (quality < 0 || quality > 1) {
+            throw new IllegalArgumentException("Quality must be in the range from 0 to 1.");
+        }
+        this.quality = quality;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of images downsampled concurrently by {@link #downsample(List, float, float)}.
+     * Default value - 1, i.e. the images are downsampled one by one on the calling thread.
+     *
+     * @param parallelism the number of threads used for downsampling, must be positive
+     * @return this {@code ImageDownsampler} instance
+     */
+    public ImageDownsampler setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive.");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Gets the number of downsampled images currently kept in the cache.
+     *
+     * @return the current size of the cache
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Gets the number of downsampled images which have been taken from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    /**
+     * Gets the number of images which have not been found in the cache and have been downsampled.
+     *
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    /**
+     * Removes all the downsampled images from the cache.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Downsamples the image if its resolution exceeds the target one for the specified displayed size.
+     * Only JPEG images in the DeviceGray and DeviceRGB color spaces are downsampled, other images are returned as is.
+     * The colors of a downsampled image are converted to sRGB, its ICC profile is not kept.
+     *
+     * @param image         the image to downsample
+     * @param displayWidth  the width at which the image is displayed, in points
+     * @param displayHeight the height at which the image is displayed, in points
+     * @return the downsampled image or the same image if it doesn't need to be or cannot be downsampled
+     */
+    public ImageData downsample(ImageData image, float displayWidth, float displayHeight) {
+        if (image.getOriginalType() != ImageType.JPEG || (image.getColorSpace() != 1 && image.getColorSpace() != 3)
+                || image.getImageMask() != null) {
+            return image;
+        }
+        int targetWidth = (int) Math.ceil(displayWidth / 72 * targetDpi);
+        int targetHeight = (int) Math.ceil(displayHeight / 72 * targetDpi);
+        float scale = Math.min(targetWidth / image.getWidth(), targetHeight / image.getHeight());
+        if (targetWidth <= 0 || targetHeight <= 0 || scale * RESAMPLING_THRESHOLD >= 1) {
+            return image;
+        }
+        targetWidth = Math.max(1, Math.round(image.getWidth() * scale));
+        targetHeight = Math.max(1, Math.round(image.getHeight() * scale));
+
+        ImageData loadedImage = image instanceof LazyImageData ? ((LazyImageData) image).load() : image;
+        byte[] imageBytes = loadedImage.getData();
+        if (imageBytes == null) {
+            return image;
+        }
+        ContentKey key = new ContentKey(imageBytes, targetWidth, targetHeight, quality);
+        byte[] downsampledBytes = cache.get(key);
+        if (downsampledBytes == null) {
+            try {
+                downsampledBytes = resample(imageBytes, targetWidth, targetHeight, quality);
+            } catch (Exception e) {
+                LoggerFactory.getLogger(ImageDownsampler.class).warn(LogMessageConstant.IMAGE_CANNOT_BE_DOWNSAMPLED, e);
+                return loadedImage;
+            }
+            if (downsampledBytes.length >= imageBytes.length) {
+                // it's remembered that the image is not worth downsampling, so the resampling is not repeated
+                downsampledBytes = NOT_REDUCED;
+            }
+            cache.put(key, downsampledBytes);
+        }
+        if (downsampledBytes == NOT_REDUCED) {
+            return loadedImage;
+        }
+        ImageData downsampledImage = ImageDataFactory.create(downsampledBytes);
+        if (loadedImage.getDpiX() > 0 && loadedImage.getDpiY() > 0) {
+            downsampledImage.setDpi(Math.max(1, Math.round(loadedImage.getDpiX() * targetWidth / loadedImage.getWidth())),
+                    Math.max(1, Math.round(loadedImage.getDpiY() * targetHeight / loadedImage.getHeight())));
+        }
+        downsampledImage.setInterpolation(loadedImage.isInterpolation());
+        return downsampledImage;
+    }
+
+    /**
+     * Downsamples the images which exceed the target resolution for the specified displayed size,
+     * see {@link #downsample(ImageData, float, float)}. If the parallelism is greater than 1,
+     * see {@link #setParallelism(int)}, the images are downsampled on a thread pool.
+     *
+     * @param images        the images to downsample
+     * @param displayWidth  the width at which the images are displayed, in points
+     * @param displayHeight the height at which the images are displayed, in points
+     * @return the list of the downsampled images in the same order
+     */
+    public List<ImageData> downsample(List<ImageData> images, final float displayWidth, final float displayHeight) {
+        List<ImageData> downsampledImages = new ArrayList<>(images.size());
+        if (parallelism == 1 || images.size() < 2) {
+            for (ImageData image : images) {
+                downsampledImages.add(downsample(image, displayWidth, displayHeight));
+            }
+            return downsampledImages;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, images.size()));
+        try {
+            List<Future<ImageData>> futures = new ArrayList<>(images.size());
+            for (final ImageData image : images) {
+                futures.add(executor.submit(new Callable<ImageData>() {
+                    @Override
+                    public ImageData call() {
+                        return downsample(image, displayWidth, displayHeight);
+                    }
+                }));
+            }
+            for (Future<ImageData> future : futures) {
+                downsampledImages.add(FutureUtil.getResult(future));
+            }
+            return downsampledImages;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Decodes the JPEG image, scales it down to the target size and encodes it as JPEG again.
+     */
+    private static byte[] resample(byte[] imageBytes, int targetWidth, int targetHeight, float quality) throws java.io.IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(imageBytes));
+        if (image == null) {
+            throw new java.io.IOException(MessageFormatUtil.format("No reader for the image of type {0}", ImageType.JPEG));
+        }
+        int type = image.getColorModel().getNumColorComponents() == 1 ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        // bilinear scaling by more than a half skips source pixels, so the image is halved until it's small enough
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage scaled = new BufferedImage(width, height, type);
+            Graphics2D graphics = scaled.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+            graphics.dispose();
+            image = scaled;
+        } while (width != targetWidth || height != targetHeight);
+
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new java.io.IOException(MessageFormatUtil.format("No writer for the image of type {0}", ImageType.JPEG));
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageOutputStream output = ImageIO.createImageOutputStream(baos);
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+            output.close();
+        }
+        return baos.toByteArray();
+    }
+}
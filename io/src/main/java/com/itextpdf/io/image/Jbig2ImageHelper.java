@@ -49,7 +49,11 @@ import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.source.IRandomAccessSource;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
 
+import java.io.File;
+import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 class Jbig2ImageHelper {
@@ -83,36 +87,90 @@ class Jbig2ImageHelper {
             }
             ras = new RandomAccessSourceFactory().createSource(image.getData());
             RandomAccessFileOrArray raf = new RandomAccessFileOrArray(ras);
-            Jbig2SegmentReader sr = new Jbig2SegmentReader(raf);
-            sr.read();
-            Jbig2SegmentReader.Jbig2Page p = sr.getPage(image.getPage());
-            raf.close();
-
-            image.setHeight(p.pageBitmapHeight);
-            image.setWidth(p.pageBitmapWidth);
-            image.setBpc(1);
-            image.setColorSpace(1);
-            //TODO JBIG2 globals caching
-            byte[] globals = sr.getGlobal(true);
-
-            //TODO due to the fact, that streams now may be transformed to indirect objects only on writing,
-            //pdfStream.getDocument() cannot longer be the sign of inline/indirect images
-
-            // in case inline image pdfStream.getDocument() will be null
-            if (globals != null /*&& stream.getDocument() != null*/) {
-                Map<String, Object> decodeParms = new HashMap<>();
-//                PdfStream globalsStream = new PdfStream().makeIndirect(pdfStream.getDocument());
-//                globalsStream.getOutputStream().write(globals);
-                decodeParms.put("JBIG2Globals", globals);
-                image.decodeParms = decodeParms;
+            try {
+                Jbig2SegmentReader sr = new Jbig2SegmentReader(raf);
+                sr.read();
+                // the segment data is read from the source, so it must be done before the source is closed
+                updateImage(image, sr.getPage(image.getPage()), sr.getGlobal(true));
+            } finally {
+                raf.close();
             }
+        } catch (java.io.IOException e) {
+            throw new IOException(IOException.Jbig2ImageException, e);
+        }
+    }
 
-            image.setFilter("JBIG2Decode");
-            image.setColorSpace(1);
-            image.setBpc(1);
-            image.data = p.getData(true);
+    /**
+     * Reads all the pages of a JBIG2 image. The file is parsed only once, and all the pages share
+     * the same array of global segments, so that it can be written as a single /JBIG2Globals stream.
+     * The segments of each page are read straight from the source into the image data of the page.
+     * A local file is read through a random access source, the content of other urls is read into memory.
+     *
+     * @param bytes the content of the JBIG2 image, or {@code null} if it is read from the url
+     * @param url   the url of the JBIG2 image, or {@code null} if the content is passed
+     * @return the list of the images of the pages
+     */
+    static List<ImageData> processPages(byte[] bytes, URL url) {
+        try {
+            IRandomAccessSource ras = bytes != null ? new RandomAccessSourceFactory().createSource(bytes)
+                    : createSource(url);
+            RandomAccessFileOrArray raf = new RandomAccessFileOrArray(ras);
+            try {
+                Jbig2SegmentReader sr = new Jbig2SegmentReader(raf);
+                sr.read();
+                byte[] globals = sr.getGlobal(true);
+                int numberOfPages = sr.numberOfPages();
+                List<ImageData> pages = new ArrayList<>(numberOfPages);
+                for (int page = 1; page <= numberOfPages; page++) {
+                    Jbig2ImageData image = bytes != null ? new Jbig2ImageData(bytes, page) : new Jbig2ImageData(url, page);
+                    updateImage(image, sr.getPage(page), globals);
+                    pages.add(image);
+                }
+                return pages;
+            } finally {
+                raf.close();
+            }
         } catch (java.io.IOException e) {
             throw new IOException(IOException.Jbig2ImageException, e);
         }
     }
+
+    private static IRandomAccessSource createSource(URL url) throws java.io.IOException {
+        if ("file".equals(url.getProtocol())) {
+            File file = null;
+            try {
+                file = new File(url.toURI());
+            } catch (Exception ignored) {
+                // the url can't be converted to a file path, so it's read as any other url
+            }
+            if (file != null) {
+                return new RandomAccessSourceFactory().createBestSource(file.getPath());
+            }
+        }
+        return new RandomAccessSourceFactory().createSource(url);
+    }
+
+    private static void updateImage(Jbig2ImageData image, Jbig2SegmentReader.Jbig2Page p, byte[] globals) throws java.io.IOException {
+        image.setHeight(p.pageBitmapHeight);
+        image.setWidth(p.pageBitmapWidth);
+        image.setBpc(1);
+        image.setColorSpace(1);
+
+        //TODO due to the fact, that streams now may be transformed to indirect objects only on writing,
+        //pdfStream.getDocument() cannot longer be the sign of inline/indirect images
+
+        // in case inline image pdfStream.getDocument() will be null
+        if (globals != null /*&& stream.getDocument() != null*/) {
+            Map<String, Object> decodeParms = new HashMap<>();
+//                PdfStream globalsStream = new PdfStream().makeIndirect(pdfStream.getDocument());
+//                globalsStream.getOutputStream().write(globals);
+            decodeParms.put("JBIG2Globals", globals);
+            image.decodeParms = decodeParms;
+        }
+
+        image.setFilter("JBIG2Decode");
+        image.setColorSpace(1);
+        image.setBpc(1);
+        image.data = p.getData(true);
+    }
 }
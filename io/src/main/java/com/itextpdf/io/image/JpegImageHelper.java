@@ -45,6 +45,7 @@ package com.itextpdf.io.image;
 
 import com.itextpdf.io.IOException;
 import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.io.util.UrlUtil;
 import com.itextpdf.io.colors.IccProfile;
 
 import java.io.InputStream;
@@ -152,6 +153,29 @@ class JpegImageHelper {
         updateAttributes(image);
     }
 
+    /**
+     * Processes the parameters of the JPEG image located at the image URL. Only the header of the image is read,
+     * the image data is not loaded.
+     *
+     * @param image the image to process as a JPEG image
+     */
+    static void processImageHeader(ImageData image) {
+        InputStream jpegStream = null;
+        try {
+            jpegStream = UrlUtil.openStream(image.getUrl());
+            processParameters(jpegStream, image.getUrl().toString(), image);
+        } catch (java.io.IOException e) {
+            throw new IOException(IOException.JpegImageException, e);
+        } finally {
+            if (jpegStream != null) {
+                try {
+                    jpegStream.close();
+                } catch (java.io.IOException ignore) { }
+            }
+        }
+        updateAttributes(image);
+    }
+
     private static void updateAttributes(ImageData image) {
         image.filter = "DCTDecode";
         if (image.getColorTransform() == 0) {
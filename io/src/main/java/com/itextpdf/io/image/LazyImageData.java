@@ -0,0 +1,87 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.image;
+
+import java.net.URL;
+
+/**
+ * Image located at the URL, which is loaded and decoded only when its data is needed.
+ * <p>
+ * On creation only the header of the image is read, so that the size and the resolution of the image are known,
+ * e.g. for the layout. The image itself is read and decoded by {@link #load()}, which does not keep the result,
+ * so the whole image is held in memory only while it's written. See {@link ImageDataFactory#createLazy(URL, boolean)}.
+ */
+public class LazyImageData extends ImageData {
+
+    private final boolean recoverImage;
+
+    LazyImageData(URL url, ImageType type, boolean recoverImage) {
+        super(url, type);
+        this.recoverImage = recoverImage;
+    }
+
+    /**
+     * Reads and decodes the image. Every call reads the image anew.
+     *
+     * @return the fully processed image, with the image mask and interpolation set on this instance
+     */
+    public ImageData load() {
+        ImageData image = ImageDataFactory.create(getUrl(), recoverImage);
+        if (getImageMask() != null) {
+            image.setImageMask(getImageMask());
+        }
+        image.setInterpolation(isInterpolation());
+        return image;
+    }
+
+    /**
+     * The lazily loaded images are never written as inline images, since their data size is not known in advance.
+     *
+     * @return false
+     */
+    @Override
+    public boolean canImageBeInline() {
+        return false;
+    }
+}
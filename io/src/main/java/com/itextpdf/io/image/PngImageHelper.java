@@ -47,16 +47,19 @@ import com.itextpdf.io.IOException;
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.util.FilterUtil;
 import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.io.util.UrlUtil;
 import com.itextpdf.io.colors.IccProfile;
 import com.itextpdf.io.font.PdfEncodings;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteBuffer;
+import com.itextpdf.io.source.DeflaterOutputStream;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import com.itextpdf.io.util.MessageFormatUtil;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -80,8 +83,18 @@ class PngImageHelper {
         Map<String, Object> additional = new HashMap<>();
         byte[] imageData;
         byte[] smask;
+        // Non-interlaced images are decoded row by row and the rows are compressed right away,
+        // so imageData and smask only hold the current row. The compressed rows and the source
+        // PNG bytes kept by the image are still held in full.
+        boolean decodeRows;
+        ByteArrayOutputStream imageDataStream;
+        DeflaterOutputStream imageDataZip;
+        ByteArrayOutputStream smaskStream;
+        DeflaterOutputStream smaskZip;
+        boolean opaqueSmask;
         byte[] trans;
-        ByteArrayOutputStream idat = new ByteArrayOutputStream();
+        // the image data read from the IDAT chunks of the source stream
+        InputStream idat;
         int dpiX;
         int dpiY;
         float XYRatio;
@@ -155,7 +168,6 @@ class PngImageHelper {
      */
     public static final String iCCP = "iCCP";
 
-    private static final int TRANSFERSIZE = 4096;
     private static final int PNG_FILTER_NONE = 0;
     private static final int PNG_FILTER_SUB = 1;
     private static final int PNG_FILTER_UP = 2;
@@ -190,6 +202,29 @@ class PngImageHelper {
         RawImageHelper.updateImageAttributes(png.image, png.additional);
     }
 
+    /**
+     * Reads the size and the resolution of the PNG image located at the image URL. Only the chunks preceding
+     * the image data are read.
+     *
+     * @param image the image to process as a PNG image
+     */
+    static void processImageHeader(ImageData image) {
+        InputStream pngStream = null;
+        try {
+            pngStream = UrlUtil.openStream(image.getUrl());
+            readPngHeader(pngStream, image);
+        } catch (java.io.IOException e) {
+            throw new IOException(IOException.PngImageException, e);
+        } finally {
+            if (pngStream != null) {
+                try {
+                    pngStream.close();
+                } catch (java.io.IOException ignored) {
+                }
+            }
+        }
+    }
+
     private static void processPng(InputStream pngStream, PngParameters png) throws java.io.IOException {
         readPng(pngStream, png);
         if (png.iccProfile != null && png.iccProfile.getNumComponents() != getExpectedNumberOfColorComponents(png)) {
@@ -238,6 +273,10 @@ class PngImageHelper {
             }
             if (needDecode)
                 decodeIdat(png);
+            if ((png.colorType & 4) != 0 && png.opaqueSmask) {
+                // the alpha channel doesn't make any pixel transparent, so no soft mask is needed
+                png.palShades = false;
+            }
             int components = png.inputBands;
             if ((png.colorType & 4) != 0)
                 --components;
@@ -250,8 +289,9 @@ class PngImageHelper {
                 } else {
                     RawImageHelper.updateRawImageParameters(png.image, png.width, png.height, components, bpc, png.imageData, null);
                 }
+                png.image.setDeflated(png.decodeRows);
             } else {
-                RawImageHelper.updateRawImageParameters(png.image, png.width, png.height, components, bpc, png.idat.toByteArray());
+                RawImageHelper.updateRawImageParameters(png.image, png.width, png.height, components, bpc, StreamUtil.inputStreamToArray(png.idat));
                 png.image.setDeflated(true);
                 Map<String, Object> decodeparms = new HashMap<>();
                 decodeparms.put("BitsPerComponent", png.bitDepth);
@@ -269,12 +309,14 @@ class PngImageHelper {
             if (png.palShades) {
                 RawImageData im2 = (RawImageData) ImageDataFactory.createRawImage(null);
                 RawImageHelper.updateRawImageParameters(im2, png.width, png.height, 1, 8, png.smask);
+                im2.setDeflated(png.decodeRows);
                 im2.makeMask();
                 png.image.setImageMask(im2);
             }
             if (png.genBWMask) {
                 RawImageData im2 = (RawImageData) ImageDataFactory.createRawImage(null);
                 RawImageHelper.updateRawImageParameters(im2, png.width, png.height, 1, 1, png.smask);
+                im2.setDeflated(png.decodeRows);
                 im2.makeMask();
                 png.image.setImageMask(im2);
             }
@@ -285,6 +327,15 @@ class PngImageHelper {
         }
     }
 
+    private static boolean isOpaque(byte[] alpha) {
+        for (byte a : alpha) {
+            if (a != (byte) 0xff) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static Object getColorspace(PngParameters png) {
         if (png.iccProfile != null) {
             if ((png.colorType & 2) == 0)
@@ -365,21 +416,15 @@ class PngImageHelper {
                 throw new java.io.IOException("file.is.not.a.valid.png");
             }
         }
-        byte[] buffer = new byte[TRANSFERSIZE];
         while (true) {
             int len = getInt(pngStream);
             String marker = getString(pngStream);
             if (len < 0 || !checkMarker(marker))
                 throw new java.io.IOException("corrupted.png.file");
             if (IDAT.equals(marker)) {
-                int size;
-                while (len != 0) {
-                    size = pngStream.read(buffer, 0, Math.min(len, TRANSFERSIZE));
-                    if (size < 0)
-                        return;
-                    png.idat.write(buffer, 0, size);
-                    len -= size;
-                }
+                // the chunks describing the image precede the image data, which is read from the stream when decoded
+                png.idat = new IdatInputStream(pngStream, len);
+                return;
             } else if (tRNS.equals(marker)) {
                 switch (png.colorType) {
                     case 0:
@@ -514,6 +559,7 @@ class PngImageHelper {
                     png.iccProfile = null;
                 }
             } else if (IEND.equals(marker)) {
+                png.idat = new ByteArrayInputStream(new byte[0]);
                 break;
             } else {
                 StreamUtil.skip(pngStream, len);
@@ -522,6 +568,39 @@ class PngImageHelper {
         }
     }
 
+    private static void readPngHeader(InputStream pngStream, ImageData image) throws java.io.IOException {
+        for (int i = 0; i < PNGID.length; i++) {
+            if (PNGID[i] != pngStream.read()) {
+                throw new java.io.IOException("file.is.not.a.valid.png");
+            }
+        }
+        while (true) {
+            int len = getInt(pngStream);
+            String marker = getString(pngStream);
+            if (len < 0 || !checkMarker(marker))
+                throw new java.io.IOException("corrupted.png.file");
+            if (IHDR.equals(marker)) {
+                image.setWidth(getInt(pngStream));
+                image.setHeight(getInt(pngStream));
+                len -= 8;
+            } else if (pHYs.equals(marker)) {
+                int dx = getInt(pngStream);
+                int dy = getInt(pngStream);
+                int unit = pngStream.read();
+                len -= 9;
+                if (unit == 1) {
+                    image.setDpi((int) (dx * 0.0254f + 0.5f), (int) (dy * 0.0254f + 0.5f));
+                } else if (dy != 0) {
+                    image.setXYRatio((float) dx / (float) dy);
+                }
+            } else if (IDAT.equals(marker) || IEND.equals(marker)) {
+                // the chunks defining the size and the resolution precede the image data
+                break;
+            }
+            StreamUtil.skip(pngStream, len + 4);
+        }
+    }
+
     private static boolean checkMarker(String s) {
         if (s.length() != 4)
             return false;
@@ -533,42 +612,66 @@ class PngImageHelper {
         return true;
     }
 
-    private static void decodeIdat(PngParameters png) {
+    /**
+     * Decodes the image data. It is inflated while being read from the IDAT chunks of the source stream,
+     * non-interlaced images are decoded and compressed again row by row. Interlaced and bilevel images
+     * are decoded into a buffer holding the whole image. The indices of palette images are not decoded,
+     * only their mask is, so their compressed data is buffered to be passed through afterwards.
+     */
+    private static void decodeIdat(PngParameters png) throws java.io.IOException {
         int nbitDepth = png.bitDepth;
         if (nbitDepth == 16)
             nbitDepth = 8;
+        // bilevel images are encoded with CCITT afterwards, which needs the whole image
+        png.decodeRows = png.interlaceMethod != 1 && (nbitDepth == 8 || png.colorType == 3);
+        int rows = png.decodeRows ? 1 : png.height;
         int size = -1;
         png.bytesPerPixel = (png.bitDepth == 16) ? 2 : 1;
         switch (png.colorType) {
             case 0:
-                size = (nbitDepth * png.width + 7) / 8 * png.height;
+                size = (nbitDepth * png.width + 7) / 8 * rows;
                 break;
             case 2:
-                size = png.width * 3 * png.height;
+                size = png.width * 3 * rows;
                 png.bytesPerPixel *= 3;
                 break;
             case 3:
                 if (png.interlaceMethod == 1)
-                    size = (nbitDepth * png.width + 7) / 8 * png.height;
+                    size = (nbitDepth * png.width + 7) / 8 * rows;
                 png.bytesPerPixel = 1;
                 break;
             case 4:
-                size = png.width * png.height;
+                size = png.width * rows;
                 png.bytesPerPixel *= 2;
                 break;
             case 6:
-                size = png.width * 3 * png.height;
+                size = png.width * 3 * rows;
                 png.bytesPerPixel *= 4;
                 break;
         }
         if (size >= 0)
             png.imageData = new byte[size];
         if (png.palShades)
-            png.smask = new byte[png.width * png.height];
+            png.smask = new byte[png.width * rows];
         else if (png.genBWMask)
-            png.smask = new byte[(png.width + 7) / 8 * png.height];
-        ByteArrayInputStream bai = new ByteArrayInputStream(png.idat.toByteArray());
-        png.dataStream = FilterUtil.getInflaterInputStream(bai);
+            png.smask = new byte[(png.width + 7) / 8 * rows];
+        if (png.decodeRows) {
+            if (png.imageData != null) {
+                png.imageDataStream = new ByteArrayOutputStream();
+                png.imageDataZip = new DeflaterOutputStream(png.imageDataStream);
+            }
+            if (png.smask != null) {
+                png.smaskStream = new ByteArrayOutputStream();
+                png.smaskZip = new DeflaterOutputStream(png.smaskStream);
+            }
+            png.opaqueSmask = png.smask != null;
+        }
+        byte[] idatBytes = null;
+        if (png.imageData == null) {
+            idatBytes = StreamUtil.inputStreamToArray(png.idat);
+            png.idat = new ByteArrayInputStream(idatBytes);
+        }
+        png.dataStream = FilterUtil.getInflaterInputStream(png.idat);
 
         if (png.interlaceMethod != 1) {
             decodePass(0, 0, 1, 1, png.width, png.height, png);
@@ -581,11 +684,25 @@ class PngImageHelper {
             decodePass(1, 0, 2, 2, png.width / 2, (png.height + 1) / 2, png);
             decodePass(0, 1, 1, 2, png.width, png.height / 2, png);
         }
-
+        if (png.decodeRows) {
+            if (png.imageData != null) {
+                png.imageDataZip.close();
+                png.imageData = png.imageDataStream.toByteArray();
+            }
+            if (png.smask != null) {
+                png.smaskZip.close();
+                png.smask = png.smaskStream.toByteArray();
+            }
+        } else {
+            png.opaqueSmask = png.smask != null && isOpaque(png.smask);
+        }
+        if (idatBytes != null) {
+            png.idat = new ByteArrayInputStream(idatBytes);
+        }
     }
 
     private static void decodePass(int xOffset, int yOffset, int xStep, int yStep,
-                                   int passWidth, int passHeight, PngParameters png) {
+                                   int passWidth, int passHeight, PngParameters png) throws java.io.IOException {
         if ((passWidth == 0) || (passHeight == 0)) {
             return;
         }
@@ -628,7 +745,12 @@ class PngImageHelper {
                     throw new IOException(IOException.UnknownPngFilter);
             }
 
-            processPixels(curr, xOffset, xStep, dstY, passWidth, png);
+            if (png.decodeRows) {
+                processPixels(curr, xOffset, xStep, 0, passWidth, png);
+                writeDecodedRow(png);
+            } else {
+                processPixels(curr, xOffset, xStep, dstY, passWidth, png);
+            }
 
             // Swap curr and prior
             byte[] tmp = prior;
@@ -637,6 +759,19 @@ class PngImageHelper {
         }
     }
 
+    private static void writeDecodedRow(PngParameters png) throws java.io.IOException {
+        if (png.imageData != null) {
+            png.imageDataZip.write(png.imageData);
+            // pixels of less than 8 bits are combined with the existing row content
+            Arrays.fill(png.imageData, (byte) 0);
+        }
+        if (png.smask != null) {
+            png.opaqueSmask = png.opaqueSmask && isOpaque(png.smask);
+            png.smaskZip.write(png.smask);
+            Arrays.fill(png.smask, (byte) 0);
+        }
+    }
+
     private static void processPixels(byte[] curr, int xOffset, int step, int y, int width, PngParameters png) {
         int srcX, dstX;
 
@@ -854,6 +989,64 @@ class PngImageHelper {
         }
     }
 
+    /**
+     * Reads the data of consecutive IDAT chunks as a single stream.
+     */
+    private static class IdatInputStream extends InputStream {
+        private final InputStream pngStream;
+        // the number of bytes left in the current chunk, -1 after the last IDAT chunk
+        private int remaining;
+
+        IdatInputStream(InputStream pngStream, int length) {
+            this.pngStream = pngStream;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws java.io.IOException {
+            if (!nextChunk()) {
+                return -1;
+            }
+            int b = pngStream.read();
+            if (b < 0) {
+                remaining = -1;
+            } else {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws java.io.IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!nextChunk()) {
+                return -1;
+            }
+            int size = pngStream.read(b, off, Math.min(len, remaining));
+            if (size < 0) {
+                remaining = -1;
+            } else {
+                remaining -= size;
+            }
+            return size;
+        }
+
+        private boolean nextChunk() throws java.io.IOException {
+            while (remaining == 0) {
+                StreamUtil.skip(pngStream, 4);
+                int len = getInt(pngStream);
+                if (len < 0 || !IDAT.equals(getString(pngStream))) {
+                    remaining = -1;
+                } else {
+                    remaining = len;
+                }
+            }
+            return remaining > 0;
+        }
+    }
+
     /**
      * Gets an <CODE>int</CODE> from an <CODE>InputStream</CODE>.
      *
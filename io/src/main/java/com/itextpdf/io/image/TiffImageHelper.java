@@ -59,6 +59,7 @@ import com.itextpdf.io.source.IRandomAccessSource;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.io.util.FilterUtil;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -203,7 +204,8 @@ class TiffImageHelper {
                 byte[] im = new byte[(int) size[0]];
                 s.seek(offset[0]);
                 s.readFully(im);
-                RawImageHelper.updateRawImageParameters(tiff.image, w, h, false, imagecomp, parameters, im, null);
+                // CCITTFaxDecode filter expects the most significant bit first
+                RawImageHelper.updateRawImageParameters(tiff.image, w, h, reverse, imagecomp, parameters, im, null);
                 tiff.image.setInverted(true);
             } else {
                 int rowsLeft = h;
@@ -240,7 +242,7 @@ class TiffImageHelper {
                                     im = new byte[(int) size[0]];
                                     s.seek(offset[0]);
                                     s.readFully(im);
-                                    RawImageHelper.updateRawImageParameters(tiff.image, w, h, false, imagecomp, parameters, im, null);
+                                    RawImageHelper.updateRawImageParameters(tiff.image, w, h, reverse, imagecomp, parameters, im, null);
                                     tiff.image.setInverted(true);
                                     tiff.image.setDpi(dpiX, dpiY);
                                     tiff.image.setXYRatio(XYRatio);
@@ -470,14 +472,23 @@ class TiffImageHelper {
                     tiff.image.setColorTransform(0);
                 }
             } else {
+                // strips are compressed as soon as they are decoded, so one decoding buffer serves all of them
+                byte[] stripBuf = null;
                 for (int k = 0; k < offset.length; ++k) {
                     byte[] im = new byte[(int) size[k]];
                     s.seek(offset[k]);
                     s.readFully(im);
                     int height = Math.min(rowsStrip, rowsLeft);
                     byte[] outBuf = null;
-                    if (compression != TIFFConstants.COMPRESSION_NONE)
-                        outBuf = new byte[(w * bitsPerSample * samplePerPixel + 7) / 8 * height];
+                    if (compression != TIFFConstants.COMPRESSION_NONE) {
+                        int stripSize = (w * bitsPerSample * samplePerPixel + 7) / 8 * height;
+                        if (stripBuf == null || stripBuf.length != stripSize) {
+                            stripBuf = new byte[stripSize];
+                        } else {
+                            Arrays.fill(stripBuf, (byte) 0);
+                        }
+                        outBuf = stripBuf;
+                    }
                     if (reverse)
                         TIFFFaxDecoder.reverseBits(im);
                     switch (compression) {
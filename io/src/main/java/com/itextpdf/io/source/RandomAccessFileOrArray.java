@@ -97,7 +97,7 @@ public class RandomAccessFileOrArray implements DataInput, Serializable {
      *
      * @return the new view
      */
-    public RandomAccessFileOrArray createView() {
+    public synchronized RandomAccessFileOrArray createView() {
         ensureByteSourceIsThreadSafe();
         return new RandomAccessFileOrArray(new IndependentRandomAccessSource(byteSource));
     }
@@ -108,7 +108,7 @@ public class RandomAccessFileOrArray implements DataInput, Serializable {
      *
      * @return the byte source view.
      */
-    public IRandomAccessSource createSourceView() {
+    public synchronized IRandomAccessSource createSourceView() {
         ensureByteSourceIsThreadSafe();
         return new IndependentRandomAccessSource(byteSource);
     }
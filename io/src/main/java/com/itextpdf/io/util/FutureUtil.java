@@ -0,0 +1,118 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.util;
+
+import com.itextpdf.io.IOException;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * This file is a helper class for internal usage only.
+ * Be aware that it's API and functionality may be changed in future.
+ */
+public final class FutureUtil {
+
+    private FutureUtil() {
+    }
+
+    /**
+     * Waits for the task run by an executor and gets its result. The failure of the task is reported the same way
+     * as if the task was run on the current thread: runtime exceptions and errors are rethrown as is,
+     * other exceptions are wrapped into {@link IOException}.
+     *
+     * @param future the result of the task
+     * @param <T>    the type of the result
+     * @return the result of the task
+     */
+    public static <T> T getResult(Future<T> future) {
+        return getResult(future, RuntimeException.class);
+    }
+
+    /**
+     * Waits for the task run by an executor and gets its result. The failure of the task is reported the same way
+     * as if the task was run on the current thread: the exceptions of the specified type, runtime exceptions
+     * and errors are rethrown as is, other exceptions are wrapped into {@link IOException}.
+     *
+     * @param future        the result of the task
+     * @param exceptionType the type of the checked exceptions thrown by the task
+     * @param <T>           the type of the result
+     * @param <E>           the type of the checked exceptions thrown by the task
+     * @return the result of the task
+     * @throws E the exception thrown by the task
+     */
+    public static <T, E extends Exception> T getResult(Future<T> future, Class<E> exceptionType) throws E {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = rethrowUnchecked(e);
+            if (exceptionType.isInstance(cause)) {
+                throw exceptionType.cast(cause);
+            }
+            throw new IOException(IOException.IoException, cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(IOException.IoException, e);
+        }
+    }
+
+    /**
+     * Rethrows the failure of a task run by an executor if it's a runtime exception or an error, the same way
+     * as if the task was run on the current thread. Checked exceptions are returned, so that the caller
+     * reports them with its own exception type.
+     *
+     * @param e the exception thrown while getting the result of the task
+     * @return the checked exception thrown by the task
+     */
+    public static Throwable rethrowUnchecked(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return cause;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.codec;
+
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class CCITTG4EncoderTest {
+
+    private static final int WIDTH = 301;
+    private static final int HEIGHT = 120;
+
+    @Test
+    public void encodeAndDecodeTest() {
+        byte[] image = createImage(WIDTH);
+        byte[] encoded = CCITTG4Encoder.compress(image, WIDTH, HEIGHT);
+
+        byte[] decoded = new byte[image.length];
+        new TIFFFaxDecoder(1, WIDTH, HEIGHT).decodeT6(decoded, encoded, 0, HEIGHT, 0);
+        Assert.assertArrayEquals(image, decoded);
+    }
+
+    @Test
+    public void decodeReversedFillOrderTest() {
+        byte[] image = createImage(WIDTH);
+        byte[] encoded = CCITTG4Encoder.compress(image, WIDTH, HEIGHT);
+        TIFFFaxDecoder.reverseBits(encoded);
+
+        byte[] decoded = new byte[image.length];
+        new TIFFFaxDecoder(2, WIDTH, HEIGHT).decodeT6(decoded, encoded, 0, HEIGHT, 0);
+        Assert.assertArrayEquals(image, decoded);
+    }
+
+    @Test
+    public void decompressReversedFillOrderTest() {
+        // the decompressor doesn't pad the rows to the byte boundary, so the width is a multiple of 8
+        int width = 304;
+        byte[] image = createImage(width);
+        byte[] encoded = CCITTG4Encoder.compress(image, width, HEIGHT);
+        TIFFFaxDecoder.reverseBits(encoded);
+
+        byte[] decoded = new byte[image.length];
+        TIFFFaxDecompressor decompressor = new TIFFFaxDecompressor();
+        decompressor.SetOptions(2, TIFFConstants.COMPRESSION_CCITTFAX4, 0, 0);
+        decompressor.decodeRaw(decoded, encoded, width, HEIGHT);
+        Assert.assertArrayEquals(image, decoded);
+    }
+
+    @Test
+    public void encodeBlankImageTest() {
+        byte[] image = new byte[(WIDTH + 7) / 8 * HEIGHT];
+        byte[] encoded = CCITTG4Encoder.compress(image, WIDTH, HEIGHT);
+        // a single vertical mode code per row and two EOL codes
+        Assert.assertEquals((HEIGHT + 24 + 7) / 8, encoded.length);
+
+        byte[] decoded = new byte[image.length];
+        new TIFFFaxDecoder(1, WIDTH, HEIGHT).decodeT6(decoded, encoded, 0, HEIGHT, 0);
+        Assert.assertArrayEquals(image, decoded);
+    }
+
+    /**
+     * Creates a bilevel image with blank rows, repeated rows and runs of various lengths, which start and end
+     * both on the byte boundaries and within the bytes.
+     */
+    private static byte[] createImage(int width) {
+        int rowBytes = (width + 7) / 8;
+        byte[] image = new byte[rowBytes * HEIGHT];
+        for (int y = 10; y < HEIGHT - 10; y++) {
+            int pattern = y / 5;
+            for (int x = 0; x < width; x++) {
+                boolean black = pattern % 3 == 0 ? x >= 8 && x < 16 : (x * (pattern % 7 + 1) / 13) % 3 == 0;
+                if (black) {
+                    image[y * rowBytes + x / 8] |= (byte) (0x80 >> (x % 8));
+                }
+            }
+        }
+        return image;
+    }
+}
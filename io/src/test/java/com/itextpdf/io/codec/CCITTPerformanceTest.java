@@ -0,0 +1,194 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.codec;
+
+import com.itextpdf.test.annotations.type.PerformanceTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Measures the CCITT G4 encoding and decoding of fax-like pages. Only the public API of the codecs is used,
+ * so the same test may be run against an older version to compare the results.
+ */
+@Category(PerformanceTest.class)
+public class CCITTPerformanceTest {
+
+    // a fine resolution fax page
+    private static final int WIDTH = 1728;
+    private static final int HEIGHT = 2200;
+    private static final int PAGES = 8;
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+
+    @Test
+    public void encodePerformanceTest() {
+        byte[][] pages = createPages();
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            encodePages(pages);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            encodePages(pages);
+        }
+        report("G4 encoding", System.nanoTime() - start);
+    }
+
+    @Test
+    public void decodePerformanceTest() {
+        byte[][] pages = createPages();
+        byte[][] encodedPages = encodePages(pages);
+        byte[] decoded = new byte[pages[0].length];
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            decodePages(encodedPages, decoded, 1);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            decodePages(encodedPages, decoded, 1);
+        }
+        report("G4 decoding", System.nanoTime() - start);
+        Assert.assertArrayEquals(pages[pages.length - 1], decoded);
+    }
+
+    @Test
+    public void decodeReversedFillOrderPerformanceTest() {
+        byte[][] pages = createPages();
+        byte[][] encodedPages = encodePages(pages);
+        for (byte[] encoded : encodedPages) {
+            TIFFFaxDecoder.reverseBits(encoded);
+        }
+        byte[] decoded = new byte[pages[0].length];
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            decodePages(encodedPages, decoded, 2);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            decodePages(encodedPages, decoded, 2);
+        }
+        report("G4 decoding of the reversed fill order", System.nanoTime() - start);
+        Assert.assertArrayEquals(pages[pages.length - 1], decoded);
+    }
+
+    @Test
+    public void decompressPerformanceTest() {
+        byte[][] pages = createPages();
+        byte[][] encodedPages = encodePages(pages);
+        byte[] decoded = new byte[pages[0].length];
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            decompressPages(encodedPages, decoded);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            decompressPages(encodedPages, decoded);
+        }
+        report("G4 decompression", System.nanoTime() - start);
+        Assert.assertArrayEquals(pages[pages.length - 1], decoded);
+    }
+
+    private static byte[][] encodePages(byte[][] pages) {
+        byte[][] encodedPages = new byte[pages.length][];
+        for (int i = 0; i < pages.length; i++) {
+            encodedPages[i] = CCITTG4Encoder.compress(pages[i], WIDTH, HEIGHT);
+        }
+        return encodedPages;
+    }
+
+    private static void decodePages(byte[][] encodedPages, byte[] decoded, int fillOrder) {
+        for (byte[] encoded : encodedPages) {
+            // only the black runs are set by the decoders
+            Arrays.fill(decoded, (byte) 0);
+            new TIFFFaxDecoder(fillOrder, WIDTH, HEIGHT).decodeT6(decoded, encoded, 0, HEIGHT, 0);
+        }
+    }
+
+    private static void decompressPages(byte[][] encodedPages, byte[] decoded) {
+        for (byte[] encoded : encodedPages) {
+            Arrays.fill(decoded, (byte) 0);
+            TIFFFaxDecompressor decompressor = new TIFFFaxDecompressor();
+            decompressor.SetOptions(1, TIFFConstants.COMPRESSION_CCITTFAX4, 0, 0);
+            decompressor.decodeRaw(decoded, encoded, WIDTH, HEIGHT);
+        }
+    }
+
+    private static void report(String operation, long nanos) {
+        System.out.println(operation + ": " + nanos / 1000 / ROUNDS / PAGES + " us per page");
+    }
+
+    /**
+     * Creates the pages resembling typed text: blank margins and lines of glyphs made of stems and bars,
+     * separated by blank rows.
+     */
+    private static byte[][] createPages() {
+        Random random = new Random(42);
+        byte[][] pages = new byte[PAGES][];
+        int rowBytes = WIDTH / 8;
+        for (int page = 0; page < PAGES; page++) {
+            byte[] image = new byte[rowBytes * HEIGHT];
+            for (int lineTop = 150; lineTop + 30 < HEIGHT - 150; lineTop += random.nextInt(10) == 0 ? 90 : 45) {
+                int x = 120;
+                int lineEnd = random.nextInt(5) == 0 ? 120 + random.nextInt(WIDTH - 240) : WIDTH - 120;
+                while (x < lineEnd - 20) {
+                    int glyphWidth = 8 + random.nextInt(12);
+                    int glyphHeight = random.nextInt(4) == 0 ? 30 : 22;
+                    int shape = random.nextInt(4);
+                    for (int y = 0; y < glyphHeight; y++) {
+                        int row = (lineTop + 30 - glyphHeight + y) * rowBytes;
+                        for (int dx = 0; dx < glyphWidth; dx++) {
+                            boolean stem = dx < 3 || shape % 2 == 0 && dx >= glyphWidth - 3;
+                            boolean bar = y < 3 || shape > 1 && Math.abs(y - glyphHeight / 2) < 2;
+                            if (stem || bar) {
+                                image[row + (x + dx) / 8] |= (byte) (0x80 >> ((x + dx) % 8));
+                            }
+                        }
+                    }
+                    x += glyphWidth + (random.nextInt(6) == 0 ? 14 : 3);
+                }
+            }
+            pages[page] = image;
+        }
+        return pages;
+    }
+}
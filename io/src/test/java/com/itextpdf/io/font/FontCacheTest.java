@@ -0,0 +1,116 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+import com.itextpdf.io.font.cmap.CMapCidByte;
+import com.itextpdf.io.font.cmap.CMapCidUni;
+import com.itextpdf.io.font.cmap.CMapUniCid;
+import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+@Category(UnitTest.class)
+public class FontCacheTest {
+
+    @Test
+    public void parsedCmapsAreSharedTest() {
+        CMapUniCid uni2Cid = FontCache.getUni2CidCmap("UniJIS-UCS2-H");
+        Assert.assertSame(uni2Cid, FontCache.getUni2CidCmap("UniJIS-UCS2-H"));
+
+        CMapCidUni cid2Uni = FontCache.getCid2UniCmap("UniJIS-UCS2-H");
+        Assert.assertSame(cid2Uni, FontCache.getCid2UniCmap("UniJIS-UCS2-H"));
+        Assert.assertEquals(0x3042, cid2Uni.lookup(uni2Cid.lookup(0x3042)));
+
+        CMapCidByte cid2Byte = FontCache.getCid2Byte("90ms-RKSJ-H");
+        Assert.assertSame(cid2Byte, FontCache.getCid2Byte("90ms-RKSJ-H"));
+    }
+
+    @Test
+    public void decodedWebFontIsSharedTest() throws IOException {
+        String woff2File = "./src/test/resources/com/itextpdf/io/font/woff2/w3c/format/valid-001.woff2";
+        FontCache.clearDecodedWebFonts();
+        // the decoded font data is cached even if the font program is not
+        FontProgram font = FontProgramFactory.createFont(readFile(woff2File), false);
+        byte[] decoded = FontCache.getDecodedWebFont(readFile(woff2File));
+        Assert.assertNotNull(decoded);
+        Assert.assertArrayEquals(readFile("./src/test/resources/com/itextpdf/io/font/woff2/w3c/format/cmp_valid-001.ttf"), decoded);
+
+        // the same content read into another array is not decoded again
+        FontProgram fontAgain = FontProgramFactory.createFont(readFile(woff2File), false);
+        Assert.assertNotSame(font, fontAgain);
+        Assert.assertSame(decoded, FontCache.getDecodedWebFont(readFile(woff2File)));
+    }
+
+    @Test
+    public void decodedWebFontCacheTest() throws IOException {
+        String woff2File = "./src/test/resources/com/itextpdf/io/font/woff2/w3c/format/valid-002.woff2";
+        FontCache.clearDecodedWebFonts();
+        byte[] webFont = readFile(woff2File);
+        FontProgramFactory.createFont(webFont, false);
+        byte[] decoded = FontCache.getDecodedWebFont(webFont);
+        Assert.assertNotNull(decoded);
+
+        // reusing the buffer of the web font doesn't affect the cache
+        Arrays.fill(webFont, (byte) 0);
+        Assert.assertNull(FontCache.getDecodedWebFont(webFont));
+        Assert.assertSame(decoded, FontCache.getDecodedWebFont(readFile(woff2File)));
+
+        FontCache.clearDecodedWebFonts();
+        Assert.assertNull(FontCache.getDecodedWebFont(readFile(woff2File)));
+    }
+
+    private static byte[] readFile(String path) throws IOException {
+        FileInputStream stream = new FileInputStream(path);
+        try {
+            return StreamUtil.inputStreamToArray(stream);
+        } finally {
+            stream.close();
+        }
+    }
+}
@@ -43,6 +43,10 @@
 package com.itextpdf.io.font;
 
 import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.font.otf.FeatureRecord;
+import com.itextpdf.io.font.otf.Glyph;
+import com.itextpdf.io.font.otf.OpenTypeFontTableReader;
+import com.itextpdf.io.util.IntHashtable;
 import com.itextpdf.test.annotations.type.UnitTest;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -51,11 +55,24 @@ import org.junit.experimental.categories.Category;
 import org.junit.rules.ExpectedException;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import com.itextpdf.io.util.MessageFormatUtil;
 
 @Category(UnitTest.class)
 public class FontProgramTest {
     private static final String notExistingFont = "some-font.ttf";
+    private static final String sourceFolder = "./src/test/resources/com/itextpdf/io/font/woff2/w3c/format/";
+    private static final String fontsFolder = "./src/test/resources/com/itextpdf/io/font/";
 
     @Rule
     public ExpectedException junitExpectedException = ExpectedException.none();
@@ -75,4 +92,109 @@ public class FontProgramTest {
         fp.setBold(false);
         Assert.assertTrue("Not Bold expected", (fp.getPdfFontFlags() & (1 << 18)) == 0);
     }
+
+    @Test
+    public void sharedTrueTypeFontConcurrentAccessTest() throws Exception {
+        final TrueTypeFont fp = (TrueTypeFont) FontProgramFactory.createFont(sourceFolder + "cmp_tabledata-glyf-composite-bbox-001.ttf");
+        final Set<Integer> glyphs = new HashSet<>(Arrays.asList(0, 1, 2, 3));
+        final byte[] expectedSubset = ((TrueTypeFont) FontProgramFactory.createFont(sourceFolder + "cmp_tabledata-glyf-composite-bbox-001.ttf")).getSubset(glyphs, true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(new Callable<byte[]>() {
+                    @Override
+                    public byte[] call() {
+                        fp.getGposTable();
+                        fp.hasKernPairs();
+                        fp.getFontStreamBytes();
+                        return fp.getSubset(glyphs, true);
+                    }
+                }));
+            }
+            for (Future<byte[]> result : results) {
+                Assert.assertArrayEquals(expectedSubset, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void kerningReadOnFirstAccessTest() throws IOException {
+        TrueTypeFont fp = (TrueTypeFont) FontProgramFactory.createFont(fontsFolder + "Aller_Rg.ttf", false);
+        OpenTypeParser parser = new OpenTypeParser(fontsFolder + "Aller_Rg.ttf");
+        parser.loadTables(true);
+        IntHashtable expectedKerning = parser.readKerning(fp.getFontMetrics().getUnitsPerEm());
+        parser.close();
+
+        Assert.assertTrue(expectedKerning.size() > 0);
+        Assert.assertTrue(fp.hasKernPairs());
+        for (int pair : expectedKerning.getKeys()) {
+            Glyph first = fp.getGlyphByCode(pair >> 16);
+            Glyph second = fp.getGlyphByCode(pair & 0xffff);
+            Assert.assertEquals(expectedKerning.get(pair), fp.getKerning(first, second));
+        }
+    }
+
+    @Test
+    public void openTypeTablesReadOnFirstAccessTest() throws IOException {
+        TrueTypeFont fp = (TrueTypeFont) FontProgramFactory.createFont(fontsFolder + "Aller_Rg.ttf", false);
+        Assert.assertNotNull(fp.getGdefTable());
+        Assert.assertEquals(Arrays.asList("case", "kern"), getFeatureTags(fp.getGposTable()));
+        Assert.assertTrue(getFeatureTags(fp.getGsubTable()).contains("liga"));
+        Assert.assertFalse(fp.getGsubTable().getLookups(fp.getGsubTable().getFeatureRecords().toArray(new FeatureRecord[0])).isEmpty());
+        // the tables are read only once
+        Assert.assertSame(fp.getGsubTable(), fp.getGsubTable());
+        Assert.assertSame(fp.getGposTable(), fp.getGposTable());
+    }
+
+    @Test
+    public void lazyTablesConcurrentFirstAccessTest() throws Exception {
+        TrueTypeFont expectedFont = (TrueTypeFont) FontProgramFactory.createFont(fontsFolder + "Aller_Rg.ttf", false);
+        final Glyph first = expectedFont.getGlyph('A');
+        final Glyph second = expectedFont.getGlyph('V');
+        int expectedKerning = expectedFont.getKerning(first, second);
+        List<String> expectedGsubFeatures = getFeatureTags(expectedFont.getGsubTable());
+        List<String> expectedGposFeatures = getFeatureTags(expectedFont.getGposTable());
+        Assert.assertNotEquals(0, expectedKerning);
+
+        for (int attempt = 0; attempt < 10; attempt++) {
+            final TrueTypeFont fp = (TrueTypeFont) FontProgramFactory.createFont(fontsFolder + "Aller_Rg.ttf", false);
+            final CountDownLatch startLatch = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                List<Future<Object[]>> results = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    results.add(executor.submit(new Callable<Object[]>() {
+                        @Override
+                        public Object[] call() throws Exception {
+                            startLatch.await();
+                            return new Object[] {fp.getKerning(first, second), fp.getGsubTable(), fp.getGposTable()};
+                        }
+                    }));
+                }
+                startLatch.countDown();
+                Object[] firstResult = results.get(0).get();
+                Object[] secondResult = results.get(1).get();
+                Assert.assertEquals(expectedKerning, firstResult[0]);
+                Assert.assertEquals(expectedKerning, secondResult[0]);
+                Assert.assertSame(firstResult[1], secondResult[1]);
+                Assert.assertSame(firstResult[2], secondResult[2]);
+                Assert.assertEquals(expectedGsubFeatures, getFeatureTags((OpenTypeFontTableReader) firstResult[1]));
+                Assert.assertEquals(expectedGposFeatures, getFeatureTags((OpenTypeFontTableReader) firstResult[2]));
+            } finally {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private static List<String> getFeatureTags(OpenTypeFontTableReader table) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (FeatureRecord feature : table.getFeatureRecords()) {
+            tags.add(feature.tag);
+        }
+        return new ArrayList<>(tags);
+    }
 }
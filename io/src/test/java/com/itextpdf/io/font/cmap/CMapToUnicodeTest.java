@@ -0,0 +1,152 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font.cmap;
+
+import com.itextpdf.io.util.IntHashtable;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+@Category(UnitTest.class)
+public class CMapToUnicodeTest {
+
+    @Test
+    public void singleAndMultiByteCodesTest() {
+        CMapToUnicode cmap = new CMapToUnicode();
+        cmap.addChar(0x41, new char[] {'A'});
+        cmap.addChar(0x0102, new char[] {'B'});
+        cmap.addChar(0xFFFF, new char[] {'C'});
+
+        Assert.assertArrayEquals(new char[] {'A'}, cmap.lookup(0x41));
+        Assert.assertArrayEquals(new char[] {'A'}, cmap.lookup(new byte[] {0x41}));
+        Assert.assertArrayEquals(new char[] {'B'}, cmap.lookup(0x0102));
+        Assert.assertArrayEquals(new char[] {'B'}, cmap.lookup(new byte[] {0x01, 0x02}));
+        Assert.assertArrayEquals(new char[] {'C'}, cmap.lookup(new byte[] {(byte) 0xFF, (byte) 0xFF}));
+        Assert.assertNull(cmap.lookup(0x42));
+        Assert.assertNull(cmap.lookup(0x0201));
+        Assert.assertNull(cmap.lookup(new byte[] {0x02, 0x01}));
+        Assert.assertNull(cmap.lookup(new byte[] {0x01, 0x02, 0x03}));
+        Assert.assertTrue(cmap.hasByteMappings());
+    }
+
+    @Test
+    public void lookupDoesNotAllocateTest() {
+        CMapToUnicode cmap = new CMapToUnicode();
+        cmap.addChar(0x41, new char[] {'A'});
+        cmap.addChar(0x0102, new char[] {'f', 'i'});
+        Assert.assertSame(cmap.lookup(0x41), cmap.lookup(0x41));
+        Assert.assertSame(cmap.lookup(0x0102), cmap.lookup(new byte[] {0x01, 0x02}));
+    }
+
+    @Test
+    public void multiCharMappingTest() {
+        CMapToUnicode cmap = new CMapToUnicode();
+        cmap.addChar(0x0102, new char[] {'f', 'i'});
+        cmap.addChar(0x0103, new char[] {'A'});
+        Assert.assertArrayEquals(new char[] {'f', 'i'}, cmap.lookup(0x0102));
+
+        // a remapped code keeps only the last mapping
+        cmap.addChar(0x0102, new char[] {'B'});
+        cmap.addChar(0x0103, new char[] {'f', 'f'});
+        Assert.assertArrayEquals(new char[] {'B'}, cmap.lookup(0x0102));
+        Assert.assertArrayEquals(new char[] {'f', 'f'}, cmap.lookup(0x0103));
+        Assert.assertEquals(Arrays.asList(0x0102, 0x0103), Arrays.asList(cmap.getCodes().toArray()));
+    }
+
+    @Test
+    public void outOfPageCodesTest() {
+        CMapToUnicode cmap = new CMapToUnicode();
+        cmap.addChar(0x10000, new char[] {'A'});
+        cmap.addChar(-1, new char[] {'B'});
+        cmap.addChar(0x20, new char[] {' '});
+
+        Assert.assertArrayEquals(new char[] {'A'}, cmap.lookup(0x10000));
+        Assert.assertArrayEquals(new char[] {'B'}, cmap.lookup(-1));
+        Assert.assertNull(cmap.lookup(0x10001));
+        Assert.assertNull(cmap.lookup(0x0000));
+        Assert.assertEquals(3, cmap.getCodes().size());
+        Assert.assertTrue(cmap.getCodes().containsAll(Arrays.asList(0x10000, -1, 0x20)));
+
+        CMapToUnicode identity = CMapToUnicode.getIdentity();
+        Assert.assertArrayEquals(new char[] {'\uD800', '\uDC00'}, identity.lookup(0x10000));
+        Assert.assertEquals(65537, identity.getCodes().size());
+    }
+
+    @Test
+    public void codesTest() {
+        CMapToUnicode cmap = new CMapToUnicode();
+        cmap.addChar(0x0300, new char[] {'C'});
+        cmap.addChar(0x41, new char[] {'A'});
+        cmap.addChar(0x0102, new char[] {'f', 'i'});
+        Assert.assertEquals(Arrays.asList(0x41, 0x0102, 0x0300), Arrays.asList(cmap.getCodes().toArray()));
+        Assert.assertSame(cmap.getCodes(), cmap.getCodes());
+
+        // the codes are updated when the CMap is changed
+        cmap.addChar(0x42, new char[] {'B'});
+        Assert.assertEquals(Arrays.asList(0x41, 0x42, 0x0102, 0x0300), Arrays.asList(cmap.getCodes().toArray()));
+        Assert.assertTrue(CMapToUnicode.EmptyCMapToUnicodeMap.getCodes().isEmpty());
+    }
+
+    @Test
+    public void directAndReverseMappingTest() throws IOException {
+        CMapToUnicode cmap = new CMapToUnicode();
+        cmap.addChar(0x41, new char[] {'A'});
+        cmap.addChar(0x0102, new char[] {'f', 'i'});
+        cmap.addChar(0x0300, new char[] {'C'});
+
+        IntHashtable direct = cmap.createDirectMapping();
+        Assert.assertEquals(2, direct.size());
+        Assert.assertEquals('A', direct.get(0x41));
+        Assert.assertEquals('C', direct.get(0x0300));
+
+        Map<Integer, Integer> reverse = cmap.createReverseMapping();
+        Assert.assertEquals(2, reverse.size());
+        Assert.assertEquals(0x41, (int) reverse.get((int) 'A'));
+        Assert.assertEquals(0x0300, (int) reverse.get((int) 'C'));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font.otf;
+
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@Category(UnitTest.class)
+public class GlyphLineTest {
+
+    @Test
+    public void copyOnWriteTest() {
+        List<Glyph> glyphs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            glyphs.add(new Glyph(i, 500, 'a' + i));
+        }
+        GlyphLine line = new GlyphLine(glyphs);
+        GlyphLine copy = line.copyOnWrite(0, 5);
+        Assert.assertEquals(line.copy(0, 5), copy);
+
+        Glyph newGlyph = new Glyph(10, 500, 'z');
+        copy.set(0, newGlyph);
+        copy.add(newGlyph);
+        Assert.assertEquals(6, copy.size());
+        Assert.assertSame(newGlyph, copy.get(0));
+        Assert.assertEquals(5, line.size());
+        Assert.assertEquals('a', line.get(0).getUnicode());
+
+        line.set(2, newGlyph);
+        Assert.assertEquals('c', copy.get(2).getUnicode());
+        Assert.assertSame(glyphs.get(2), copy.get(2));
+        Assert.assertNotSame(newGlyph, glyphs.get(2));
+    }
+
+    @Test
+    public void copyOnWriteSerializationTest() throws IOException, ClassNotFoundException {
+        List<Glyph> glyphs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            glyphs.add(new Glyph(i, 500, 'a' + i));
+        }
+        GlyphLine line = new GlyphLine(glyphs);
+        GlyphLine slice = line.copyOnWrite(1, 4);
+        GlyphLine whole = line.copyOnWrite(0, 5);
+
+        Assert.assertEquals(slice, serializeAndDeserialize(slice));
+        Assert.assertEquals(whole, serializeAndDeserialize(whole));
+
+        line.add(new Glyph(10, 500, 'z'));
+        Assert.assertEquals(3, slice.size());
+        Assert.assertEquals(5, whole.size());
+        Assert.assertEquals('b', slice.get(0).getUnicode());
+    }
+
+    private static GlyphLine serializeAndDeserialize(GlyphLine line) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(line);
+        oos.close();
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        try {
+            return (GlyphLine) ois.readObject();
+        } finally {
+            ois.close();
+        }
+    }
+}
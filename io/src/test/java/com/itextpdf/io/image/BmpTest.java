@@ -77,4 +77,24 @@ public class BmpTest {
         Assert.assertEquals(1456, img.getHeight(), 0);
         Assert.assertEquals(1, img.getBpc());
     }
+
+    @Test
+    public void openRle8Bmp() throws IOException {
+        ImageData img = ImageDataFactory.create(sourceFolder + "rle8.bmp");
+        ImageData uncompressed = ImageDataFactory.create(sourceFolder + "rle8_uncompressed.bmp");
+        Assert.assertEquals(37, img.getWidth(), 0);
+        Assert.assertEquals(23, img.getHeight(), 0);
+        Assert.assertEquals(8, img.getBpc());
+        Assert.assertArrayEquals(uncompressed.getData(), img.getData());
+    }
+
+    @Test
+    public void openRle4Bmp() throws IOException {
+        ImageData img = ImageDataFactory.create(sourceFolder + "rle4.bmp");
+        ImageData uncompressed = ImageDataFactory.create(sourceFolder + "rle4_uncompressed.bmp");
+        Assert.assertEquals(37, img.getWidth(), 0);
+        Assert.assertEquals(23, img.getHeight(), 0);
+        Assert.assertEquals(4, img.getBpc());
+        Assert.assertArrayEquals(uncompressed.getData(), img.getData());
+    }
 }
@@ -0,0 +1,83 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.image;
+
+import com.itextpdf.io.util.FilterUtil;
+import com.itextpdf.io.util.UrlUtil;
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class GifTest {
+
+    public static final String sourceFolder = "./src/test/resources/com/itextpdf/io/image/";
+
+    @Test
+    public void openGif() throws IOException {
+        List<ImageData> frames = ImageDataFactory.createGifFrames(UrlUtil.toURL(sourceFolder + "image.gif"));
+        Assert.assertEquals(1, frames.size());
+        ImageData img = frames.get(0);
+        Assert.assertEquals(150, img.getWidth(), 0);
+        Assert.assertEquals(60, img.getHeight(), 0);
+        Assert.assertEquals(4, img.getBpc());
+        // the rows of large non-interlaced frames are compressed as they are decoded
+        Assert.assertTrue(img.isDeflated());
+        Assert.assertEquals(75 * 60, FilterUtil.flateDecode(img.getData()).length);
+    }
+
+    @Test
+    public void openInterlacedGif() throws IOException {
+        ImageData img = ImageDataFactory.createGifFrame(UrlUtil.toURL(sourceFolder + "image_interlaced.gif"), 1);
+        ImageData notInterlaced = ImageDataFactory.createGifFrame(UrlUtil.toURL(sourceFolder + "image.gif"), 1);
+        Assert.assertEquals(150, img.getWidth(), 0);
+        Assert.assertEquals(60, img.getHeight(), 0);
+        Assert.assertFalse(img.isDeflated());
+        Assert.assertArrayEquals(FilterUtil.flateDecode(notInterlaced.getData()), img.getData());
+    }
+}
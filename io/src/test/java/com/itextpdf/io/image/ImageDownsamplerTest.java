@@ -0,0 +1,116 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.image;
+
+import com.itextpdf.io.util.UrlUtil;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+@Category(UnitTest.class)
+public class ImageDownsamplerTest {
+
+    public static final String sourceFolder = "./src/test/resources/com/itextpdf/io/image/";
+
+    @Test
+    public void downsampleJpegTest() throws IOException {
+        ImageData image = ImageDataFactory.create(sourceFolder + "WP_20140410_001.jpg");
+        ImageDownsampler downsampler = new ImageDownsampler(150);
+        // 2592x1456 pixels displayed at 300x168.5 points are scaled to fit 625x352 pixels at 150 dpi
+        ImageData downsampled = downsampler.downsample(image, 300, 168.5f);
+        Assert.assertEquals(ImageType.JPEG, downsampled.getOriginalType());
+        Assert.assertEquals(625, downsampled.getWidth(), 0);
+        Assert.assertEquals(351, downsampled.getHeight(), 0);
+        Assert.assertEquals(3, downsampled.getColorSpace());
+        Assert.assertTrue(downsampled.getData().length < image.getData().length / 5);
+        Assert.assertEquals(1, downsampler.getMisses());
+
+        ImageData cached = downsampler.downsample(ImageDataFactory.create(sourceFolder + "WP_20140410_001.jpg"), 300, 168.5f);
+        Assert.assertNotSame(downsampled, cached);
+        Assert.assertArrayEquals(downsampled.getData(), cached.getData());
+        Assert.assertEquals(1, downsampler.getHits());
+        Assert.assertEquals(1, downsampler.size());
+    }
+
+    @Test
+    public void downsampleGrayJpegTest() throws IOException {
+        ImageData image = ImageDataFactory.create(sourceFolder + "WP_20140410_001_gray.jpg");
+        ImageData downsampled = new ImageDownsampler(72).downsample(image, 100, 100);
+        Assert.assertEquals(100, downsampled.getWidth(), 0);
+        Assert.assertEquals(1, downsampled.getColorSpace());
+    }
+
+    @Test
+    public void passThroughTest() throws IOException {
+        ImageDownsampler downsampler = new ImageDownsampler(150);
+        ImageData image = ImageDataFactory.create(sourceFolder + "WP_20140410_001.jpg");
+        // 2592 pixels are less than 1.5 times more than 2084 pixels needed for 1000 points at 150 dpi
+        Assert.assertSame(image, downsampler.downsample(image, 1000, 562));
+
+        ImageData png = ImageDataFactory.create(sourceFolder + "itext.png");
+        Assert.assertSame(png, downsampler.downsample(png, 1, 1));
+
+        ImageData lazyImage = ImageDataFactory.createLazy(UrlUtil.toURL(sourceFolder + "WP_20140410_001.jpg"));
+        Assert.assertSame(lazyImage, downsampler.downsample(lazyImage, 1000, 562));
+        Assert.assertEquals(0, downsampler.getMisses());
+    }
+
+    @Test
+    public void downsampleInParallelTest() throws IOException {
+        ImageDownsampler downsampler = new ImageDownsampler(96).setParallelism(2);
+        List<ImageData> images = Arrays.asList(ImageDataFactory.create(sourceFolder + "WP_20140410_001.jpg"),
+                ImageDataFactory.create(sourceFolder + "itext.png"),
+                ImageDataFactory.createLazy(UrlUtil.toURL(sourceFolder + "WP_20140410_001_negate.jpg")));
+        List<ImageData> downsampled = downsampler.downsample(images, 200, 200);
+        Assert.assertEquals(3, downsampled.size());
+        Assert.assertEquals(267, downsampled.get(0).getWidth(), 0);
+        Assert.assertSame(images.get(1), downsampled.get(1));
+        Assert.assertEquals(267, downsampled.get(2).getWidth(), 0);
+        Assert.assertEquals(2, downsampler.getMisses());
+    }
+}
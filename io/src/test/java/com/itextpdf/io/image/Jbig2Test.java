@@ -0,0 +1,132 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.image;
+
+import com.itextpdf.io.codec.Jbig2SegmentReader;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.io.util.UrlUtil;
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class Jbig2Test {
+
+    public static final String sourceFolder = "./src/test/resources/com/itextpdf/io/image/";
+
+    @Test
+    public void createJbig2Pages() throws IOException {
+        byte[] bytes = StreamUtil.inputStreamToArray(new FileInputStream(sourceFolder + "pages.jb2"));
+        List<ImageData> pages = ImageDataFactory.createJbig2Pages(bytes);
+        Assert.assertEquals(Jbig2ImageData.getNumberOfPages(bytes), pages.size());
+        Assert.assertEquals(3, pages.size());
+        Object globals = pages.get(0).getDecodeParms().get("JBIG2Globals");
+        Assert.assertNotNull(globals);
+        for (int i = 0; i < pages.size(); i++) {
+            ImageData page = pages.get(i);
+            ImageData singlePage = ImageDataFactory.createJbig2(bytes, i + 1);
+            Assert.assertEquals(singlePage.getWidth(), page.getWidth(), 0);
+            Assert.assertEquals(singlePage.getHeight(), page.getHeight(), 0);
+            Assert.assertArrayEquals(singlePage.getData(), page.getData());
+            Assert.assertArrayEquals((byte[]) singlePage.getDecodeParms().get("JBIG2Globals"), (byte[]) globals);
+            // the pages share the same global segments
+            Assert.assertSame(globals, page.getDecodeParms().get("JBIG2Globals"));
+        }
+        Assert.assertEquals(64, pages.get(1).getWidth(), 0);
+        Assert.assertEquals(200, pages.get(1).getHeight(), 0);
+    }
+
+    @Test
+    public void createJbig2PagesFromUrlTest() throws IOException {
+        byte[] bytes = StreamUtil.inputStreamToArray(new FileInputStream(sourceFolder + "pages.jb2"));
+        List<ImageData> pages = ImageDataFactory.createJbig2Pages(UrlUtil.toURL(sourceFolder + "pages.jb2"));
+        List<ImageData> pagesFromBytes = ImageDataFactory.createJbig2Pages(bytes);
+        Assert.assertEquals(pagesFromBytes.size(), pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            Assert.assertArrayEquals(pagesFromBytes.get(i).getData(), pages.get(i).getData());
+        }
+        Assert.assertArrayEquals((byte[]) pagesFromBytes.get(0).getDecodeParms().get("JBIG2Globals"),
+                (byte[]) pages.get(0).getDecodeParms().get("JBIG2Globals"));
+    }
+
+    @Test
+    public void segmentDataTest() throws IOException {
+        byte[] bytes = StreamUtil.inputStreamToArray(new FileInputStream(sourceFolder + "pages.jb2"));
+        RandomAccessFileOrArray ra = new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes));
+        Jbig2SegmentReader sr = new Jbig2SegmentReader(ra);
+        sr.read();
+        Jbig2SegmentReader.Jbig2Page page = new Jbig2SegmentReader.Jbig2Page(1, sr);
+        Jbig2SegmentReader.Jbig2Segment segment = new Jbig2SegmentReader.Jbig2Segment(1);
+        segment.headerData = new byte[] {1, 2};
+        segment.data = new byte[] {3, 4, 5};
+        page.addSegment(segment);
+        // a segment created outside of the reader keeps its own data
+        Assert.assertArrayEquals(segment.data, segment.getData());
+        Assert.assertArrayEquals(new byte[] {1, 2, 3, 4, 5}, page.getData(false));
+        ra.close();
+    }
+
+    @Test(expected = com.itextpdf.io.IOException.class)
+    public void segmentDataOfClosedSourceTest() throws IOException {
+        byte[] bytes = StreamUtil.inputStreamToArray(new FileInputStream(sourceFolder + "pages.jb2"));
+        RandomAccessFileOrArray ra = new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(bytes));
+        Jbig2SegmentReader sr = new Jbig2SegmentReader(ra);
+        sr.read();
+        ra.close();
+        sr.getPage(1).getData(true);
+    }
+
+    @Test(expected = com.itextpdf.io.IOException.class)
+    public void createJbig2PagesFromNotJbig2Test() throws IOException {
+        byte[] bytes = StreamUtil.inputStreamToArray(new FileInputStream(sourceFolder + "red.png"));
+        ImageDataFactory.createJbig2Pages(bytes);
+    }
+}
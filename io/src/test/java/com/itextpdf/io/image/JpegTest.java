@@ -42,6 +42,8 @@
  */
 package com.itextpdf.io.image;
 
+import com.itextpdf.io.util.UrlUtil;
+
 import java.io.IOException;
 
 import com.itextpdf.test.annotations.type.UnitTest;
@@ -101,4 +103,20 @@ public class JpegTest {
         Assert.assertEquals(1456, img.getHeight(), 0);
         Assert.assertEquals(8, img.getBpc());
     }
+
+    @Test
+    public void lazyJpegTest() throws IOException {
+        ImageData img = ImageDataFactory.createLazy(UrlUtil.toURL(sourceFolder + "WP_20140410_001.jpg"));
+        Assert.assertTrue(img instanceof LazyImageData);
+        Assert.assertNull(img.getData());
+        Assert.assertEquals(2592, img.getWidth(), 0);
+        Assert.assertEquals(1456, img.getHeight(), 0);
+
+        ImageData loaded = ((LazyImageData) img).load();
+        ImageData eager = ImageDataFactory.create(sourceFolder + "WP_20140410_001.jpg");
+        Assert.assertArrayEquals(eager.getData(), loaded.getData());
+        Assert.assertEquals(eager.getDpiX(), img.getDpiX());
+        Assert.assertEquals(eager.getDpiY(), img.getDpiY());
+        Assert.assertNull(img.getData());
+    }
 }
@@ -0,0 +1,179 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.image;
+
+import com.itextpdf.io.util.FilterUtil;
+import com.itextpdf.io.util.UrlUtil;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+
+@Category(UnitTest.class)
+public class PngTest {
+
+    public static final String sourceFolder = "./src/test/resources/com/itextpdf/io/image/";
+
+    @Test
+    public void opaqueAlphaChannelTest() throws IOException {
+        ImageData img = ImageDataFactory.create(sourceFolder + "red.png");
+        Assert.assertEquals(100, img.getWidth(), 0);
+        Assert.assertEquals(1000, img.getHeight(), 0);
+        Assert.assertNull(img.getImageMask());
+    }
+
+    @Test
+    public void transparentAlphaChannelTest() throws IOException {
+        ImageData img = ImageDataFactory.create(sourceFolder + "itext.png");
+        Assert.assertEquals(346, img.getWidth(), 0);
+        Assert.assertEquals(49, img.getHeight(), 0);
+        Assert.assertNotNull(img.getImageMask());
+        Assert.assertTrue(img.getImageMask().isSoftMask());
+        // the decoded rows are compressed while decoding
+        Assert.assertTrue(img.isDeflated());
+        Assert.assertTrue(img.getImageMask().isDeflated());
+        Assert.assertEquals(346 * 49 * 3, FilterUtil.flateDecode(img.getData()).length);
+        Assert.assertEquals(346 * 49, FilterUtil.flateDecode(img.getImageMask().getData()).length);
+    }
+
+    @Test
+    public void lazyPngTest() throws IOException {
+        ImageData img = ImageDataFactory.createLazy(UrlUtil.toURL(sourceFolder + "itext.png"));
+        Assert.assertTrue(img instanceof LazyImageData);
+        Assert.assertNull(img.getData());
+        Assert.assertNull(img.getImageMask());
+
+        ImageData eager = ImageDataFactory.create(sourceFolder + "itext.png");
+        Assert.assertEquals(eager.getWidth(), img.getWidth(), 0);
+        Assert.assertEquals(eager.getHeight(), img.getHeight(), 0);
+        Assert.assertEquals(eager.getDpiX(), img.getDpiX());
+        Assert.assertEquals(eager.getDpiY(), img.getDpiY());
+
+        ImageData loaded = ((LazyImageData) img).load();
+        Assert.assertArrayEquals(eager.getData(), loaded.getData());
+        Assert.assertNotNull(loaded.getImageMask());
+    }
+
+    @Test
+    public void imageDataSplitIntoChunksTest() throws IOException {
+        // two rows of two RGB pixels, each row preceded by the filter type
+        byte[] rows = {0, 1, 2, 3, 4, 5, 6, 0, 7, 8, 9, 10, 11, 12};
+        byte[] compressed = deflate(rows);
+        ImageData img = ImageDataFactory.create(createPng(2, rows, 3));
+        Assert.assertEquals(2, img.getWidth(), 0);
+        Assert.assertEquals(2, img.getHeight(), 0);
+        // the image data is used as is
+        Assert.assertArrayEquals(compressed, img.getData());
+    }
+
+    @Test
+    public void decodedImageDataSplitIntoChunksTest() throws IOException {
+        // two rows of two RGBA pixels, each row preceded by the filter type
+        byte[] rows = {0, 1, 2, 3, 10, 4, 5, 6, 20, 0, 7, 8, 9, 30, 10, 11, 12, 40};
+        ImageData img = ImageDataFactory.create(createPng(6, rows, 5));
+        Assert.assertArrayEquals(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12}, FilterUtil.flateDecode(img.getData()));
+        Assert.assertArrayEquals(new byte[] {10, 20, 30, 40}, FilterUtil.flateDecode(img.getImageMask().getData()));
+    }
+
+    @Test
+    public void paletteWithTransparencyTest() throws IOException {
+        // two rows of two palette indices, each row preceded by the filter type
+        byte[] rows = {0, 0, 1, 0, 1, 0};
+        byte[] palette = {(byte) 255, 0, 0, 0, 0, (byte) 255};
+        ImageData img = ImageDataFactory.create(createPng(3, palette, new byte[] {(byte) 128, (byte) 255}, rows, 4));
+        // the indices are passed through as is, only the mask is decoded
+        Assert.assertArrayEquals(deflate(rows), img.getData());
+        Assert.assertNotNull(img.getDecodeParms());
+        Assert.assertArrayEquals(new byte[] {(byte) 128, (byte) 255, (byte) 255, (byte) 128},
+                FilterUtil.flateDecode(img.getImageMask().getData()));
+    }
+
+    private static byte[] createPng(int colorType, byte[] rows, int chunkSize) throws IOException {
+        return createPng(colorType, null, null, rows, chunkSize);
+    }
+
+    private static byte[] createPng(int colorType, byte[] palette, byte[] trans, byte[] rows, int chunkSize) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        out.write(new byte[] {(byte) 137, 80, 78, 71, 13, 10, 26, 10});
+        writeChunk(out, "IHDR", new byte[] {0, 0, 0, 2, 0, 0, 0, 2, 8, (byte) colorType, 0, 0, 0});
+        if (palette != null) {
+            writeChunk(out, "PLTE", palette);
+        }
+        if (trans != null) {
+            writeChunk(out, "tRNS", trans);
+        }
+        byte[] compressed = deflate(rows);
+        for (int i = 0; i < compressed.length; i += chunkSize) {
+            writeChunk(out, "IDAT", Arrays.copyOfRange(compressed, i, Math.min(i + chunkSize, compressed.length)));
+        }
+        writeChunk(out, "IEND", new byte[0]);
+        return baos.toByteArray();
+    }
+
+    private static void writeChunk(DataOutputStream out, String type, byte[] data) throws IOException {
+        out.writeInt(data.length);
+        byte[] typeBytes = type.getBytes("ISO-8859-1");
+        out.write(typeBytes);
+        out.write(data);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeInt((int) crc.getValue());
+    }
+
+    private static byte[] deflate(byte[] data) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DeflaterOutputStream zip = new DeflaterOutputStream(baos);
+        zip.write(data);
+        zip.close();
+        return baos.toByteArray();
+    }
+}
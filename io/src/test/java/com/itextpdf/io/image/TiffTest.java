@@ -42,8 +42,11 @@
  */
 package com.itextpdf.io.image;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
+import com.itextpdf.io.codec.CCITTG4Encoder;
+import com.itextpdf.io.codec.TIFFFaxDecoder;
 import com.itextpdf.test.annotations.type.UnitTest;
 import org.junit.Assert;
 import org.junit.Test;
@@ -101,4 +104,59 @@ public class TiffTest {
         Assert.assertEquals(1456, img.getHeight(), 0);
         Assert.assertEquals(8, img.getBpc());
     }
+
+    @Test
+    public void directCcittLsbToMsbFillOrderTest() {
+        int width = 16;
+        int height = 2;
+        byte[] g4 = CCITTG4Encoder.compress(new byte[] {(byte) 0xf0, 0x0f, 0x00, (byte) 0xff}, width, height);
+        byte[] reversed = g4.clone();
+        TIFFFaxDecoder.reverseBits(reversed);
+        ImageData img = ImageDataFactory.createTiff(createG4Tiff(width, height, reversed), false, 1, true);
+        // the data passed through is expected with the most significant bit first
+        Assert.assertArrayEquals(g4, img.getData());
+    }
+
+    private static byte[] createG4Tiff(int width, int height, byte[] data) {
+        int[][] entries = {
+                // tag, type, value
+                {256, 3, width},
+                {257, 3, height},
+                {258, 3, 1},
+                {259, 3, 4},
+                {262, 3, 0},
+                {266, 3, 2},
+                {273, 4, 8 + 2 + 10 * 12 + 4},
+                {278, 3, height},
+                {279, 4, data.length},
+                {282, 5, 8 + 2 + 10 * 12 + 4 + data.length},
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write('I');
+        out.write('I');
+        writeLittleEndian(out, 42, 2);
+        writeLittleEndian(out, 8, 4);
+        writeLittleEndian(out, entries.length, 2);
+        for (int[] entry : entries) {
+            writeLittleEndian(out, entry[0], 2);
+            writeLittleEndian(out, entry[1], 2);
+            writeLittleEndian(out, 1, 4);
+            writeLittleEndian(out, entry[2], entry[1] == 3 ? 2 : 4);
+            if (entry[1] == 3) {
+                writeLittleEndian(out, 0, 2);
+            }
+        }
+        writeLittleEndian(out, 0, 4);
+        out.write(data, 0, data.length);
+        // the X resolution of 72/1
+        writeLittleEndian(out, 72, 4);
+        writeLittleEndian(out, 1, 4);
+        return out.toByteArray();
+    }
+
+    private static void writeLittleEndian(ByteArrayOutputStream out, int value, int length) {
+        for (int i = 0; i < length; i++) {
+            out.write(value >> (8 * i));
+        }
+    }
 }
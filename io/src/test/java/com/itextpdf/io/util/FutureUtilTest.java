@@ -0,0 +1,143 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.util;
+
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Category(UnitTest.class)
+public class FutureUtilTest {
+
+    @Test
+    public void resultTest() {
+        Assert.assertEquals("result", FutureUtil.getResult(submit(new Callable<String>() {
+            @Override
+            public String call() {
+                return "result";
+            }
+        })));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void runtimeExceptionRethrownTest() {
+        FutureUtil.getResult(submit(new Callable<String>() {
+            @Override
+            public String call() {
+                throw new IllegalStateException();
+            }
+        }));
+    }
+
+    @Test(expected = java.io.IOException.class)
+    public void checkedExceptionRethrownTest() throws java.io.IOException {
+        FutureUtil.getResult(submit(new Callable<String>() {
+            @Override
+            public String call() throws java.io.IOException {
+                throw new java.io.IOException();
+            }
+        }), java.io.IOException.class);
+    }
+
+    @Test
+    public void checkedExceptionWrappedTest() {
+        final Exception exception = new Exception();
+        try {
+            FutureUtil.getResult(submit(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    throw exception;
+                }
+            }));
+            Assert.fail();
+        } catch (com.itextpdf.io.IOException e) {
+            Assert.assertSame(exception, e.getCause());
+        }
+    }
+
+    @Test
+    public void checkedExceptionReturnedTest() throws InterruptedException {
+        final Exception exception = new Exception();
+        try {
+            submit(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    throw exception;
+                }
+            }).get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertSame(exception, FutureUtil.rethrowUnchecked(e));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void runtimeExceptionNotReturnedTest() throws InterruptedException {
+        try {
+            submit(new Callable<String>() {
+                @Override
+                public String call() {
+                    throw new IllegalStateException();
+                }
+            }).get();
+        } catch (ExecutionException e) {
+            FutureUtil.rethrowUnchecked(e);
+        }
+    }
+
+    private static <T> Future<T> submit(Callable<T> task) {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(task);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.font;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.source.DeflaterOutputStream;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.CompressionConstants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide cache of the embedded font streams, shared between documents.
+ * <p>
+ * Documents which embed the same font program with the same set of glyphs may reuse the finished,
+ * already compressed font stream instead of subsetting and compressing the font again. The reused
+ * streams are byte-for-byte equal, which also allows smart mode to detect them as duplicates.
+ * The cache is disabled by default, use {@link #setMaximumSize(int)} to enable it.
+ * When the cache is full, the least recently used font streams are removed.
+ */
+public final class FontSubsetCache {
+
+    private static final Map<FontStreamKey, FontStreamEntry> fontStreams = new LinkedHashMap<>(16, 0.75f, true);
+    private static int maximumSize = 0;
+
+    private FontSubsetCache() {
+    }
+
+    /**
+     * Sets the maximum number of font streams kept in the cache.
+     *
+     * @param maximumSize the maximum number of cached font streams, 0 disables the cache.
+     */
+    public static synchronized void setMaximumSize(int maximumSize) {
+        FontSubsetCache.maximumSize = Math.max(0, maximumSize);
+        trim();
+    }
+
+    /**
+     * Gets the maximum number of font streams kept in the cache.
+     *
+     * @return the maximum number of cached font streams, 0 if the cache is disabled.
+     */
+    public static synchronized int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Removes all font streams from the cache.
+     */
+    public static synchronized void clear() {
+        fontStreams.clear();
+    }
+
+    static synchronized boolean isEnabled() {
+        return maximumSize > 0;
+    }
+
+    static synchronized FontStreamEntry get(FontProgram fontProgram, Set<Integer> glyphs, String variant, int compressionLevel) {
+        if (maximumSize == 0) {
+            return null;
+        }
+        return fontStreams.get(new FontStreamKey(fontProgram, glyphs, variant, compressionLevel));
+    }
+
+    /**
+     * Compresses the font stream bytes and puts them into the cache.
+     *
+     * @return the cached font stream
+     */
+    static FontStreamEntry put(FontProgram fontProgram, Set<Integer> glyphs, String variant, int compressionLevel,
+            byte[] fontStreamBytes, int[] fontStreamLengths) {
+        FontStreamKey key = new FontStreamKey(fontProgram, glyphs, variant, compressionLevel);
+        // compression is done out of the lock, the same stream may be compressed by two documents at once
+        FontStreamEntry entry;
+        if (compressionLevel == CompressionConstants.NO_COMPRESSION) {
+            entry = new FontStreamEntry(fontStreamBytes, fontStreamLengths, false);
+        } else {
+            entry = new FontStreamEntry(compress(fontStreamBytes, compressionLevel), fontStreamLengths, true);
+        }
+        synchronized (FontSubsetCache.class) {
+            if (maximumSize > 0) {
+                fontStreams.put(key, entry);
+                trim();
+            }
+        }
+        return entry;
+    }
+
+    private static void trim() {
+        Iterator<FontStreamKey> iterator = fontStreams.keySet().iterator();
+        while (fontStreams.size() > maximumSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static byte[] compress(byte[] bytes, int compressionLevel) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(bytes.length / 2 + 16);
+        DeflaterOutputStream zip = new DeflaterOutputStream(stream, compressionLevel);
+        try {
+            zip.write(bytes);
+            zip.finish();
+        } catch (IOException e) {
+            throw new PdfException(PdfException.IoException, e);
+        }
+        return stream.toByteArray();
+    }
+
+    static final class FontStreamEntry {
+        final byte[] bytes;
+        final int[] lengths;
+        final boolean compressed;
+
+        FontStreamEntry(byte[] bytes, int[] lengths, boolean compressed) {
+            this.bytes = bytes;
+            this.lengths = lengths;
+            this.compressed = compressed;
+        }
+    }
+
+    private static final class FontStreamKey {
+        private final FontProgram fontProgram;
+        private final Set<Integer> glyphs;
+        private final String variant;
+        private final int compressionLevel;
+        private final int hashCode;
+
+        FontStreamKey(FontProgram fontProgram, Set<Integer> glyphs, String variant, int compressionLevel) {
+            this.fontProgram = fontProgram;
+            this.glyphs = new HashSet<>(glyphs);
+            this.variant = variant;
+            this.compressionLevel = compressionLevel;
+            int hash = System.identityHashCode(fontProgram);
+            hash = 31 * hash + this.glyphs.hashCode();
+            hash = 31 * hash + variant.hashCode();
+            this.hashCode = 31 * hash + compressionLevel;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            FontStreamKey that = (FontStreamKey) o;
+            // font programs are compared by identity, equal programs are shared via FontCache
+            return fontProgram == that.fontProgram && compressionLevel == that.compressionLevel
+                    && variant.equals(that.variant) && glyphs.equals(that.glyphs);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
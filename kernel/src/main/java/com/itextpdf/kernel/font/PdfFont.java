@@ -48,8 +48,10 @@ import com.itextpdf.io.font.otf.Glyph;
 import com.itextpdf.io.font.otf.GlyphLine;
 import com.itextpdf.io.util.TextUtil;
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.CompressionConstants;
 import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
 import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfNumber;
 import com.itextpdf.kernel.pdf.PdfObject;
@@ -62,6 +64,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 
 public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
@@ -90,6 +93,12 @@ public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
     protected boolean subset = true;
     protected List<int[]> subsetRanges;
 
+    /**
+     * Widths of BMP characters in pages of 256 characters indexed by the high byte.
+     * A value is the width plus one, 0 if the width is not known yet.
+     */
+    private transient int[][] bmpWidths;
+
     protected PdfFont(PdfDictionary fontDictionary) {
         super(fontDictionary);
         getPdfObject().put(PdfName.Type, PdfName.Font);
@@ -194,6 +203,112 @@ public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
      * @return a width in Text Space.
      */
     public int getWidth(int unicode) {
+        if (unicode < 0 || unicode > 0xffff) {
+            return getGlyphWidth(unicode);
+        }
+        int[] page = getBmpWidthsPage(unicode >> 8);
+        int width = page[unicode & 0xff];
+        return width != 0 ? width - 1 : cacheBmpWidth(page, unicode);
+    }
+
+    /**
+     * Returns the widths of several characters of this font in 1000 normalized units.
+     *
+     * @param unicodes the characters.
+     * @param start    the index of the first character.
+     * @param end      the index after the last character.
+     * @param widths   the array to store the width of each character to, starting at index 0, or {@code null}.
+     * @return the total width of the characters in Text Space.
+     */
+    public int getWidth(int[] unicodes, int start, int end, int[] widths) {
+        int total = 0;
+        int[] page = null;
+        int pageIndex = -1;
+        for (int i = start; i < end; i++) {
+            int unicode = unicodes[i];
+            int width;
+            if (unicode < 0 || unicode > 0xffff) {
+                width = getGlyphWidth(unicode);
+            } else {
+                // consecutive characters usually share the page
+                if (unicode >> 8 != pageIndex) {
+                    pageIndex = unicode >> 8;
+                    page = getBmpWidthsPage(pageIndex);
+                }
+                width = page[unicode & 0xff];
+                width = width != 0 ? width - 1 : cacheBmpWidth(page, unicode);
+            }
+            if (widths != null) {
+                widths[i - start] = width;
+            }
+            total += width;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the width of a part of a text of this font in 1000 normalized units.
+     *
+     * @param text  a text content.
+     * @param start the index of the first char.
+     * @param end   the index after the last char.
+     * @return the width of the text part in Text Space.
+     */
+    public int getWidth(CharSequence text, int start, int end) {
+        int total = 0;
+        int[] page = null;
+        int pageIndex = -1;
+        for (int i = start; i < end; i++) {
+            char ch = text.charAt(i);
+            if (Character.isHighSurrogate(ch) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                total += getGlyphWidth(Character.toCodePoint(ch, text.charAt(++i)));
+            } else {
+                if (ch >> 8 != pageIndex) {
+                    pageIndex = ch >> 8;
+                    page = getBmpWidthsPage(pageIndex);
+                }
+                int width = page[ch & 0xff];
+                total += width != 0 ? width - 1 : cacheBmpWidth(page, ch);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets the cached widths of 256 BMP characters, the stored values are the widths plus one, 0 if not known yet.
+     */
+    private int[] getBmpWidthsPage(int pageIndex) {
+        // The arrays are only filled with the values computed from the glyphs, so concurrent
+        // access may at worst cause the width to be computed again
+        int[][] widths = bmpWidths;
+        if (widths == null) {
+            widths = new int[256][];
+            bmpWidths = widths;
+        }
+        int[] page = widths[pageIndex];
+        if (page == null) {
+            page = new int[256];
+            widths[pageIndex] = page;
+        }
+        return page;
+    }
+
+    private int cacheBmpWidth(int[] page, int unicode) {
+        int width = getGlyphWidth(unicode);
+        if (width >= 0) {
+            page[unicode & 0xff] = width + 1;
+        }
+        return width;
+    }
+
+    /**
+     * Forgets the widths of the characters, e.g. if the glyphs of the font are changed.
+     */
+    void clearWidths() {
+        bmpWidths = null;
+    }
+
+    private int getGlyphWidth(int unicode) {
         Glyph glyph = getGlyph(unicode);
         return glyph != null ? glyph.getWidth() : 0;
     }
@@ -216,21 +331,7 @@ public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
      * @return a width of string in Text Space.
      */
     public int getWidth(String text) {
-        int total = 0;
-        for (int i = 0; i < text.length(); i++) {
-            int ch;
-            if (TextUtil.isSurrogatePair(text, i)) {
-                ch = TextUtil.convertToUtf32(text, i);
-                i++;
-            } else {
-                ch = text.charAt(i);
-            }
-            Glyph glyph = getGlyph(ch);
-            if (glyph != null) {
-                total += glyph.getWidth();
-            }
-        }
-        return total;
+        return getWidth(text, 0, text.length());
     }
 
     /**
@@ -448,6 +549,15 @@ public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
         super.flush();
     }
 
+    /**
+     * Computes in advance the font program data, e.g. the font subset, which will be embedded on {@link #flush()}.
+     * The method neither writes nor modifies PDF objects, so fonts of the same document may be prepared
+     * concurrently. If the used glyphs change after this call, the prepared data is discarded on flush.
+     * Does nothing by default.
+     */
+    public void prepareFontStream() {
+    }
+
     protected abstract PdfDictionary getFontDescriptor(String fontName);
 
     @Override
@@ -491,6 +601,64 @@ public abstract class PdfFont extends PdfObjectWrapper<PdfDictionary> {
         return fontStream;
     }
 
+    /**
+     * Checks if the font stream for the given glyphs of the font program is available in {@link FontSubsetCache}.
+     *
+     * @param glyphs  the glyphs of the font program to be embedded.
+     * @param variant distinguishes the ways of embedding the same glyphs of the font program.
+     * @return true if the cached font stream can be reused.
+     */
+    boolean isFontStreamCached(Set<Integer> glyphs, String variant) {
+        return FontSubsetCache.get(getFontProgram(), glyphs, variant, getFontStreamCompressionLevel()) != null;
+    }
+
+    /**
+     * Creates {@code PdfStream} based on the font stream cached in {@link FontSubsetCache}.
+     *
+     * @param glyphs  the glyphs of the font program to be embedded.
+     * @param variant distinguishes the ways of embedding the same glyphs of the font program.
+     * @return the PdfStream containing the font or {@code null}, if there is no such font stream in the cache.
+     */
+    PdfStream getCachedPdfFontStream(Set<Integer> glyphs, String variant) {
+        FontSubsetCache.FontStreamEntry entry = FontSubsetCache.get(getFontProgram(), glyphs, variant, getFontStreamCompressionLevel());
+        return entry != null ? getPdfFontStream(entry) : null;
+    }
+
+    /**
+     * Create {@code PdfStream} based on {@code fontStreamBytes} and puts the compressed font stream
+     * into {@link FontSubsetCache}, if the cache is enabled.
+     *
+     * @param fontStreamBytes   original font data, must be not null.
+     * @param fontStreamLengths array to generate {@code Length*} keys, must be not null.
+     * @param glyphs            the glyphs of the font program to be embedded.
+     * @param variant           distinguishes the ways of embedding the same glyphs of the font program.
+     * @return the PdfStream containing the font.
+     */
+    PdfStream getPdfFontStream(byte[] fontStreamBytes, int[] fontStreamLengths, Set<Integer> glyphs, String variant) {
+        if (fontStreamBytes == null || !FontSubsetCache.isEnabled()) {
+            return getPdfFontStream(fontStreamBytes, fontStreamLengths);
+        }
+        return getPdfFontStream(FontSubsetCache.put(getFontProgram(), glyphs, variant, getFontStreamCompressionLevel(),
+                fontStreamBytes, fontStreamLengths));
+    }
+
+    private PdfStream getPdfFontStream(FontSubsetCache.FontStreamEntry entry) {
+        PdfStream fontStream = getPdfFontStream(entry.bytes, entry.lengths);
+        if (entry.compressed) {
+            // the bytes are already compressed with the compression level of the document, so they are written as is
+            fontStream.put(PdfName.Filter, PdfName.FlateDecode);
+        }
+        return fontStream;
+    }
+
+    private int getFontStreamCompressionLevel() {
+        PdfIndirectReference reference = getPdfObject().getIndirectReference();
+        if (reference != null && reference.getDocument() != null && reference.getDocument().getWriter() != null) {
+            return reference.getDocument().getWriter().getCompressionLevel();
+        }
+        return CompressionConstants.DEFAULT_COMPRESSION;
+    }
+
     protected static int[] compactRanges(List<int[]> ranges) {
         List<int[]> simp = new ArrayList<>();
         for (int[] range : ranges) {
@@ -466,5 +466,6 @@ public abstract class PdfSimpleFont<T extends FontProgram> extends PdfFont {
 
     protected void setFontProgram(T fontProgram) {
         this.fontProgram = fontProgram;
+        clearWidths();
     }
 }
@@ -65,6 +65,9 @@ public class PdfTrueTypeFont extends PdfSimpleFont<TrueTypeFont> {
 
     private static final long serialVersionUID = -8152778382960290571L;
 
+    private byte[] preparedFontStreamBytes;
+    private Set<Integer> preparedFontStreamGlyphs;
+
     PdfTrueTypeFont(TrueTypeFont ttf, String encoding, boolean embedded) {
         super();
         setFontProgram(ttf);
@@ -120,6 +123,24 @@ public class PdfTrueTypeFont extends PdfSimpleFont<TrueTypeFont> {
         }
     }
 
+    @Override
+    public void prepareFontStream() {
+        if (newFont && embedded && !((TrueTypeFont) getFontProgram()).isCff()) {
+            Set<Integer> glyphs = getUsedGlyphs();
+            if (isFontStreamCached(glyphs, getFontStreamVariant())) {
+                return;
+            }
+            try {
+                preparedFontStreamBytes = getFontStreamBytes(glyphs);
+                preparedFontStreamGlyphs = glyphs;
+            } catch (RuntimeException e) {
+                // the failure is reported when the font stream is computed again on flush
+                preparedFontStreamBytes = null;
+                preparedFontStreamGlyphs = null;
+            }
+        }
+    }
+
     @Override
     public void flush() {
         ensureUnderlyingObjectHasIndirectReference();
@@ -187,26 +208,20 @@ public class PdfTrueTypeFont extends PdfSimpleFont<TrueTypeFont> {
                 }
             } else {
                 fontFileName = PdfName.FontFile2;
-                Set<Integer> glyphs = new HashSet<>();
-                for (int k = 0; k < shortTag.length; k++) {
-                    if (shortTag[k] != 0) {
-                        int uni = fontEncoding.getUnicode(k);
-                        Glyph glyph = uni > -1 ? fontProgram.getGlyph(uni) : fontProgram.getGlyphByCode(k);
-                        if (glyph != null) {
-                            glyphs.add(glyph.getCode());
-                        }
-                    }
-                }
-                addRangeUni(glyphs);
+                Set<Integer> glyphs = getUsedGlyphs();
                 try {
-                    byte[] fontStreamBytes;
-                    if (subset || ((TrueTypeFont) getFontProgram()).getDirectoryOffset() != 0 || subsetRanges != null) {
-                        //clone glyphs due to possible cache issue
-                        fontStreamBytes = ((TrueTypeFont) getFontProgram()).getSubset(new HashSet<>(glyphs), subset);
-                    } else {
-                        fontStreamBytes = ((TrueTypeFont) getFontProgram()).getFontStreamBytes();
+                    fontStream = getCachedPdfFontStream(glyphs, getFontStreamVariant());
+                    if (fontStream == null) {
+                        byte[] fontStreamBytes;
+                        if (preparedFontStreamBytes != null && preparedFontStreamGlyphs.equals(glyphs)) {
+                            fontStreamBytes = preparedFontStreamBytes;
+                        } else {
+                            fontStreamBytes = getFontStreamBytes(glyphs);
+                        }
+                        fontStream = getPdfFontStream(fontStreamBytes, new int[]{fontStreamBytes.length}, glyphs, getFontStreamVariant());
                     }
-                    fontStream = getPdfFontStream(fontStreamBytes, new int[]{fontStreamBytes.length});
+                    preparedFontStreamBytes = null;
+                    preparedFontStreamGlyphs = null;
                 } catch (PdfException e) {
                     Logger logger = LoggerFactory.getLogger(PdfTrueTypeFont.class);
                     logger.error(e.getMessage());
@@ -221,4 +236,32 @@ public class PdfTrueTypeFont extends PdfSimpleFont<TrueTypeFont> {
             }
         }
     }
+
+    private Set<Integer> getUsedGlyphs() {
+        Set<Integer> glyphs = new HashSet<>();
+        for (int k = 0; k < shortTag.length; k++) {
+            if (shortTag[k] != 0) {
+                int uni = fontEncoding.getUnicode(k);
+                Glyph glyph = uni > -1 ? fontProgram.getGlyph(uni) : fontProgram.getGlyphByCode(k);
+                if (glyph != null) {
+                    glyphs.add(glyph.getCode());
+                }
+            }
+        }
+        addRangeUni(glyphs);
+        return glyphs;
+    }
+
+    private String getFontStreamVariant() {
+        return "TrueType/" + subset + "/" + (subsetRanges != null);
+    }
+
+    private byte[] getFontStreamBytes(Set<Integer> glyphs) {
+        if (subset || ((TrueTypeFont) getFontProgram()).getDirectoryOffset() != 0 || subsetRanges != null) {
+            //clone glyphs due to possible cache issue
+            return ((TrueTypeFont) getFontProgram()).getSubset(new HashSet<>(glyphs), subset);
+        } else {
+            return ((TrueTypeFont) getFontProgram()).getFontStreamBytes();
+        }
+    }
 }
@@ -103,6 +103,9 @@ public class PdfType0Font extends PdfFont {
     protected int cidFontType;
     protected char[] specificUnicodeDifferences;
 
+    private byte[] preparedFontStreamBytes;
+    private Set<Integer> preparedFontStreamGlyphs;
+
     PdfType0Font(TrueTypeFont ttf, String cmap) {
         super();
         if (!cmap.equals(PdfEncodings.IDENTITY_H) && !cmap.equals(PdfEncodings.IDENTITY_V)) {
@@ -333,8 +336,28 @@ public class PdfType0Font extends PdfFont {
     public void writeText(GlyphLine text, int from, int to, PdfOutputStream stream) {
         int len = to - from + 1;
         if (len > 0) {
-            byte[] bytes = convertToBytes(new GlyphLine(text, from, to + 1));
-            StreamUtil.writeHexedString(stream, bytes);
+            // The buffers are local, so that the output of threads sharing the font is never mixed up
+            ByteBuffer buffer = new ByteBuffer(len * 4 + 2);
+            byte[] cmapBytes = cmapEncoding.isDirect() ? null : new byte[4];
+            buffer.append('<');
+            for (int i = from; i <= to; i++) {
+                int code = text.get(i).getCode();
+                longTag.add(code);
+                if (cmapBytes == null) {
+                    buffer.appendHex((byte) (code >> 8)).appendHex((byte) code);
+                } else {
+                    int cmapBytesLength = cmapEncoding.getCmapBytesLength(code);
+                    if (cmapBytesLength > cmapBytes.length) {
+                        cmapBytes = new byte[cmapBytesLength];
+                    }
+                    cmapEncoding.fillCmapBytes(code, cmapBytes, 0);
+                    for (int k = 0; k < cmapBytesLength; k++) {
+                        buffer.appendHex(cmapBytes[k]);
+                    }
+                }
+            }
+            buffer.append('>');
+            stream.writeBytes(buffer.getInternalBuffer(), 0, buffer.size());
         }
     }
 
@@ -585,6 +608,26 @@ public class PdfType0Font extends PdfFont {
         super.flush();
     }
 
+    @Override
+    public void prepareFontStream() {
+        if (newFont && cidFontType == CID_FONT_TYPE_2) {
+            TrueTypeFont ttf = (TrueTypeFont) getFontProgram();
+            addRangeUni(ttf, longTag);
+            Set<Integer> glyphs = new HashSet<>(longTag);
+            if (isFontStreamCached(glyphs, getFontStreamVariant())) {
+                return;
+            }
+            try {
+                preparedFontStreamBytes = getFontStreamBytes(ttf, new HashSet<>(glyphs));
+                preparedFontStreamGlyphs = glyphs;
+            } catch (RuntimeException e) {
+                // the failure is reported when the font stream is computed again on flush
+                preparedFontStreamBytes = null;
+                preparedFontStreamGlyphs = null;
+            }
+        }
+    }
+
     public CMapEncoding getCmap() {
         return cmapEncoding;
     }
@@ -801,36 +844,29 @@ public class PdfType0Font extends PdfFont {
             addRangeUni(ttf, longTag);
             int[] metrics = hashSetToArray(longTag);
             Arrays.sort(metrics);
-            PdfStream fontStream;
             String fontName = updateSubsetPrefix(ttf.getFontNames().getFontName(), subset, embedded);
             PdfDictionary fontDescriptor = getFontDescriptor(fontName);
-            if (ttf.isCff()) {
-                byte[] cffBytes = ttf.getFontStreamBytes();
-                if (subset || subsetRanges != null) {
-                    CFFFontSubset cff = new CFFFontSubset(ttf.getFontStreamBytes(), longTag);
-                    cffBytes = cff.Process(cff.getNames()[0]);
+            String fontStreamVariant = getFontStreamVariant();
+            PdfStream fontStream = getCachedPdfFontStream(longTag, fontStreamVariant);
+            if (fontStream == null) {
+                Set<Integer> glyphs = new HashSet<>(longTag);
+                byte[] fontStreamBytes;
+                if (preparedFontStreamBytes != null && preparedFontStreamGlyphs.equals(longTag)) {
+                    fontStreamBytes = preparedFontStreamBytes;
+                } else {
+                    fontStreamBytes = getFontStreamBytes(ttf, longTag);
                 }
-                fontStream = getPdfFontStream(cffBytes, new int[]{cffBytes.length});
+                fontStream = getPdfFontStream(fontStreamBytes, new int[]{fontStreamBytes.length}, glyphs, fontStreamVariant);
+            }
+            preparedFontStreamBytes = null;
+            preparedFontStreamGlyphs = null;
+            if (ttf.isCff()) {
                 fontStream.put(PdfName.Subtype, new PdfName("CIDFontType0C"));
                 // The PDF Reference manual advises to add -cmap in case CIDFontType0
                 getPdfObject().put(PdfName.BaseFont,
                         new PdfName(MessageFormatUtil.format("{0}-{1}", fontName, cmapEncoding.getCmapName())));
                 fontDescriptor.put(PdfName.FontFile3, fontStream);
             } else {
-                byte[] ttfBytes = null;
-                if (subset || ttf.getDirectoryOffset() != 0) {
-                    try {
-                        ttfBytes = ttf.getSubset(new HashSet<>(longTag), true);
-                    } catch (com.itextpdf.io.IOException e) {
-                        Logger logger = LoggerFactory.getLogger(PdfType0Font.class);
-                        logger.warn(LogMessageConstant.FONT_SUBSET_ISSUE);
-                        ttfBytes = null;
-                    }
-                }
-                if (ttfBytes == null) {
-                    ttfBytes = ttf.getFontStreamBytes();
-                }
-                fontStream = getPdfFontStream(ttfBytes, new int[]{ttfBytes.length});
                 getPdfObject().put(PdfName.BaseFont, new PdfName(fontName));
                 fontDescriptor.put(PdfName.FontFile2, fontStream);
             }
@@ -990,6 +1026,39 @@ public class PdfType0Font extends PdfFont {
         return new PdfStream(PdfEncodings.convertToBytes(buf.toString(), null));
     }
 
+    /**
+     * Gets the font program data to be embedded for the given set of used glyphs, i.e. the subset
+     * of the font program or the whole font program.
+     */
+    private byte[] getFontStreamBytes(TrueTypeFont ttf, Set<Integer> glyphs) {
+        if (ttf.isCff()) {
+            byte[] cffBytes = ttf.getFontStreamBytes();
+            if (subset || subsetRanges != null) {
+                CFFFontSubset cff = new CFFFontSubset(ttf.getFontStreamBytes(), glyphs);
+                cffBytes = cff.Process(cff.getNames()[0]);
+            }
+            return cffBytes;
+        }
+        byte[] ttfBytes = null;
+        if (subset || ttf.getDirectoryOffset() != 0) {
+            try {
+                ttfBytes = ttf.getSubset(new HashSet<>(glyphs), true);
+            } catch (com.itextpdf.io.IOException e) {
+                Logger logger = LoggerFactory.getLogger(PdfType0Font.class);
+                logger.warn(LogMessageConstant.FONT_SUBSET_ISSUE);
+                ttfBytes = null;
+            }
+        }
+        if (ttfBytes == null) {
+            ttfBytes = ttf.getFontStreamBytes();
+        }
+        return ttfBytes;
+    }
+
+    private String getFontStreamVariant() {
+        return "Type0/" + subset + "/" + (subsetRanges != null);
+    }
+
     //TODO optimize memory ussage
     private static String toHex4(char ch) {
         String s = "0000" + Integer.toHexString(ch);
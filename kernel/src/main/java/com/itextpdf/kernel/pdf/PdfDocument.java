@@ -98,6 +98,10 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -188,6 +192,9 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
     protected boolean flushUnusedObjects = false;
 
     private Map<PdfIndirectReference, PdfFont> documentFonts = new HashMap<>();
+    // Fonts loaded only to decode content streams, they are not flushed on close unless added via getFont.
+    // The fonts are kept as long as the document, so that they are not read again for each page.
+    private transient Map<PdfIndirectReference, PdfFont> decodedFonts = new HashMap<>();
     private PdfFont defaultFont = null;
 
     protected transient TagStructureContext tagStructureContext;
@@ -1628,10 +1635,38 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
         if (documentFonts.containsKey(dictionary.getIndirectReference())) {
             return documentFonts.get(dictionary.getIndirectReference());
         } else {
-            return addFont(PdfFontFactory.createFont(dictionary));
+            PdfFont decodedFont = decodedFonts.remove(dictionary.getIndirectReference());
+            return addFont(decodedFont != null ? decodedFont : PdfFontFactory.createFont(dictionary));
         }
     }
 
+    /**
+     * Gets a {@link PdfFont} instance to decode text of the document content, e.g. in
+     * {@link com.itextpdf.kernel.pdf.canvas.parser.PdfCanvasProcessor}.
+     * <p>
+     * Each indirect font dictionary is read only once, the same instance is returned to all the callers
+     * until the document is closed. Unlike {@link #getFont(PdfDictionary)}, the font is not flushed on document close.
+     * Like the other methods of the document, this method is not thread-safe.
+     *
+     * @param dictionary the font dictionary.
+     * @return instance of {@link PdfFont}.
+     */
+    public PdfFont getDecodedFont(PdfDictionary dictionary) {
+        PdfIndirectReference reference = dictionary.getIndirectReference();
+        if (reference == null) {
+            return PdfFontFactory.createFont(dictionary);
+        }
+        PdfFont font = documentFonts.get(reference);
+        if (font == null) {
+            font = decodedFonts.get(reference);
+            if (font == null) {
+                font = PdfFontFactory.createFont(dictionary);
+                decodedFonts.put(reference, font);
+            }
+        }
+        return font;
+    }
+
     /**
      * Gets default font for the document: Helvetica, WinAnsi.
      * One instance per document.
@@ -1938,16 +1973,62 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
     }
 
     protected void flushFonts() {
+        List<PdfFont> fontsToFlush = new ArrayList<>();
         if (properties.appendMode) {
             for (PdfFont font : getDocumentFonts()) {
                 if (font.getPdfObject().checkState(PdfObject.MUST_BE_INDIRECT) || font.getPdfObject().getIndirectReference().checkState(PdfObject.MODIFIED)) {
-                    font.flush();
+                    fontsToFlush.add(font);
                 }
             }
         } else {
-            for (PdfFont font : getDocumentFonts()) {
-                font.flush();
+            fontsToFlush.addAll(getDocumentFonts());
+        }
+        int parallelism = Math.min(writer.properties.fontSubsettingParallelism, fontsToFlush.size());
+        if (parallelism > 1) {
+            prepareFontStreams(fontsToFlush, parallelism);
+        }
+        for (PdfFont font : fontsToFlush) {
+            font.flush();
+        }
+    }
+
+    /**
+     * Computes the font streams of the given fonts, e.g. the font subsets, on a thread pool.
+     * Fonts are flushed afterwards on the current thread, so the document itself is not accessed concurrently.
+     */
+    private static void prepareFontStreams(List<PdfFont> fonts, int parallelism) {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> tasks = new ArrayList<>(fonts.size());
+            for (final PdfFont font : fonts) {
+                tasks.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        font.prepareFontStream();
+                    }
+                }));
             }
+            // all tasks shall be finished before the fonts are flushed, even if the current thread is interrupted
+            boolean interrupted = false;
+            for (Future<?> task : tasks) {
+                boolean done = false;
+                while (!done) {
+                    try {
+                        task.get();
+                        done = true;
+                    } catch (ExecutionException ignored) {
+                        // the font stream is computed again on flush, which reports the failure
+                        done = true;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            executor.shutdown();
         }
     }
 
@@ -2281,6 +2362,7 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
         eventDispatcher = new EventDispatcher();
+        decodedFonts = new HashMap<>();
     }
 
     private String addModifiedPostfix(String producer) {
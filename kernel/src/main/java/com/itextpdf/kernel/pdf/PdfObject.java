@@ -178,6 +178,9 @@ public abstract class PdfObject implements Serializable {
                     logger.info(LogMessageConstant.PDF_OBJECT_FLUSHING_NOT_PERFORMED);
                     return;
                 }
+                if (getType() == STREAM) {
+                    ((PdfStream) this).prepareContent();
+                }
                 document.checkIsoConformance(this, IsoKey.PDF_OBJECT);
                 document.flushObject(this, canBeInObjStm && getType() != STREAM
                         && getType() != INDIRECT_REFERENCE && getIndirectReference().getGenNumber() == 0);
@@ -497,7 +497,11 @@ public class PdfPage extends PdfObjectWrapper<PdfDictionary> {
         }
         int contentStreamCount = getContentStreamCount();
         for (int i = 0; i < contentStreamCount; i++) {
-            getContentStream(i).flush(false);
+            PdfStream contentStream = getContentStream(i);
+            // content streams might have been flushed ahead of the page
+            if (contentStream != null) {
+                contentStream.flush(false);
+            }
         }
 
         resources = null;
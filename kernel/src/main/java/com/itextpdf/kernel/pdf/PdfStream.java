@@ -372,6 +372,13 @@ public class PdfStream extends PdfDictionary {
             outputStream = new PdfOutputStream(stream != null ? stream : new ByteArrayOutputStream());
     }
 
+    /**
+     * Prepares the content of the stream right before the stream is flushed.
+     * Does nothing by default, it's overridden by the streams which content is created on demand.
+     */
+    protected void prepareContent() {
+    }
+
     /**
      * Release content of PdfStream.
      */
@@ -77,6 +77,11 @@ public class WriterProperties implements Serializable {
      */
     protected PdfString modifiedDocumentId;
 
+    /**
+     * The number of threads used to compute the font subsets when the document is closed.
+     */
+    protected int fontSubsettingParallelism;
+
     public WriterProperties() {
         smartMode = false;
         debugMode = false;
@@ -84,6 +89,7 @@ public class WriterProperties implements Serializable {
         compressionLevel = CompressionConstants.DEFAULT_COMPRESSION;
         isFullCompression = null;
         encryptionProperties = new EncryptionProperties();
+        fontSubsettingParallelism = 1;
     }
 
     /**
@@ -224,6 +230,20 @@ public class WriterProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Defines the number of threads used to compute the subsets of the embedded fonts when the document is closed.
+     * With a value greater than 1 each font is subset by a separate task of a thread pool, which speeds up
+     * closing of documents with many embedded fonts. The default value is 1, all fonts are subset one after
+     * another on the closing thread.
+     *
+     * @param parallelism the maximum number of threads used for font subsetting.
+     * @return this {@code WriterProperties} instance
+     */
+    public WriterProperties setFontSubsettingParallelism(int parallelism) {
+        this.fontSubsettingParallelism = parallelism;
+        return this;
+    }
+
     /**
      * This activates debug mode with pdfDebug tool.
      * It causes additional overhead of duplicating document bytes into memory, so use it careful.
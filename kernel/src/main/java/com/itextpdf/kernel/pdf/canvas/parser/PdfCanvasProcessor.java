@@ -90,7 +90,6 @@ import com.itextpdf.kernel.pdf.colorspace.PdfPattern;
 import com.itextpdf.kernel.pdf.colorspace.PdfSpecialCs;
 
 import java.io.IOException;
-import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -159,11 +158,6 @@ public class PdfCanvasProcessor {
      */
     private Map<PdfName, IXObjectDoHandler> xobjectDoHandlers;
 
-    /**
-     * The font cache
-     */
-    private Map<Integer, WeakReference<PdfFont>> cachedFonts = new HashMap<>();
-
     /**
      * A stack containing marked content info.
      */
@@ -472,23 +466,18 @@ public class PdfCanvasProcessor {
     }
 
     /**
-     * Creates a {@link PdfFont} object by a font dictionary. The font may have been cached in case it is an indirect object.
+     * Creates a {@link PdfFont} object by a font dictionary. In case it is an indirect object the font is
+     * cached by the document, so it is shared by all the processors of the document,
+     * see {@link com.itextpdf.kernel.pdf.PdfDocument#getDecodedFont(PdfDictionary)}.
      *
      * @param fontDict
      * @return the font
      */
     protected PdfFont getFont(PdfDictionary fontDict) {
-        if (fontDict.getIndirectReference() == null) {
+        if (fontDict.getIndirectReference() == null || fontDict.getIndirectReference().getDocument() == null) {
             return PdfFontFactory.createFont(fontDict);
         } else {
-            int n = fontDict.getIndirectReference().getObjNumber();
-            WeakReference<PdfFont> fontRef = cachedFonts.get(n);
-            PdfFont font = (PdfFont) (fontRef == null ? null : fontRef.get());
-            if (font == null) {
-                font = PdfFontFactory.createFont(fontDict);
-                cachedFonts.put(n, new WeakReference<>(font));
-            }
-            return font;
+            return fontDict.getIndirectReference().getDocument().getDecodedFont(fontDict);
         }
     }
 
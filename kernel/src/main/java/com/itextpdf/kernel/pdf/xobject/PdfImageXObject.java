@@ -50,6 +50,7 @@ import com.itextpdf.io.codec.TiffWriter;
 import com.itextpdf.io.colors.IccProfile;
 import com.itextpdf.io.image.ImageData;
 import com.itextpdf.io.image.ImageType;
+import com.itextpdf.io.image.LazyImageData;
 import com.itextpdf.io.image.RawImageData;
 import com.itextpdf.io.image.RawImageHelper;
 import com.itextpdf.kernel.PdfException;
@@ -61,6 +62,7 @@ import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfLiteral;
 import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNull;
 import com.itextpdf.kernel.pdf.PdfNumber;
 import com.itextpdf.kernel.pdf.PdfObject;
 import com.itextpdf.kernel.pdf.PdfReader;
@@ -78,8 +80,12 @@ import org.slf4j.LoggerFactory;
 import javax.imageio.ImageIO;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -89,6 +95,8 @@ public class PdfImageXObject extends PdfXObject {
 
     private static final long serialVersionUID = -205889576153966580L;
 
+    private static final PdfName[] DECODING_KEYS = {PdfName.Filter, PdfName.DecodeParms, PdfName.DP, PdfName.Width, PdfName.Height};
+
     private float width;
     private float height;
     private boolean mask;
@@ -116,7 +124,11 @@ public class PdfImageXObject extends PdfXObject {
      * @param imageMask {@link PdfImageXObject} with image mask.
      */
     public PdfImageXObject(ImageData image, PdfImageXObject imageMask) {
-        this(createPdfStream(checkImageType(image), imageMask));
+        this(image, imageMask, null);
+    }
+
+    private PdfImageXObject(ImageData image, PdfImageXObject imageMask, Map<byte[], PdfStream> globalsStreams) {
+        this(createPdfStream(checkImageType(image), imageMask, globalsStreams));
         mask = image.isMask();
         softMask = image.isSoftMask();
     }
@@ -132,6 +144,24 @@ public class PdfImageXObject extends PdfXObject {
         super(pdfStream);
     }
 
+    /**
+     * Creates Image XObjects for the images which are used together in the same document, e.g. for all the pages
+     * of a multi-page JBIG2 image. The JBIG2 images which share the same global segments data, like the pages
+     * returned by {@link com.itextpdf.io.image.ImageDataFactory#createJbig2Pages(byte[])}, refer to a single
+     * {@code JBIG2Globals} stream, so the global segments are written to the document only once.
+     *
+     * @param images the list of {@link ImageData} with actual image data
+     * @return the list of the created Image XObjects in the same order as the images
+     */
+    public static List<PdfImageXObject> createImageXObjects(List<? extends ImageData> images) {
+        Map<byte[], PdfStream> globalsStreams = new IdentityHashMap<>();
+        List<PdfImageXObject> imageXObjects = new ArrayList<>(images.size());
+        for (ImageData image : images) {
+            imageXObjects.add(new PdfImageXObject(image, null, globalsStreams));
+        }
+        return imageXObjects;
+    }
+
     /**
      * Gets width of image, {@code Width} key.
      *
@@ -191,6 +221,19 @@ public class PdfImageXObject extends PdfXObject {
         return image;
     }
 
+    /**
+     * Creates a copy of the Image XObject which is not added to any document,
+     * the image data and the direct objects like the soft mask are copied as well.
+     *
+     * @return just created instance of {@link PdfImageXObject}.
+     */
+    PdfImageXObject copy() {
+        PdfImageXObject image = new PdfImageXObject((PdfStream) copyUnattachedObject(getPdfObject()));
+        image.mask = mask;
+        image.softMask = softMask;
+        return image;
+    }
+
     /**
      * Gets image bytes, wrapped with buffered image.
      *
@@ -220,25 +263,57 @@ public class PdfImageXObject extends PdfXObject {
      * @return byte array.
      */
     public byte[] getImageBytes(boolean decoded) {
-        byte[] bytes;
-        bytes = getPdfObject().getBytes(false);
-        if (decoded) {
-            Map<PdfName, IFilterHandler> filters = new HashMap<>(FilterHandlers.getDefaultFilterHandlers());
-            DoNothingFilter stubFilter = new DoNothingFilter();
-            filters.put(PdfName.DCTDecode, stubFilter);
-            filters.put(PdfName.JBIG2Decode, stubFilter);
-            filters.put(PdfName.JPXDecode, stubFilter);
-            bytes = PdfReader.decodeBytes(bytes, getPdfObject(), filters);
+        if (!decoded) {
+            return getPdfObject().getBytes(false);
+        }
+        try {
+            return prepareImageBytes().toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("IO exception in PdfImageXObject", e);
+        }
+    }
 
-            if (stubFilter.getLastFilterName() == null) {
-                try {
-                    bytes = decodeTiffAndPngBytes(bytes);
-                } catch (IOException e) {
-                    throw new RuntimeException("IO exception in PdfImageXObject", e);
-                }
+    /**
+     * Writes decoded image bytes to the output stream, i.e. the same bytes which are returned by
+     * {@link #getImageBytes()}, without collecting them into an intermediate array.
+     * Note, the bytes of {@link PdfName#DCTDecode}, {@link PdfName#JBIG2Decode} and {@link PdfName#JPXDecode}
+     * images are written as is, other images are encoded as PNG or TIFF right into the output stream.
+     * The output stream is not closed.
+     *
+     * @param outputStream the stream to write the image bytes to
+     * @throws IOException if an error occurs during writing.
+     */
+    public void writeImageBytes(OutputStream outputStream) throws IOException {
+        ImageBytes imageBytes = prepareImageBytes();
+        if (imageBytes != null) {
+            imageBytes.writeTo(outputStream);
+        }
+    }
+
+    /**
+     * Reads the stream bytes and resolves everything that is needed to decode them. The result doesn't access
+     * the document anymore, so it may be decoded and written on another thread while the document is being read.
+     *
+     * @return the prepared image bytes or {@code null} if the stream has no bytes
+     */
+    ImageBytes prepareImageBytes() {
+        PdfStream stream = getPdfObject();
+        byte[] bytes = stream.getBytes(false);
+        if (bytes == null) {
+            return null;
+        }
+        PdfDictionary decodingParameters = new PdfDictionary();
+        for (PdfName key : DECODING_KEYS) {
+            PdfObject value = stream.get(key, true);
+            if (value != null && !value.isStream()) {
+                decodingParameters.put(key, copyDecodingParameter(value));
             }
         }
-        return bytes;
+        ImageBytes imageBytes = new ImageBytes(bytes, decodingParameters);
+        if (!imageBytes.isPassedThrough()) {
+            prepareTiffAndPngEncoding(imageBytes);
+        }
+        return imageBytes;
     }
 
     /**
@@ -252,6 +327,9 @@ public class PdfImageXObject extends PdfXObject {
      * @return the identified type of image
      */
     public ImageType identifyImageType() {
+        if (getPdfObject() instanceof LazyImagePdfStream) {
+            ((LazyImagePdfStream) getPdfObject()).prepareContent();
+        }
         PdfObject filter = getPdfObject().get(PdfName.Filter);
         PdfArray filters = new PdfArray();
         if (filter != null) {
@@ -321,7 +399,40 @@ public class PdfImageXObject extends PdfXObject {
         return this;
     }
 
+    /**
+     * Copies the object which is not added to any document. Unlike {@link PdfObject#clone()}, the nested objects
+     * which shall be indirect, e.g. the soft mask or ICC profile streams, are copied as well instead of being shared.
+     */
+    private static PdfObject copyUnattachedObject(PdfObject object) {
+        PdfObject copy = object.clone();
+        if (copy.isDictionary() || copy.isStream()) {
+            PdfDictionary dictionary = (PdfDictionary) copy;
+            for (PdfName key : new ArrayList<>(dictionary.keySet())) {
+                PdfObject value = dictionary.get(key, false);
+                if (value.isDictionary() || value.isStream() || value.isArray()) {
+                    dictionary.put(key, copyUnattachedObject(value));
+                }
+            }
+        } else if (copy.isArray()) {
+            PdfArray array = (PdfArray) copy;
+            for (int i = 0; i < array.size(); i++) {
+                PdfObject value = array.get(i, false);
+                if (value.isDictionary() || value.isStream() || value.isArray()) {
+                    array.set(i, copyUnattachedObject(value));
+                }
+            }
+        }
+        return copy;
+    }
+
     private static PdfStream createPdfStream(ImageData image, PdfImageXObject imageMask) {
+        return createPdfStream(image, imageMask, null);
+    }
+
+    private static PdfStream createPdfStream(ImageData image, PdfImageXObject imageMask, Map<byte[], PdfStream> globalsStreams) {
+        if (image instanceof LazyImageData) {
+            return new LazyImagePdfStream((LazyImageData) image, imageMask);
+        }
         PdfStream stream;
         if (image.getOriginalType() == ImageType.RAW) {
             RawImageHelper.updateImageAttributes((RawImageData) image, null);
@@ -334,7 +445,7 @@ public class PdfImageXObject extends PdfXObject {
         }
         stream.put(PdfName.Type, PdfName.XObject);
         stream.put(PdfName.Subtype, PdfName.Image);
-        PdfDictionary decodeParms = createDictionaryFromMap(stream, image.getDecodeParms());
+        PdfDictionary decodeParms = createDictionaryFromMap(stream, image.getDecodeParms(), globalsStreams);
         if (decodeParms != null) {
             stream.put(PdfName.DecodeParms, decodeParms);
         }
@@ -369,7 +480,7 @@ public class PdfImageXObject extends PdfXObject {
             stream.remove(PdfName.ColorSpace);
         }
 
-        PdfDictionary additional = createDictionaryFromMap(stream, image.getImageAttributes());
+        PdfDictionary additional = createDictionaryFromMap(stream, image.getImageAttributes(), null);
         if (additional != null) {
             stream.putAll(additional);
         }
@@ -451,7 +562,7 @@ public class PdfImageXObject extends PdfXObject {
         return stream;
     }
 
-    private static PdfDictionary createDictionaryFromMap(PdfStream stream, Map<String, Object> parms) {
+    private static PdfDictionary createDictionaryFromMap(PdfStream stream, Map<String, Object> parms, Map<byte[], PdfStream> globalsStreams) {
         if (parms != null) {
             PdfDictionary dictionary = new PdfDictionary();
             for (Map.Entry<String, Object> entry : parms.entrySet()) {
@@ -474,13 +585,19 @@ public class PdfImageXObject extends PdfXObject {
                     }
                 } else if (value instanceof byte[]) {
                     //TODO Check inline images
-                    PdfStream globalsStream = new PdfStream();
-                    globalsStream.getOutputStream().writeBytes((byte[]) value);
+                    PdfStream globalsStream = globalsStreams != null ? globalsStreams.get(value) : null;
+                    if (globalsStream == null) {
+                        globalsStream = new PdfStream();
+                        globalsStream.getOutputStream().writeBytes((byte[]) value);
+                        if (globalsStreams != null) {
+                            globalsStreams.put((byte[]) value, globalsStream);
+                        }
+                    }
                     dictionary.put(PdfName.JBIG2Globals, globalsStream);
                 } else if (value instanceof Boolean) {
                     dictionary.put(new PdfName(key), PdfBoolean.valueOf((boolean) value));
                 } else if (value instanceof Object[]) {
-                    dictionary.put(new PdfName(key), createArray(stream, (Object[]) value));
+                    dictionary.put(new PdfName(key), createArray(stream, (Object[]) value, globalsStreams));
                 } else if (value instanceof float[]) {
                     dictionary.put(new PdfName(key), new PdfArray((float[]) value));
                 }
@@ -490,7 +607,7 @@ public class PdfImageXObject extends PdfXObject {
         return null;
     }
 
-    private static PdfArray createArray(PdfStream stream, Object[] objects) {
+    private static PdfArray createArray(PdfStream stream, Object[] objects, Map<byte[], PdfStream> globalsStreams) {
         PdfArray array = new PdfArray();
         for (Object obj : objects) {
             if (obj instanceof String) {
@@ -505,10 +622,10 @@ public class PdfImageXObject extends PdfXObject {
             } else if (obj instanceof Float) {
                 array.add(new PdfNumber((float) obj));
             } else if (obj instanceof Object[]) {
-                array.add(createArray(stream, (Object[]) obj));
+                array.add(createArray(stream, (Object[]) obj, globalsStreams));
             } else {
                 //TODO instance of was removed due to autoport
-                array.add(createDictionaryFromMap(stream, (Map<String, Object>) obj));
+                array.add(createDictionaryFromMap(stream, (Map<String, Object>) obj, globalsStreams));
             }
         }
         return array;
@@ -527,10 +644,9 @@ public class PdfImageXObject extends PdfXObject {
         findColorspace(colorspace, true);
     }
 
-    private byte[] decodeTiffAndPngBytes(byte[] imageBytes) throws IOException {
+    private void prepareTiffAndPngEncoding(ImageBytes imageBytes) {
         PdfObject colorspace = getPdfObject().get(PdfName.ColorSpace);
         prepareAndFindColorspace(colorspace);
-        java.io.ByteArrayOutputStream ms = new java.io.ByteArrayOutputStream();
         if (pngColorType < 0) {
             if (bpc != 8)
                 throw new com.itextpdf.io.IOException(com.itextpdf.io.IOException.ColorDepthIsNotSupported).setMessageParams(bpc);
@@ -550,42 +666,13 @@ public class PdfImageXObject extends PdfXObject {
                 throw new com.itextpdf.io.IOException(com.itextpdf.io.IOException.ColorSpaceIsNotSupported).setMessageParams(colorspace.toString());
             }
             stride = (int) (4 * width);
-            TiffWriter wr = new TiffWriter();
-            wr.addField(new TiffWriter.FieldShort(TIFFConstants.TIFFTAG_SAMPLESPERPIXEL, 4));
-            wr.addField(new TiffWriter.FieldShort(TIFFConstants.TIFFTAG_BITSPERSAMPLE, new int[]{8, 8, 8, 8}));
-            wr.addField(new TiffWriter.FieldShort(TIFFConstants.TIFFTAG_PHOTOMETRIC, TIFFConstants.PHOTOMETRIC_SEPARATED));
-            wr.addField(new TiffWriter.FieldLong(TIFFConstants.TIFFTAG_IMAGEWIDTH, (int) width));
-            wr.addField(new TiffWriter.FieldLong(TIFFConstants.TIFFTAG_IMAGELENGTH, (int) height));
-            wr.addField(new TiffWriter.FieldShort(TIFFConstants.TIFFTAG_COMPRESSION, TIFFConstants.COMPRESSION_LZW));
-            wr.addField(new TiffWriter.FieldShort(TIFFConstants.TIFFTAG_PREDICTOR, TIFFConstants.PREDICTOR_HORIZONTAL_DIFFERENCING));
-            wr.addField(new TiffWriter.FieldLong(TIFFConstants.TIFFTAG_ROWSPERSTRIP, (int) height));
-            wr.addField(new TiffWriter.FieldRational(TIFFConstants.TIFFTAG_XRESOLUTION, new int[]{300, 1}));
-            wr.addField(new TiffWriter.FieldRational(TIFFConstants.TIFFTAG_YRESOLUTION, new int[]{300, 1}));
-            wr.addField(new TiffWriter.FieldShort(TIFFConstants.TIFFTAG_RESOLUTIONUNIT, TIFFConstants.RESUNIT_INCH));
-            wr.addField(new TiffWriter.FieldAscii(TIFFConstants.TIFFTAG_SOFTWARE, Version.getInstance().getVersion()));
-            java.io.ByteArrayOutputStream comp = new java.io.ByteArrayOutputStream();
-            TiffWriter.compressLZW(comp, 2, imageBytes, (int) height, 4, stride);
-            byte[] buf = comp.toByteArray();
-            wr.addField(new TiffWriter.FieldImage(buf));
-            wr.addField(new TiffWriter.FieldLong(TIFFConstants.TIFFTAG_STRIPBYTECOUNTS, buf.length));
-            if (icc != null) {
-                wr.addField(new TiffWriter.FieldUndefined(TIFFConstants.TIFFTAG_ICCPROFILE, icc));
-            }
-            wr.writeFile(ms);
-
-            imageBytes = ms.toByteArray();
-            return imageBytes;
         } else {
-            PngWriter png = new PngWriter(ms);
             PdfArray decode = getPdfObject().getAsArray(PdfName.Decode);
             if (decode != null) {
                 if (pngBitDepth == 1) {
                     // if the decode array is 1,0, then we need to invert the image
                     if (decode.getAsNumber(0).intValue() == 1 && decode.getAsNumber(1).intValue() == 0) {
-                        int len = imageBytes.length;
-                        for (int t = 0; t < len; ++t) {
-                            imageBytes[t] ^= 0xff;
-                        }
+                        imageBytes.inverted = true;
                     } else {
                         // if the decode array is 0,1, do nothing.  It's possible that the array could be 0,0 or 1,1 - but that would be silly, so we'll just ignore that case
                     }
@@ -593,17 +680,41 @@ public class PdfImageXObject extends PdfXObject {
                     // todo: add decode transformation for other depths
                 }
             }
-            png.writeHeader((int) width, (int) height, pngBitDepth, pngColorType);
-            if (icc != null) {
-                png.writeIccProfile(icc);
+        }
+        imageBytes.pngColorType = pngColorType;
+        imageBytes.pngBitDepth = pngBitDepth;
+        imageBytes.width = (int) width;
+        imageBytes.height = (int) height;
+        imageBytes.stride = stride;
+        imageBytes.palette = palette;
+        imageBytes.icc = icc;
+    }
+
+    /**
+     * Copies the object which is needed for decoding the stream bytes, so that the decoding doesn't access
+     * the document objects. Nested streams are not needed by the filters and are not copied.
+     */
+    private static PdfObject copyDecodingParameter(PdfObject object) {
+        if (object.isDictionary()) {
+            PdfDictionary dictionary = (PdfDictionary) object;
+            PdfDictionary copy = new PdfDictionary();
+            for (PdfName key : dictionary.keySet()) {
+                PdfObject value = dictionary.get(key, true);
+                if (value != null && !value.isStream()) {
+                    copy.put(key, copyDecodingParameter(value));
+                }
             }
-            if (palette != null) {
-                png.writePalette(palette);
+            return copy;
+        } else if (object.isArray()) {
+            PdfArray array = (PdfArray) object;
+            PdfArray copy = new PdfArray();
+            for (int i = 0; i < array.size(); i++) {
+                PdfObject value = array.get(i, true);
+                copy.add(value == null || value.isStream() ? PdfNull.PDF_NULL : copyDecodingParameter(value));
             }
-            png.writeData(imageBytes, stride);
-            png.writeEnd();
-            imageBytes = ms.toByteArray();
-            return imageBytes;
+            return copy;
+        } else {
+            return object.clone();
         }
     }
 
@@ -671,4 +782,172 @@ public class PdfImageXObject extends PdfXObject {
         }
         return image;
     }
+
+    /**
+     * The stream of the Image XObject created from {@link LazyImageData}. Until the stream is flushed or its data
+     * is requested, it contains only the size of the image and the image is neither loaded nor decoded.
+     */
+    private static class LazyImagePdfStream extends PdfStream {
+        private LazyImageData image;
+        private PdfImageXObject imageMask;
+
+        LazyImagePdfStream(LazyImageData image, PdfImageXObject imageMask) {
+            this.image = image;
+            this.imageMask = imageMask;
+            put(PdfName.Type, PdfName.XObject);
+            put(PdfName.Subtype, PdfName.Image);
+            put(PdfName.Width, new PdfNumber(image.getWidth()));
+            put(PdfName.Height, new PdfNumber(image.getHeight()));
+        }
+
+        @Override
+        public byte[] getBytes(boolean decoded) {
+            prepareContent();
+            return super.getBytes(decoded);
+        }
+
+        @Override
+        protected PdfObject newInstance() {
+            // both cloning and copying to another document create the new instance before copying the entries
+            // and the data, so the image is loaded here to have the complete dictionary copied
+            prepareContent();
+            return super.newInstance();
+        }
+
+        @Override
+        protected void prepareContent() {
+            if (image != null) {
+                PdfStream stream = createPdfStream(image.load(), imageMask);
+                image = null;
+                imageMask = null;
+                // the data is set first, since setting the data removes the filters
+                setData(stream.getBytes(false));
+                putAll(stream);
+                setCompressionLevel(stream.getCompressionLevel());
+            }
+        }
+    }
+
+    /**
+     * The stream bytes of an image together with the decoding parameters and the properties needed to encode
+     * the decoded bytes as PNG or TIFF. It doesn't refer to any document objects.
+     */
+    static final class ImageBytes {
+        private final byte[] bytes;
+        private final PdfDictionary decodingParameters;
+        private final boolean passedThrough;
+        private int pngColorType = -1;
+        private int pngBitDepth;
+        private int width;
+        private int height;
+        private int stride;
+        private byte[] palette;
+        private byte[] icc;
+        private boolean inverted;
+
+        ImageBytes(byte[] bytes, PdfDictionary decodingParameters) {
+            this.bytes = bytes;
+            this.decodingParameters = decodingParameters;
+            this.passedThrough = hasPassedThroughFilter(decodingParameters.get(PdfName.Filter));
+        }
+
+        /**
+         * Checks whether the decoded bytes are written as is, i.e. whether the image is compressed with
+         * {@link PdfName#DCTDecode}, {@link PdfName#JBIG2Decode} or {@link PdfName#JPXDecode} filter.
+         */
+        boolean isPassedThrough() {
+            return passedThrough;
+        }
+
+        byte[] toByteArray() throws IOException {
+            byte[] decodedBytes = decode();
+            if (passedThrough) {
+                return decodedBytes;
+            }
+            java.io.ByteArrayOutputStream ms = new java.io.ByteArrayOutputStream();
+            encodeTiffOrPng(decodedBytes, ms);
+            return ms.toByteArray();
+        }
+
+        void writeTo(OutputStream outputStream) throws IOException {
+            byte[] decodedBytes = decode();
+            if (passedThrough) {
+                outputStream.write(decodedBytes);
+            } else {
+                encodeTiffOrPng(decodedBytes, outputStream);
+            }
+        }
+
+        private byte[] decode() {
+            Map<PdfName, IFilterHandler> filters = new HashMap<>(FilterHandlers.getDefaultFilterHandlers());
+            DoNothingFilter stubFilter = new DoNothingFilter();
+            filters.put(PdfName.DCTDecode, stubFilter);
+            filters.put(PdfName.JBIG2Decode, stubFilter);
+            filters.put(PdfName.JPXDecode, stubFilter);
+            return PdfReader.decodeBytes(bytes, decodingParameters, filters);
+        }
+
+        private void encodeTiffOrPng(byte[] imageBytes, OutputStream outputStream) throws IOException {
+            if (pngColorType < 0) {
+                TiffWriter wr = new TiffWriter();
+                wr.addField(new TiffWriter.FieldShort(TIFFConstants.TIFFTAG_SAMPLESPERPIXEL, 4));
+                wr.addField(new TiffWriter.FieldShort(TIFFConstants.TIFFTAG_BITSPERSAMPLE, new int[]{8, 8, 8, 8}));
+                wr.addField(new TiffWriter.FieldShort(TIFFConstants.TIFFTAG_PHOTOMETRIC, TIFFConstants.PHOTOMETRIC_SEPARATED));
+                wr.addField(new TiffWriter.FieldLong(TIFFConstants.TIFFTAG_IMAGEWIDTH, width));
+                wr.addField(new TiffWriter.FieldLong(TIFFConstants.TIFFTAG_IMAGELENGTH, height));
+                wr.addField(new TiffWriter.FieldShort(TIFFConstants.TIFFTAG_COMPRESSION, TIFFConstants.COMPRESSION_LZW));
+                wr.addField(new TiffWriter.FieldShort(TIFFConstants.TIFFTAG_PREDICTOR, TIFFConstants.PREDICTOR_HORIZONTAL_DIFFERENCING));
+                wr.addField(new TiffWriter.FieldLong(TIFFConstants.TIFFTAG_ROWSPERSTRIP, height));
+                wr.addField(new TiffWriter.FieldRational(TIFFConstants.TIFFTAG_XRESOLUTION, new int[]{300, 1}));
+                wr.addField(new TiffWriter.FieldRational(TIFFConstants.TIFFTAG_YRESOLUTION, new int[]{300, 1}));
+                wr.addField(new TiffWriter.FieldShort(TIFFConstants.TIFFTAG_RESOLUTIONUNIT, TIFFConstants.RESUNIT_INCH));
+                wr.addField(new TiffWriter.FieldAscii(TIFFConstants.TIFFTAG_SOFTWARE, Version.getInstance().getVersion()));
+                java.io.ByteArrayOutputStream comp = new java.io.ByteArrayOutputStream();
+                TiffWriter.compressLZW(comp, 2, imageBytes, height, 4, stride);
+                byte[] buf = comp.toByteArray();
+                wr.addField(new TiffWriter.FieldImage(buf));
+                wr.addField(new TiffWriter.FieldLong(TIFFConstants.TIFFTAG_STRIPBYTECOUNTS, buf.length));
+                if (icc != null) {
+                    wr.addField(new TiffWriter.FieldUndefined(TIFFConstants.TIFFTAG_ICCPROFILE, icc));
+                }
+                wr.writeFile(outputStream);
+            } else {
+                if (inverted) {
+                    int len = imageBytes.length;
+                    for (int t = 0; t < len; ++t) {
+                        imageBytes[t] ^= 0xff;
+                    }
+                }
+                PngWriter png = new PngWriter(outputStream);
+                png.writeHeader(width, height, pngBitDepth, pngColorType);
+                if (icc != null) {
+                    png.writeIccProfile(icc);
+                }
+                if (palette != null) {
+                    png.writePalette(palette);
+                }
+                png.writeData(imageBytes, stride);
+                png.writeEnd();
+            }
+        }
+
+        private static boolean hasPassedThroughFilter(PdfObject filter) {
+            PdfArray filters = new PdfArray();
+            if (filter != null) {
+                if (filter.getType() == PdfObject.NAME) {
+                    filters.add(filter);
+                } else if (filter.getType() == PdfObject.ARRAY) {
+                    filters = (PdfArray) filter;
+                }
+            }
+            for (int i = 0; i < filters.size(); i++) {
+                PdfObject filterName = filters.get(i);
+                if (PdfName.DCTDecode.equals(filterName) || PdfName.JBIG2Decode.equals(filterName)
+                        || PdfName.JPXDecode.equals(filterName)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
@@ -0,0 +1,256 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.xobject;
+
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.io.source.DeflaterOutputStream;
+import com.itextpdf.io.util.ContentKey;
+import com.itextpdf.io.util.LruCache;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.CompressionConstants;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of the Image XObjects built from the image files, e.g. of a logo or a signature
+ * which is added to every page or to every document.
+ * <p>
+ * The images are identified by the SHA-256 hash of the image file content and the decoding parameters.
+ * The images are requested through the {@link DocumentImages} view of a document, obtained with
+ * {@link #forDocument(PdfDocument)} and held by the caller while the document is being written. Within the view
+ * the same {@link PdfImageXObject} instance is returned for the same image, so the image is written to the document
+ * only once. Each document gets a copy of the already decoded and compressed image stream, so the image file is
+ * neither parsed nor compressed again. The cache itself keeps no references to the documents.
+ * A single cache instance may be shared across documents and threads. When the maximum size is reached,
+ * the least recently used images are evicted.
+ */
+public class PdfImageXObjectCache {
+
+    /**
+     * The default maximum number of images kept in the cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 100;
+
+    private final LruCache<ContentKey, PdfImageXObject> images;
+    // the lookups served by the views of the documents
+    private final AtomicLong documentHits = new AtomicLong();
+
+    /**
+     * Creates a cache which keeps at most {@link #DEFAULT_MAX_SIZE} images.
+     */
+    public PdfImageXObjectCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a cache which keeps at most the specified number of images.
+     *
+     * @param maxSize the maximum number of images, must be positive
+     */
+    public PdfImageXObjectCache(int maxSize) {
+        this.images = new LruCache<>(maxSize);
+    }
+
+    /**
+     * Gets the maximum number of images kept in the cache.
+     *
+     * @return the maximum size of the cache
+     */
+    public int getMaxSize() {
+        return images.getMaxSize();
+    }
+
+    /**
+     * Gets the number of images currently kept in the cache.
+     *
+     * @return the current size of the cache
+     */
+    public int size() {
+        return images.size();
+    }
+
+    /**
+     * Gets the number of lookups which have been served from the cache, either within a document or across documents.
+     *
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return images.getHits() + documentHits.get();
+    }
+
+    /**
+     * Gets the number of lookups which have not been served from the cache and required decoding of the image.
+     *
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return images.getMisses();
+    }
+
+    /**
+     * Removes all the images from the cache. The Image XObjects already returned to the documents are not affected.
+     */
+    public void clear() {
+        images.clear();
+    }
+
+    /**
+     * Creates the view of the cache for the specified document. The view should be kept while the document is being
+     * written and is not thread-safe, just like the document itself.
+     *
+     * @param document the document to which the images will be added
+     * @return the view of the cache returning the Image XObjects for the document
+     */
+    public DocumentImages forDocument(PdfDocument document) {
+        return new DocumentImages(this, getCompressionLevel(document));
+    }
+
+    /**
+     * Gets the image shared by the documents, which is never added to a document itself.
+     */
+    private PdfImageXObject getSharedImage(ContentKey key, byte[] imageBytes, boolean recoverImage, int compressionLevel) {
+        PdfImageXObject cachedImage = images.get(key);
+        if (cachedImage == null) {
+            // the image is decoded and compressed out of the lock, the same image may be decoded by two threads at once
+            cachedImage = new PdfImageXObject(ImageDataFactory.create(imageBytes, recoverImage));
+            compressImageStream(cachedImage.getPdfObject(), compressionLevel);
+            images.put(key, cachedImage);
+        }
+        return cachedImage;
+    }
+
+    private static int getCompressionLevel(PdfDocument document) {
+        if (document.getWriter() != null) {
+            return document.getWriter().getCompressionLevel();
+        }
+        return CompressionConstants.DEFAULT_COMPRESSION;
+    }
+
+    /**
+     * Compresses the image data and the data of its masks the same way as it's done on writing to the document,
+     * so that the documents using the image copy the compressed bytes as is.
+     */
+    private static void compressImageStream(PdfStream stream, int compressionLevel) {
+        if (compressionLevel == CompressionConstants.NO_COMPRESSION) {
+            return;
+        }
+        if (!stream.containsKey(PdfName.Filter) && stream.getCompressionLevel() == CompressionConstants.UNDEFINED_COMPRESSION) {
+            stream.setData(compress(stream.getBytes(false), compressionLevel));
+            stream.put(PdfName.Filter, PdfName.FlateDecode);
+        }
+        PdfStream softMask = stream.getAsStream(PdfName.SMask);
+        if (softMask != null) {
+            compressImageStream(softMask, compressionLevel);
+        }
+        // Mask may also be an array of color key ranges
+        PdfStream mask = stream.getAsStream(PdfName.Mask);
+        if (mask != null) {
+            compressImageStream(mask, compressionLevel);
+        }
+    }
+
+    private static byte[] compress(byte[] bytes, int compressionLevel) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream(bytes.length / 2 + 16);
+        DeflaterOutputStream zip = new DeflaterOutputStream(stream, compressionLevel);
+        try {
+            zip.write(bytes);
+            zip.finish();
+        } catch (IOException e) {
+            throw new PdfException(PdfException.IoException, e);
+        }
+        return stream.toByteArray();
+    }
+
+    /**
+     * The view of a {@link PdfImageXObjectCache} for a single document. It keeps the Image XObjects returned
+     * to the document, so that the same image is written to the document only once.
+     */
+    public static class DocumentImages {
+        private final PdfImageXObjectCache cache;
+        private final int compressionLevel;
+        private final Map<ContentKey, PdfImageXObject> images = new HashMap<>();
+
+        DocumentImages(PdfImageXObjectCache cache, int compressionLevel) {
+            this.cache = cache;
+            this.compressionLevel = compressionLevel;
+        }
+
+        /**
+         * Gets the Image XObject of the image file for the document.
+         *
+         * @param imageBytes the content of the image file
+         * @return the Image XObject of the image, shared by all the usages of the same image within the document
+         */
+        public PdfImageXObject getImageXObject(byte[] imageBytes) {
+            return getImageXObject(imageBytes, false);
+        }
+
+        /**
+         * Gets the Image XObject of the image file for the document.
+         *
+         * @param imageBytes   the content of the image file
+         * @param recoverImage whether to recover from an image error (for TIFF-images)
+         * @return the Image XObject of the image, shared by all the usages of the same image within the document
+         */
+        public PdfImageXObject getImageXObject(byte[] imageBytes, boolean recoverImage) {
+            ContentKey key = new ContentKey(imageBytes, recoverImage, compressionLevel);
+            PdfImageXObject image = images.get(key);
+            if (image != null) {
+                cache.documentHits.incrementAndGet();
+                return image;
+            }
+            // the shared image is never added to a document, so it is not modified by the documents using its copies
+            image = cache.getSharedImage(key, imageBytes, recoverImage, compressionLevel).copy();
+            images.put(key, image);
+            return image;
+        }
+    }
+}
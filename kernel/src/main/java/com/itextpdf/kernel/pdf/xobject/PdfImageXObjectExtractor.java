@@ -0,0 +1,253 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.xobject;
+
+import com.itextpdf.io.util.FutureUtil;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Extracts the Image XObjects used on the pages of a document and writes their decoded bytes to output streams,
+ * see {@link PdfImageXObject#writeImageBytes(OutputStream)}. The bytes of {@link PdfName#DCTDecode},
+ * {@link PdfName#JBIG2Decode} and {@link PdfName#JPXDecode} images are written as is, other images are encoded
+ * as PNG or TIFF.
+ * <p>
+ * The document is read only on the calling thread: the images are found in the page resources, including the ones
+ * of the nested form XObjects, and their stream bytes are read in the order of pages. If the parallelism is greater
+ * than 1, see {@link #setParallelism(int)}, the read bytes are decoded and written on a thread pool.
+ * An image used several times is extracted only once.
+ */
+public class PdfImageXObjectExtractor {
+
+    private PdfDocument pdfDocument;
+    private int parallelism = 1;
+
+    /**
+     * Creates an extractor of the images of the specified document.
+     *
+     * @param pdfDocument the document to extract the images from
+     */
+    public PdfImageXObjectExtractor(PdfDocument pdfDocument) {
+        this.pdfDocument = pdfDocument;
+    }
+
+    /**
+     * Sets the maximum number of images decoded and written concurrently. Default value - 1, i.e. the images are
+     * decoded and written one by one on the calling thread. At most twice as many images are read ahead
+     * of the image being written, so the memory usage doesn't depend on the number of images in the document.
+     *
+     * @param parallelism the number of threads used for decoding, must be positive
+     * @return this {@code PdfImageXObjectExtractor} instance
+     */
+    public PdfImageXObjectExtractor setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive.");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Extracts the images of all the pages of the document.
+     *
+     * @param outputStreamProvider the provider of the streams to write the image bytes to
+     * @return the number of written images
+     * @throws IOException if an error occurs during writing.
+     */
+    public int extract(IImageOutputStreamProvider outputStreamProvider) throws IOException {
+        ExecutorService executor = parallelism > 1 ? Executors.newFixedThreadPool(parallelism) : null;
+        try {
+            ExtractionContext context = new ExtractionContext(outputStreamProvider, executor, 2 * parallelism);
+            int numberOfPages = pdfDocument.getNumberOfPages();
+            for (int page = 1; page <= numberOfPages; page++) {
+                PdfDictionary resources = pdfDocument.getPage(page).getResources().getPdfObject();
+                extractImages(resources, page, context);
+            }
+            while (!context.writtenImages.isEmpty()) {
+                waitForImage(context.writtenImages.removeFirst());
+            }
+            return context.numberOfImages;
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private void extractImages(PdfDictionary resources, int pageNumber, ExtractionContext context) throws IOException {
+        PdfDictionary xObjects = resources == null ? null : resources.getAsDictionary(PdfName.XObject);
+        if (xObjects == null) {
+            return;
+        }
+        for (PdfName name : xObjects.keySet()) {
+            PdfStream xObject = xObjects.getAsStream(name);
+            if (xObject == null || !context.visit(xObject)) {
+                continue;
+            }
+            PdfName subtype = xObject.getAsName(PdfName.Subtype);
+            if (PdfName.Image.equals(subtype)) {
+                extractImage(new PdfImageXObject(xObject), pageNumber, name, context);
+            } else if (PdfName.Form.equals(subtype)) {
+                extractImages(xObject.getAsDictionary(PdfName.Resources), pageNumber, context);
+            }
+        }
+    }
+
+    private void extractImage(PdfImageXObject image, int pageNumber, PdfName name, ExtractionContext context) throws IOException {
+        final OutputStream outputStream = context.outputStreamProvider.getOutputStream(image, pageNumber, name);
+        if (outputStream == null) {
+            return;
+        }
+        final PdfImageXObject.ImageBytes imageBytes;
+        try {
+            imageBytes = image.prepareImageBytes();
+        } catch (RuntimeException e) {
+            outputStream.close();
+            throw e;
+        }
+        context.numberOfImages++;
+        if (context.executor == null) {
+            writeImage(imageBytes, outputStream);
+            return;
+        }
+        if (context.writtenImages.size() == context.maxImagesAhead) {
+            waitForImage(context.writtenImages.removeFirst());
+        }
+        context.writtenImages.addLast(context.executor.submit(new Callable<Object>() {
+            @Override
+            public Object call() throws IOException {
+                writeImage(imageBytes, outputStream);
+                return null;
+            }
+        }));
+    }
+
+    private static void writeImage(PdfImageXObject.ImageBytes imageBytes, OutputStream outputStream) throws IOException {
+        try {
+            if (imageBytes != null) {
+                imageBytes.writeTo(outputStream);
+            }
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    private static void waitForImage(Future<Object> writtenImage) throws IOException {
+        try {
+            writtenImage.get();
+        } catch (ExecutionException e) {
+            // the failure is reported the same way as if the image was written on the current thread
+            Throwable cause = FutureUtil.rethrowUnchecked(e);
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new PdfException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(e);
+        }
+    }
+
+    /**
+     * Provides the streams to write the extracted images to.
+     */
+    public interface IImageOutputStreamProvider {
+
+        /**
+         * Gets the stream to write the bytes of the image to. The method is called on the thread which extracts
+         * the images, in the order of pages, so the image may be inspected here, e.g. with
+         * {@link PdfImageXObject#identifyImageFileExtension()}. The returned stream is closed by the extractor
+         * once the image is written, possibly on another thread.
+         *
+         * @param image      the image to extract
+         * @param pageNumber the number of the first page which uses the image
+         * @param name       the name of the image in the resources where it was found
+         * @return the stream to write the image bytes to or {@code null} if the image shall be skipped
+         * @throws IOException if the stream cannot be created
+         */
+        OutputStream getOutputStream(PdfImageXObject image, int pageNumber, PdfName name) throws IOException;
+    }
+
+    private static class ExtractionContext {
+        final IImageOutputStreamProvider outputStreamProvider;
+        final ExecutorService executor;
+        final int maxImagesAhead;
+        final Deque<Future<Object>> writtenImages = new ArrayDeque<>();
+        final Set<PdfIndirectReference> visitedObjects = new HashSet<>();
+        int numberOfImages;
+
+        ExtractionContext(IImageOutputStreamProvider outputStreamProvider, ExecutorService executor, int maxImagesAhead) {
+            this.outputStreamProvider = outputStreamProvider;
+            this.executor = executor;
+            this.maxImagesAhead = maxImagesAhead;
+        }
+
+        /**
+         * Marks the XObject as visited, the shared images and forms are processed only once.
+         *
+         * @return {@code false} if the XObject has already been visited
+         */
+        boolean visit(PdfObject xObject) {
+            PdfIndirectReference reference = xObject.getIndirectReference();
+            return reference == null || visitedObjects.add(reference);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.utils;
+
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.io.image.TiffImageData;
+import com.itextpdf.io.util.FutureUtil;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Converts multi-page TIFF images into PDF pages, one page per TIFF directory.
+ * <p>
+ * Pages are decoded on a thread pool if the parallelism is greater than 1, see {@link #setParallelism(int)}.
+ * Decoded pages are written into the document in their original order on the calling thread,
+ * so the document itself is never accessed concurrently.
+ * <p>
+ * By default the CCITT and JPEG compressed data of the single strip pages is written to PDF as is,
+ * since PDF supports these compressions natively, see {@link #setDirect(boolean)}.
+ */
+public class TiffConverter {
+
+    private PdfDocument pdfDocument;
+    private int parallelism = 1;
+    private boolean direct = true;
+    private boolean recoverFromImageError;
+    private boolean flushPages;
+
+    private long convertedPages;
+    private final AtomicLong decodingTime = new AtomicLong();
+    private long writingTime;
+    private long elapsedTime;
+
+    /**
+     * Creates a converter which adds the pages to the specified document.
+     *
+     * @param pdfDocument the document to which the converted pages will be added
+     */
+    public TiffConverter(PdfDocument pdfDocument) {
+        this.pdfDocument = pdfDocument;
+    }
+
+    /**
+     * Sets the maximum number of TIFF pages decoded concurrently. Default value - 1, i.e. the pages are decoded
+     * one by one on the calling thread. At most twice as many pages are decoded ahead of the page being written,
+     * so the memory usage doesn't depend on the number of pages in the image.
+     *
+     * @param parallelism the number of threads used for decoding, must be positive
+     * @return this {@code TiffConverter} instance
+     */
+    public TiffConverter setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive.");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets whether the compressed data of a page is written as is when PDF supports its compression.
+     * Default value - <i>true</i>. Otherwise bilevel pages are always re-encoded with CCITT Group 4.
+     *
+     * @param direct whether the supported compressed data is passed through
+     * @return this {@code TiffConverter} instance
+     */
+    public TiffConverter setDirect(boolean direct) {
+        this.direct = direct;
+        return this;
+    }
+
+    /**
+     * Sets whether the pages with corrupted data are converted as far as possible
+     * instead of failing the conversion. Default value - <i>false</i>.
+     *
+     * @param recoverFromImageError whether to recover from image errors
+     * @return this {@code TiffConverter} instance
+     */
+    public TiffConverter setRecoverFromImageError(boolean recoverFromImageError) {
+        this.recoverFromImageError = recoverFromImageError;
+        return this;
+    }
+
+    /**
+     * Sets whether each page is flushed together with its image right after it is written. Default value - <i>false</i>.
+     * Flushing keeps the memory usage low on large images, but the flushed pages cannot be modified anymore.
+     *
+     * @param flushPages whether to flush the converted pages
+     * @return this {@code TiffConverter} instance
+     */
+    public TiffConverter setFlushPages(boolean flushPages) {
+        this.flushPages = flushPages;
+        return this;
+    }
+
+    /**
+     * Converts all the pages of the TIFF image and adds them to the end of the document.
+     * The page size is defined by the image size and resolution.
+     *
+     * @param tiff the TIFF image
+     * @return the number of added pages
+     */
+    public int convert(byte[] tiff) {
+        long start = System.nanoTime();
+        int numberOfPages = TiffImageData.getNumberOfPages(tiff);
+        try {
+            if (parallelism > 1 && numberOfPages > 1) {
+                convertInParallel(tiff, numberOfPages);
+            } else {
+                for (int page = 1; page <= numberOfPages; page++) {
+                    writePage(decodePage(tiff, page));
+                }
+            }
+        } finally {
+            elapsedTime += System.nanoTime() - start;
+        }
+        return numberOfPages;
+    }
+
+    /**
+     * Gets the number of pages converted by this instance.
+     *
+     * @return the number of converted pages
+     */
+    public long getConvertedPages() {
+        return convertedPages;
+    }
+
+    /**
+     * Gets the total time spent on decoding the pages, in nanoseconds. When the pages are decoded in parallel,
+     * the time of all the decoding threads is summed up, so it may exceed the {@link #getElapsedTime() elapsed time}.
+     *
+     * @return the decoding time in nanoseconds
+     */
+    public long getDecodingTime() {
+        return decodingTime.get();
+    }
+
+    /**
+     * Gets the total time spent on writing the decoded pages into the document, in nanoseconds.
+     *
+     * @return the writing time in nanoseconds
+     */
+    public long getWritingTime() {
+        return writingTime;
+    }
+
+    /**
+     * Gets the total wall-clock time of the conversions, in nanoseconds.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * Gets the conversion throughput, i.e. the number of converted pages per second of the elapsed time.
+     *
+     * @return the number of pages converted per second
+     */
+    public double getPagesPerSecond() {
+        return elapsedTime == 0 ? 0 : convertedPages * 1e9 / elapsedTime;
+    }
+
+    private void convertInParallel(final byte[] tiff, int numberOfPages) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, numberOfPages));
+        try {
+            int maxPagesAhead = 2 * parallelism;
+            Deque<Future<ImageData>> decodedPages = new ArrayDeque<>(maxPagesAhead);
+            int nextPage = 1;
+            for (int page = 1; page <= numberOfPages; page++) {
+                while (nextPage <= numberOfPages && decodedPages.size() < maxPagesAhead) {
+                    final int pageToDecode = nextPage++;
+                    decodedPages.addLast(executor.submit(new Callable<ImageData>() {
+                        @Override
+                        public ImageData call() {
+                            return decodePage(tiff, pageToDecode);
+                        }
+                    }));
+                }
+                writePage(getDecodedPage(decodedPages.removeFirst()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ImageData decodePage(byte[] tiff, int page) {
+        long start = System.nanoTime();
+        ImageData image = ImageDataFactory.createTiff(tiff, recoverFromImageError, page, direct);
+        decodingTime.addAndGet(System.nanoTime() - start);
+        return image;
+    }
+
+    private static ImageData getDecodedPage(Future<ImageData> decodedPage) {
+        try {
+            return decodedPage.get();
+        } catch (ExecutionException e) {
+            // the failure is reported the same way as if the page was decoded on the current thread
+            throw new PdfException(FutureUtil.rethrowUnchecked(e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(e);
+        }
+    }
+
+    private void writePage(ImageData image) {
+        long start = System.nanoTime();
+        float width = image.getWidth();
+        float height = image.getHeight();
+        if (image.getDpiX() > 0) {
+            width = width * 72 / image.getDpiX();
+        }
+        if (image.getDpiY() > 0) {
+            height = height * 72 / image.getDpiY();
+        }
+        double cos = Math.cos(image.getRotation());
+        double sin = Math.sin(image.getRotation());
+        float a = (float) (width * cos);
+        float b = (float) (width * sin);
+        float c = (float) (-height * sin);
+        float d = (float) (height * cos);
+        // the rotated image is moved so that its bounding box starts at the origin of the page
+        float minX = Math.min(Math.min(0, a), Math.min(c, a + c));
+        float maxX = Math.max(Math.max(0, a), Math.max(c, a + c));
+        float minY = Math.min(Math.min(0, b), Math.min(d, b + d));
+        float maxY = Math.max(Math.max(0, b), Math.max(d, b + d));
+        PdfPage page = pdfDocument.addNewPage(new PageSize(maxX - minX, maxY - minY));
+        new PdfCanvas(page).addImage(image, a, b, c, d, -minX, -minY);
+        if (flushPages) {
+            page.flush(true);
+        }
+        convertedPages++;
+        writingTime += System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.font;
+
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.otf.GlyphLine;
+import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.kernel.pdf.PdfOutputStream;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Category(UnitTest.class)
+public class PdfType0FontTest extends ExtendedITextTest {
+
+    private static final String fontsFolder = "./src/test/resources/com/itextpdf/kernel/pdf/EncodingTest/";
+
+    private static final String TEXT = "Hello, World! Здравствуйте";
+
+    @Test
+    public void writeTextIdentityEncodingTest() throws IOException {
+        PdfFont font = PdfFontFactory.createFont(fontsFolder + "FreeSans.ttf", PdfEncodings.IDENTITY_H);
+        assertWriteText(font, TEXT);
+    }
+
+    @Test
+    public void writeTextCmapEncodingTest() throws IOException {
+        PdfFont font = PdfFontFactory.createFont("KozMinPro-Regular", "UniJIS-UCS2-H");
+        assertWriteText(font, "Hello あいう");
+    }
+
+    @Test
+    public void writeTextSharedFontTest() throws Exception {
+        final PdfFont font = PdfFontFactory.createFont(fontsFolder + "FreeSans.ttf", PdfEncodings.IDENTITY_H);
+        final String[] texts = {TEXT, "A", "Another text with another length"};
+        // the glyphs are marked as used here, so the threads below only write the text
+        final byte[][] expected = new byte[texts.length][];
+        for (int i = 0; i < texts.length; i++) {
+            expected[i] = writeTextAsBefore(font, font.createGlyphLine(texts[i]));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                final int textIndex = i % texts.length;
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws IOException {
+                        GlyphLine line = font.createGlyphLine(texts[textIndex]);
+                        for (int j = 0; j < 1000; j++) {
+                            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                            PdfOutputStream stream = new PdfOutputStream(baos);
+                            font.writeText(line, line.start, line.end - 1, stream);
+                            stream.flush();
+                            if (!Arrays.equals(expected[textIndex], baos.toByteArray())) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void assertWriteText(PdfFont font, String text) throws IOException {
+        GlyphLine line = font.createGlyphLine(text);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfOutputStream stream = new PdfOutputStream(baos);
+        font.writeText(line, line.start, line.end - 1, stream);
+        // a part of the line
+        font.writeText(line, line.start + 2, line.end - 3, stream);
+        // nothing is written for an empty range
+        font.writeText(line, line.start + 2, line.start + 1, stream);
+        stream.flush();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(writeTextAsBefore(font, line));
+        expected.write(writeTextAsBefore(font, new GlyphLine(line, line.start + 2, line.end - 2)));
+        Assert.assertArrayEquals(expected.toByteArray(), baos.toByteArray());
+    }
+
+    /**
+     * Writes the text the way {@link PdfType0Font#writeText(GlyphLine, int, int, PdfOutputStream)} did
+     * before the glyph codes were hexed directly.
+     */
+    private static byte[] writeTextAsBefore(PdfFont font, GlyphLine line) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfOutputStream stream = new PdfOutputStream(baos);
+        StreamUtil.writeHexedString(stream, font.convertToBytes(line));
+        stream.flush();
+        return baos.toByteArray();
+    }
+}
@@ -58,6 +58,7 @@ import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.util.MessageFormatUtil;
 import com.itextpdf.io.util.StreamUtil;
 import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.FontSubsetCache;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.font.PdfTrueTypeFont;
@@ -286,6 +287,121 @@ public class PdfFontTest extends ExtendedITextTest {
         Assert.assertNull(new CompareTool().compareByContent(filename, cmpFilename, destinationFolder, "diff_"));
     }
 
+    @Test
+    public void parallelFontSubsettingTest() throws IOException, InterruptedException {
+        String filename = destinationFolder + "parallelFontSubsettingTest.pdf";
+        String cmpFilename = sourceFolder + "cmp_parallelFontSubsettingTest.pdf";
+
+        PdfWriter writer = new PdfWriter(filename, new WriterProperties()
+                .setCompressionLevel(CompressionConstants.NO_COMPRESSION)
+                .setFontSubsettingParallelism(4));
+        PdfDocument pdfDoc = new PdfDocument(writer);
+        PdfFont[] fonts = new PdfFont[] {
+                PdfFontFactory.createFont(fontsFolder + "abserif4_5.ttf", PdfEncodings.IDENTITY_H),
+                PdfFontFactory.createFont(fontsFolder + "NotoSerif-Regular.ttf", PdfEncodings.IDENTITY_H),
+                PdfFontFactory.createFont(fontsFolder + "Puritan2.otf", PdfEncodings.IDENTITY_H),
+                PdfFontFactory.createFont(fontsFolder + "NotoSerif-Regular.ttf", PdfEncodings.WINANSI, true),
+                PdfFontFactory.createFont(fontsFolder + "Aller_Rg.ttf", PdfEncodings.WINANSI, true)
+        };
+        PdfCanvas canvas = new PdfCanvas(pdfDoc.addNewPage());
+        for (int i = 0; i < fonts.length; i++) {
+            canvas
+                    .saveState()
+                    .beginText()
+                    .moveText(36, 700 - 50 * i)
+                    .setFontAndSize(fonts[i], 24)
+                    .showText("Hello World " + i)
+                    .endText()
+                    .restoreState();
+        }
+        canvas.release();
+        pdfDoc.close();
+
+        Assert.assertNull(new CompareTool().compareByContent(filename, cmpFilename, destinationFolder, "diff_"));
+    }
+
+    @Test
+    public void fontSubsetCacheTest() throws IOException {
+        String[] filenames = new String[] {destinationFolder + "fontSubsetCacheTest01.pdf", destinationFolder + "fontSubsetCacheTest02.pdf"};
+        FontSubsetCache.setMaximumSize(8);
+        try {
+            for (String filename : filenames) {
+                PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename));
+                PdfFont type0Font = PdfFontFactory.createFont(fontsFolder + "abserif4_5.ttf", PdfEncodings.IDENTITY_H);
+                PdfFont trueTypeFont = PdfFontFactory.createFont(fontsFolder + "NotoSerif-Regular.ttf", PdfEncodings.WINANSI, true);
+                new PdfCanvas(pdfDoc.addNewPage())
+                        .beginText()
+                        .moveText(36, 700)
+                        .setFontAndSize(type0Font, 24)
+                        .showText("Hello World")
+                        .setFontAndSize(trueTypeFont, 24)
+                        .showText("Hello World")
+                        .endText()
+                        .release();
+                pdfDoc.close();
+            }
+        } finally {
+            FontSubsetCache.setMaximumSize(0);
+            FontSubsetCache.clear();
+        }
+
+        PdfDocument first = new PdfDocument(new PdfReader(filenames[0]));
+        PdfDocument second = new PdfDocument(new PdfReader(filenames[1]));
+        PdfDictionary firstFonts = first.getPage(1).getResources().getResource(PdfName.Font);
+        PdfDictionary secondFonts = second.getPage(1).getResources().getResource(PdfName.Font);
+        Assert.assertEquals(2, firstFonts.size());
+        for (PdfName fontName : firstFonts.keySet()) {
+            Assert.assertArrayEquals(getFontFileBytes(firstFonts.getAsDictionary(fontName)), getFontFileBytes(secondFonts.getAsDictionary(fontName)));
+        }
+        first.close();
+        second.close();
+    }
+
+    private static byte[] getFontFileBytes(PdfDictionary font) {
+        PdfArray descendantFonts = font.getAsArray(PdfName.DescendantFonts);
+        PdfDictionary fontDescriptor = descendantFonts != null
+                ? descendantFonts.getAsDictionary(0).getAsDictionary(PdfName.FontDescriptor)
+                : font.getAsDictionary(PdfName.FontDescriptor);
+        PdfStream fontFile = fontDescriptor.getAsStream(PdfName.FontFile2);
+        Assert.assertEquals(PdfName.FlateDecode, fontFile.getAsName(PdfName.Filter));
+        return fontFile.getBytes(false);
+    }
+
+    @Test
+    public void widthsOfAddedType3GlyphsTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        PdfType3Font type3 = PdfFontFactory.createType3Font(pdfDoc, false);
+        type3.addGlyph('A', 600, 0, 0, 600, 700);
+        Assert.assertEquals(600, type3.getWidth('A'));
+        Assert.assertEquals(0, type3.getWidth('E'));
+
+        type3.addGlyph('E', 500, 0, 0, 500, 700);
+        Assert.assertEquals(500, type3.getWidth('E'));
+        Assert.assertEquals(1100, type3.getWidth("AE"));
+        pdfDoc.addNewPage();
+        pdfDoc.close();
+    }
+
+    @Test
+    public void bulkWidthsTest() throws IOException {
+        PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        String text = "Hello, \u00e9t\u00e9 World";
+        int[] unicodes = new int[text.length()];
+        int expectedTotal = 0;
+        for (int i = 0; i < text.length(); i++) {
+            unicodes[i] = text.charAt(i);
+            expectedTotal += font.getWidth(text.charAt(i));
+        }
+        int[] widths = new int[unicodes.length - 2];
+        Assert.assertEquals(font.getWidth(text.substring(1, text.length() - 1)), font.getWidth(unicodes, 1, unicodes.length - 1, widths));
+        for (int i = 0; i < widths.length; i++) {
+            Assert.assertEquals(font.getWidth(unicodes[i + 1]), widths[i]);
+        }
+        Assert.assertEquals(expectedTotal, font.getWidth(unicodes, 0, unicodes.length, null));
+        Assert.assertEquals(expectedTotal, font.getWidth(new StringBuilder(text), 0, text.length()));
+        Assert.assertEquals(font.getWidth("World"), font.getWidth(text, text.length() - 5, text.length()));
+    }
+
     @Test
     public void createDocumentWithType3Font() throws IOException, InterruptedException {
         String filename = destinationFolder + "DocumentWithType3Font.pdf";
@@ -43,12 +43,19 @@
 package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObjectExtractor;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Category(IntegrationTest.class)
 public class PdfImageXObjectTest extends ExtendedITextTest {
 
@@ -106,4 +113,31 @@ public class PdfImageXObjectTest extends ExtendedITextTest {
         testFile("jbig2decode.pdf", 1, "2");
     }
 
+    @Test
+    public void extractImagesTest() throws Exception {
+        String[] files = {"multistagefilter1.pdf", "ASCII85_RunLengthDecode.pdf", "ccittfaxdecode.pdf",
+                "flatedecode_runlengthdecode.pdf", "dctdecode.pdf", "jbig2decode.pdf"};
+        for (String file : files) {
+            for (int parallelism = 1; parallelism <= 3; parallelism += 2) {
+                PdfDocument pdfDocument = new PdfDocument(new PdfReader(sourceFolder + file));
+                final Map<PdfImageXObject, ByteArrayOutputStream> extractedImages = new LinkedHashMap<>();
+                int numberOfImages = new PdfImageXObjectExtractor(pdfDocument).setParallelism(parallelism)
+                        .extract(new PdfImageXObjectExtractor.IImageOutputStreamProvider() {
+                            @Override
+                            public OutputStream getOutputStream(PdfImageXObject image, int pageNumber, PdfName name) throws IOException {
+                                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                                extractedImages.put(image, outputStream);
+                                return outputStream;
+                            }
+                        });
+                Assert.assertTrue(numberOfImages > 0);
+                Assert.assertEquals(numberOfImages, extractedImages.size());
+                for (Map.Entry<PdfImageXObject, ByteArrayOutputStream> entry : extractedImages.entrySet()) {
+                    Assert.assertArrayEquals(entry.getKey().getImageBytes(), entry.getValue().toByteArray());
+                }
+                pdfDocument.close();
+            }
+        }
+    }
+
 }
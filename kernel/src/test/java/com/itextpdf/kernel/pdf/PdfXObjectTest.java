@@ -46,12 +46,15 @@ import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.image.ImageData;
 import com.itextpdf.io.image.ImageDataFactory;
 import com.itextpdf.io.util.FileUtil;
+import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.io.util.UrlUtil;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.kernel.pdf.layer.PdfLayer;
 import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObjectCache;
 import com.itextpdf.kernel.utils.CompareTool;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
@@ -62,9 +65,13 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.List;
 
 @Category(IntegrationTest.class)
 public class PdfXObjectTest extends ExtendedITextTest{
@@ -183,4 +190,149 @@ public class PdfXObjectTest extends ExtendedITextTest{
 
     }
 
+    @Test
+    public void imageXObjectCacheTest() throws IOException, InterruptedException {
+        byte[][] images = new byte[][] {
+                StreamUtil.inputStreamToArray(new FileInputStream(sourceFolder + "itext.png")),
+                StreamUtil.inputStreamToArray(new FileInputStream(sourceFolder + "itext.bmp"))};
+        PdfImageXObjectCache cache = new PdfImageXObjectCache();
+        for (int i = 1; i <= 2; i++) {
+            String destinationDocument = destinationFolder + "imageXObjectCache" + i + ".pdf";
+            PdfDocument document = new PdfDocument(new PdfWriter(destinationDocument));
+            PdfImageXObjectCache.DocumentImages documentImages = cache.forDocument(document);
+            for (int pageNum = 0; pageNum < 2; pageNum++) {
+                PdfCanvas canvas = new PdfCanvas(document.addNewPage());
+                for (int j = 0; j < images.length; j++) {
+                    PdfImageXObject image = documentImages.getImageXObject(images[j]);
+                    Assert.assertSame(image, documentImages.getImageXObject(images[j].clone()));
+                    canvas.addXObject(image, 50 + 250 * j, 500, 200);
+                }
+                canvas.release();
+            }
+            document.close();
+
+            // the images are written the same way as without the cache
+            String referenceDocument = destinationFolder + "imageXObjectCacheReference" + i + ".pdf";
+            document = new PdfDocument(new PdfWriter(referenceDocument));
+            PdfImageXObject[] referenceImages = new PdfImageXObject[images.length];
+            for (int j = 0; j < images.length; j++) {
+                referenceImages[j] = new PdfImageXObject(ImageDataFactory.create(images[j]));
+            }
+            for (int pageNum = 0; pageNum < 2; pageNum++) {
+                PdfCanvas canvas = new PdfCanvas(document.addNewPage());
+                for (int j = 0; j < images.length; j++) {
+                    canvas.addXObject(referenceImages[j], 50 + 250 * j, 500, 200);
+                }
+                canvas.release();
+            }
+            document.close();
+
+            Assert.assertNull(new CompareTool().compareByContent(destinationDocument, referenceDocument, destinationFolder, "diff_"));
+            Assert.assertEquals(new File(referenceDocument).length(), new File(destinationDocument).length());
+        }
+        Assert.assertEquals(2, cache.getMisses());
+        Assert.assertEquals(14, cache.getHits());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void imageXObjectCacheDoesNotKeepDocumentTest() throws IOException, InterruptedException {
+        byte[] image = StreamUtil.inputStreamToArray(new FileInputStream(sourceFolder + "itext.png"));
+        PdfImageXObjectCache cache = new PdfImageXObjectCache();
+        WeakReference<PdfDocument> documentReference = addCachedImage(cache, image);
+        for (int i = 0; i < 10 && documentReference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(documentReference.get());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    private static WeakReference<PdfDocument> addCachedImage(PdfImageXObjectCache cache, byte[] image) {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        PdfCanvas canvas = new PdfCanvas(document.addNewPage());
+        canvas.addXObject(cache.forDocument(document).getImageXObject(image), 50, 500, 200);
+        canvas.release();
+        document.close();
+        return new WeakReference<>(document);
+    }
+
+    @Test
+    public void lazyImageXObjectTest() throws IOException, InterruptedException {
+        String[] images = new String[] {sourceFolder + "itext.png", sourceFolder + "itext.jpg"};
+        String destinationDocument = destinationFolder + "lazyImageXObject.pdf";
+        PdfDocument document = new PdfDocument(new PdfWriter(destinationDocument));
+        PdfCanvas canvas = new PdfCanvas(document.addNewPage());
+        for (int i = 0; i < images.length; i++) {
+            PdfImageXObject image = new PdfImageXObject(ImageDataFactory.createLazy(UrlUtil.toURL(images[i])));
+            // only the size of the image is known until the image is flushed
+            Assert.assertNull(image.getPdfObject().get(PdfName.Filter));
+            canvas.addXObject(image, 50, 500 - 200 * i, image.getWidth());
+        }
+        canvas.release();
+        document.close();
+
+        String referenceDocument = destinationFolder + "lazyImageXObjectReference.pdf";
+        document = new PdfDocument(new PdfWriter(referenceDocument));
+        canvas = new PdfCanvas(document.addNewPage());
+        for (int i = 0; i < images.length; i++) {
+            PdfImageXObject image = new PdfImageXObject(ImageDataFactory.create(images[i]));
+            canvas.addXObject(image, 50, 500 - 200 * i, image.getWidth());
+        }
+        canvas.release();
+        document.close();
+
+        Assert.assertNull(new CompareTool().compareByContent(destinationDocument, referenceDocument, destinationFolder, "diff_"));
+        Assert.assertEquals(new File(referenceDocument).length(), new File(destinationDocument).length());
+    }
+
+    @Test
+    public void lazyImageXObjectCopyToTest() throws IOException {
+        String[] images = new String[] {sourceFolder + "itext.png", sourceFolder + "itext.jpg"};
+        String destinationDocument = destinationFolder + "lazyImageXObjectCopyTo.pdf";
+        PdfDocument document = new PdfDocument(new PdfWriter(destinationDocument));
+        PdfCanvas canvas = new PdfCanvas(document.addNewPage());
+        for (int i = 0; i < images.length; i++) {
+            PdfImageXObject lazyImage = new PdfImageXObject(ImageDataFactory.createLazy(UrlUtil.toURL(images[i])));
+            PdfImageXObject image = lazyImage.copyTo(document);
+            PdfImageXObject eagerImage = new PdfImageXObject(ImageDataFactory.create(images[i]));
+            for (PdfName key : new PdfName[] {PdfName.Filter, PdfName.ColorSpace, PdfName.BitsPerComponent}) {
+                Assert.assertEquals(eagerImage.getPdfObject().get(key), image.getPdfObject().get(key));
+            }
+            Assert.assertArrayEquals(eagerImage.getPdfObject().getBytes(false), image.getPdfObject().getBytes(false));
+            canvas.addXObject(image, 50, 500 - 200 * i, image.getWidth());
+        }
+        canvas.release();
+        document.close();
+    }
+
+    @Test
+    public void jbig2PagesSharedGlobalsTest() throws IOException {
+        List<ImageData> pages = ImageDataFactory.createJbig2Pages(UrlUtil.toURL(sourceFolder + "pages.jb2"));
+        String destinationDocument = destinationFolder + "jbig2PagesSharedGlobals.pdf";
+        PdfDocument document = new PdfDocument(new PdfWriter(destinationDocument));
+        for (PdfImageXObject image : PdfImageXObject.createImageXObjects(pages)) {
+            PdfCanvas canvas = new PdfCanvas(document.addNewPage());
+            canvas.addXObject(image, 36, 36, image.getWidth());
+            canvas.release();
+        }
+        document.close();
+
+        document = new PdfDocument(new PdfReader(destinationDocument));
+        Assert.assertEquals(3, document.getNumberOfPages());
+        PdfIndirectReference globals = null;
+        for (int i = 1; i <= document.getNumberOfPages(); i++) {
+            PdfDictionary xObjects = document.getPage(i).getResources().getResource(PdfName.XObject);
+            PdfStream image = xObjects.getAsStream(xObjects.keySet().iterator().next());
+            Assert.assertEquals(PdfName.JBIG2Decode, image.getAsName(PdfName.Filter));
+            PdfStream pageGlobals = image.getAsDictionary(PdfName.DecodeParms).getAsStream(PdfName.JBIG2Globals);
+            if (globals == null) {
+                globals = pageGlobals.getIndirectReference();
+            }
+            // all the pages refer to the same globals stream
+            Assert.assertEquals(globals, pageGlobals.getIndirectReference());
+        }
+        Assert.assertEquals(51, ((PdfStream) globals.getRefersTo()).getBytes().length);
+        document.close();
+    }
 }
@@ -44,12 +44,14 @@ package com.itextpdf.kernel.pdf.canvas.parser;
 
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.pdf.canvas.parser.data.ClippingPathInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.IEventData;
 import com.itextpdf.kernel.pdf.canvas.parser.data.ImageRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.PathRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.data.TextRenderInfo;
 import com.itextpdf.kernel.pdf.canvas.parser.listener.IEventListener;
+import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfReader;
@@ -60,8 +62,12 @@ import com.itextpdf.test.annotations.type.IntegrationTest;
 import com.itextpdf.test.ExtendedITextTest;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
@@ -140,4 +146,60 @@ public class PdfCanvasProcessorTest extends ExtendedITextTest {
         }
     }
 
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.XREF_ERROR, count = 1))
+    public void fontsAreSharedBetweenProcessorsTest() throws IOException {
+        PdfDocument document = new PdfDocument(new PdfReader(sourceFolder + "yaxiststar.pdf"));
+
+        RecordFontsListener firstListener = new RecordFontsListener();
+        new PdfCanvasProcessor(firstListener).processPageContent(document.getPage(1));
+        RecordFontsListener secondListener = new RecordFontsListener();
+        new PdfCanvasProcessor(secondListener).processPageContent(document.getPage(1));
+
+        Assert.assertFalse(firstListener.fonts.isEmpty());
+        Assert.assertEquals(firstListener.fonts.size(), secondListener.fonts.size());
+        for (PdfFont font : firstListener.fonts) {
+            Assert.assertTrue(secondListener.fonts.contains(font));
+        }
+        Assert.assertSame(document.getDecodedFont(firstListener.fonts.get(0).getPdfObject()), firstListener.fonts.get(0));
+        document.close();
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.XREF_ERROR, count = 1))
+    public void decodedFontsAreKeptByDocumentTest() throws IOException {
+        PdfDocument document = new PdfDocument(new PdfReader(sourceFolder + "yaxiststar.pdf"));
+
+        RecordFontsListener listener = new RecordFontsListener();
+        new PdfCanvasProcessor(listener).processPageContent(document.getPage(1));
+        PdfFont font = listener.fonts.get(0);
+        PdfDictionary fontDictionary = font.getPdfObject();
+        WeakReference<PdfFont> fontRef = new WeakReference<>(font);
+        font = null;
+        listener = null;
+        System.gc();
+
+        // the font is not read again once the processor doesn't use it anymore
+        Assert.assertNotNull(fontRef.get());
+        Assert.assertSame(fontRef.get(), document.getDecodedFont(fontDictionary));
+        document.close();
+    }
+
+    private static class RecordFontsListener implements IEventListener {
+        private List<PdfFont> fonts = new ArrayList<>();
+
+        public void eventOccurred(IEventData data, EventType type) {
+            if (type == EventType.RENDER_TEXT) {
+                PdfFont font = ((TextRenderInfo) data).getFont();
+                if (!fonts.contains(font)) {
+                    fonts.add(font);
+                }
+            }
+        }
+
+        public Set<EventType> getSupportedEvents() {
+            return null;
+        }
+    }
+
 }
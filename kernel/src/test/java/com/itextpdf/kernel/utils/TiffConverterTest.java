@@ -0,0 +1,123 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.utils;
+
+import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(IntegrationTest.class)
+public class TiffConverterTest extends ExtendedITextTest {
+
+    public static final String sourceFolder = "./src/test/resources/com/itextpdf/kernel/utils/TiffConverterTest/";
+    public static final String destinationFolder = "./target/test/com/itextpdf/kernel/utils/TiffConverterTest/";
+
+    @BeforeClass
+    public static void beforeClass() {
+        createDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    public void convertMultipageTiffTest() throws IOException, InterruptedException {
+        String outFile = destinationFolder + "convertMultipageTiffTest.pdf";
+        String cmpFile = sourceFolder + "cmp_convertMultipageTiffTest.pdf";
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(outFile));
+        TiffConverter converter = new TiffConverter(pdfDoc);
+        Assert.assertEquals(3, converter.convert(readTiff()));
+        pdfDoc.close();
+
+        Assert.assertEquals(3, converter.getConvertedPages());
+        Assert.assertNull(new CompareTool().compareByContent(outFile, cmpFile, destinationFolder, "diff_"));
+    }
+
+    @Test
+    public void convertMultipageTiffInParallelTest() throws IOException, InterruptedException {
+        String outFile = destinationFolder + "convertMultipageTiffInParallelTest.pdf";
+        String cmpFile = sourceFolder + "cmp_convertMultipageTiffTest.pdf";
+
+        byte[] tiff = readTiff();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(outFile));
+        TiffConverter converter = new TiffConverter(pdfDoc).setParallelism(2).setFlushPages(true);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(3, converter.convert(tiff));
+        }
+        pdfDoc.close();
+
+        Assert.assertEquals(9, converter.getConvertedPages());
+        Assert.assertTrue(converter.getDecodingTime() > 0);
+        Assert.assertTrue(converter.getWritingTime() > 0);
+        Assert.assertTrue(converter.getElapsedTime() >= converter.getWritingTime());
+        Assert.assertTrue(converter.getPagesPerSecond() > 0);
+
+        // the pages are written in the order of the TIFF directories
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(outFile));
+        PdfDocument cmpDoc = new PdfDocument(new PdfReader(cmpFile));
+        Assert.assertEquals(9, resultDoc.getNumberOfPages());
+        for (int i = 1; i <= 9; i++) {
+            Assert.assertTrue(cmpDoc.getPage((i - 1) % 3 + 1).getPageSize().equalsWithEpsilon(resultDoc.getPage(i).getPageSize()));
+        }
+        resultDoc.close();
+        cmpDoc.close();
+    }
+
+    private static byte[] readTiff() throws IOException {
+        FileInputStream is = new FileInputStream(sourceFolder + "multipage.tiff");
+        try {
+            return StreamUtil.inputStreamToArray(is);
+        } finally {
+            is.close();
+        }
+    }
+}
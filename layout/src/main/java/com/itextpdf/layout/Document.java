@@ -180,12 +180,16 @@ public class Document extends RootElement<Document> {
      * account all its current child elements. May become very
      * resource-intensive for large documents.
      * <p>
-     * Do not use when you have set {@link #immediateFlush} to <code>true</code>.
+     * Do not use when you have set {@link #immediateFlush} to <code>true</code>, or when some pages have already
+     * been spilled, see {@link DocumentRenderer#DocumentRenderer(Document, boolean, boolean)}.
      */
     public void relayout() {
         if (immediateFlush) {
             throw new IllegalStateException("Operation not supported with immediate flush");
         }
+        if (rootRenderer instanceof DocumentRenderer && ((DocumentRenderer) rootRenderer).getLastSpilledPageNumber() > 0) {
+            throw new IllegalStateException("Operation not supported after finished pages have been spilled");
+        }
 
         IRenderer nextRelayoutRenderer = rootRenderer != null ? rootRenderer.getNextRenderer() : null;
         if (nextRelayoutRenderer == null || !(nextRelayoutRenderer instanceof RootRenderer)) {
@@ -202,6 +206,46 @@ public class Document extends RootElement<Document> {
         }
     }
 
+    /**
+     * Recalculates the document flow starting from the given child element. The layout results
+     * of the preceding elements are reused, and only the pages after the one where the given element
+     * starts are recreated. Use this after changing an element which was already added to the document,
+     * e.g. to update a "page X of Y" text, when the changes don't affect the preceding elements.
+     * <p>
+     * The layout state before each element is only recorded if it is enabled with
+     * {@link RootRenderer#setLayoutCheckpointsEnabled(boolean)} before the elements are added.
+     * If the layout state before the element is not recorded or cannot be restored (e.g. because of collapsing margins,
+     * floating or keep-with-next elements, or tagging), the entire document is laid out again,
+     * as with {@link #relayout()}. In particular, this is not possible if the element was placed on a page
+     * which has already been spilled, see {@link DocumentRenderer#DocumentRenderer(Document, boolean, boolean)}.
+     * <p>
+     * Do not use when you have set {@link #immediateFlush} to <code>true</code>.
+     *
+     * @param changedElement the first child element whose layout may have changed
+     */
+    public void relayout(IElement changedElement) {
+        if (immediateFlush) {
+            throw new IllegalStateException("Operation not supported with immediate flush");
+        }
+        int changedElementIndex = childElements.indexOf(changedElement);
+        if (changedElementIndex < 0) {
+            throw new IllegalArgumentException("The element is not a child of the document.");
+        }
+        int lastKeptPageNumber = rootRenderer != null ? rootRenderer.rollbackLayout(changedElementIndex) : -1;
+        if (lastKeptPageNumber < 0) {
+            relayout();
+            return;
+        }
+
+        while (pdfDocument.getNumberOfPages() > lastKeptPageNumber) {
+            pdfDocument.removePage(pdfDocument.getNumberOfPages());
+        }
+
+        for (int i = changedElementIndex; i < childElements.size(); i++) {
+            createAndAddRendererSubTree(childElements.get(i));
+        }
+    }
+
     /**
      * Gets the left margin, measured in points
      *
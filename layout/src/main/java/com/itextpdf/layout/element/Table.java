@@ -727,18 +727,25 @@ public class Table extends BlockElement<Table> implements ILargeElement {
         int firstRow = lastAddedRowGroups.get(0).startRow;
         int lastRow = lastAddedRowGroups.get(lastAddedRowGroups.size() - 1).finishRow;
 
-        List<IElement> toRemove = new ArrayList<>();
+        // Rebuild the lists instead of removing the flushed content element by element:
+        // the latter is quadratic in the number of rows in the window and large tables may have lots of them.
+        List<IElement> remainingChildElements = new ArrayList<>(childElements.size());
         for (IElement cell : childElements) {
-            if (((Cell) cell).getRow() >= firstRow && ((Cell) cell).getRow() <= lastRow) {
-                toRemove.add(cell);
+            if (((Cell) cell).getRow() < firstRow || ((Cell) cell).getRow() > lastRow) {
+                remainingChildElements.add(cell);
             }
         }
-        childElements.removeAll(toRemove);
+        childElements.clear();
+        childElements.addAll(remainingChildElements);
 
-        for (int i = 0; i < lastRow - firstRow; i++) {
-            rows.remove(firstRow - rowWindowStart);
+        List<Cell[]> remainingRows = new ArrayList<>(rows.size() - (lastRow - firstRow + 1));
+        for (int i = 0; i < rows.size(); i++) {
+            if (i < firstRow - rowWindowStart || i > lastRow - rowWindowStart) {
+                remainingRows.add(rows.get(i));
+            }
         }
-        lastAddedRow = rows.remove(firstRow - rowWindowStart);
+        lastAddedRow = rows.get(lastRow - rowWindowStart);
+        rows = remainingRows;
         rowWindowStart = lastAddedRowGroups.get(lastAddedRowGroups.size() - 1).getFinishRow() + 1;
 
         lastAddedRowGroups = null;
@@ -164,6 +164,7 @@ public final class Property {
     public static final int ROTATION_POINT_X = 58;
     public static final int ROTATION_POINT_Y = 59;
     public static final int ROWSPAN = 60;
+    public static final int SHAPED_GLYPH_LINE_CACHE = 114;
     public static final int SPACING_RATIO = 61;
     public static final int SPLIT_CHARACTERS = 62;
     public static final int STROKE_COLOR = 63;
@@ -199,7 +200,7 @@ public final class Property {
      * related to textual operations. Indicates whether or not this type of property is inheritable.
      */
     private static final boolean[] INHERITED_PROPERTIES;
-    private static final int MAX_INHERITED_PROPERTY_ID = 108;
+    private static final int MAX_INHERITED_PROPERTY_ID = 114;
 
     static {
         INHERITED_PROPERTIES = new boolean[MAX_INHERITED_PROPERTY_ID + 1];
@@ -224,6 +225,7 @@ public final class Property {
         INHERITED_PROPERTIES[Property.ITALIC_SIMULATION] = true;
         INHERITED_PROPERTIES[Property.KEEP_TOGETHER] = true;
         INHERITED_PROPERTIES[Property.LEADING] = true;
+        INHERITED_PROPERTIES[Property.SHAPED_GLYPH_LINE_CACHE] = true;
         INHERITED_PROPERTIES[Property.SPACING_RATIO] = true;
         INHERITED_PROPERTIES[Property.SPLIT_CHARACTERS] = true;
         INHERITED_PROPERTIES[Property.STROKE_COLOR] = true;
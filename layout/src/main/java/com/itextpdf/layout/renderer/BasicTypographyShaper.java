@@ -0,0 +1,219 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.TrueTypeFont;
+import com.itextpdf.io.font.otf.FeatureRecord;
+import com.itextpdf.io.font.otf.Glyph;
+import com.itextpdf.io.font.otf.GlyphLine;
+import com.itextpdf.io.font.otf.OpenTableLookup;
+import com.itextpdf.io.font.otf.OpenTypeFontTableReader;
+import com.itextpdf.layout.property.BaseDirection;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shaper used when no typography add-on is available.
+ * <p>
+ * It applies the script-independent GSUB features (ligatures, contextual alternates, glyph composition)
+ * and the GPOS mark positioning of the requested script, and the kerning from either the GPOS {@code kern}
+ * feature or the {@code kern} table. Script-specific processing, such as Arabic joining or Indic reordering,
+ * and bidirectional text are not supported, so {@link #getSupportedScripts()} is empty and layout does not
+ * try to autodetect scripts with this shaper, and the BiDi methods keep the text in logical order.
+ */
+final class BasicTypographyShaper implements ITypographyShaper {
+
+    private static final String DEFAULT_SCRIPT_TAG = "DFLT";
+    private static final String KERNING_FEATURE = "kern";
+
+    private static final String[] GSUB_FEATURES = {"ccmp", "locl", "rlig", "liga", "clig", "calt"};
+    private static final String[] GPOS_FEATURES = {"mark", "mkmk"};
+    private static final String[] GPOS_KERNING_FEATURES = {KERNING_FEATURE};
+
+    private static final Map<Character.UnicodeScript, String[]> SCRIPT_TAGS = new EnumMap<>(Character.UnicodeScript.class);
+
+    static {
+        SCRIPT_TAGS.put(Character.UnicodeScript.LATIN, new String[]{"latn"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.CYRILLIC, new String[]{"cyrl"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.GREEK, new String[]{"grek"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.ARMENIAN, new String[]{"armn"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.GEORGIAN, new String[]{"geor"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.HEBREW, new String[]{"hebr"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.ARABIC, new String[]{"arab"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.THAI, new String[]{"thai"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.LAO, new String[]{"lao "});
+        SCRIPT_TAGS.put(Character.UnicodeScript.HAN, new String[]{"hani"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.HIRAGANA, new String[]{"kana"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.KATAKANA, new String[]{"kana"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.HANGUL, new String[]{"hang"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.DEVANAGARI, new String[]{"dev2", "deva"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.BENGALI, new String[]{"bng2", "beng"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.GURMUKHI, new String[]{"gur2", "guru"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.GUJARATI, new String[]{"gjr2", "gujr"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.ORIYA, new String[]{"ory2", "orya"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.TAMIL, new String[]{"tml2", "taml"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.TELUGU, new String[]{"tel2", "telu"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.KANNADA, new String[]{"knd2", "knda"});
+        SCRIPT_TAGS.put(Character.UnicodeScript.MALAYALAM, new String[]{"mlm2", "mlym"});
+    }
+
+    @Override
+    public Collection<Character.UnicodeScript> getSupportedScripts() {
+        return Collections.<Character.UnicodeScript>emptyList();
+    }
+
+    @Override
+    public void applyOtfScript(TrueTypeFont fontProgram, GlyphLine text, Character.UnicodeScript script) {
+        String[] scriptTags = getScriptTags(script);
+        applyLookups(fontProgram.getGsubTable(), text, scriptTags, GSUB_FEATURES);
+        applyLookups(fontProgram.getGposTable(), text, scriptTags, GPOS_FEATURES);
+    }
+
+    @Override
+    public void applyKerning(FontProgram fontProgram, GlyphLine text) {
+        if (fontProgram instanceof TrueTypeFont) {
+            OpenTypeFontTableReader gposTable = ((TrueTypeFont) fontProgram).getGposTable();
+            if (applyLookups(gposTable, text, getScriptTags(null), GPOS_KERNING_FEATURES)) {
+                return;
+            }
+        }
+        for (int i = text.start; i < text.end - 1; i++) {
+            Glyph glyph = text.get(i);
+            int kerning = fontProgram.getKerning(glyph, text.get(i + 1));
+            if (kerning != 0) {
+                text.set(i, new Glyph(glyph, glyph.getXPlacement(), glyph.getYPlacement(),
+                        glyph.getXAdvance() + kerning, glyph.getYAdvance(), glyph.getAnchorDelta()));
+            }
+        }
+    }
+
+    @Override
+    public boolean isBidiSupported() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * BiDi is not supported, so no levels are resolved and the text is laid out in logical order.
+     *
+     * @return null
+     */
+    @Override
+    public byte[] getBidiLevels(BaseDirection baseDirection, int[] unicodeIds) {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * BiDi is not supported, so the visual order is the logical one.
+     */
+    @Override
+    public int[] computeReordering(byte[] lineLevels) {
+        int[] reordering = new int[lineLevels.length];
+        for (int i = 0; i < reordering.length; i++) {
+            reordering[i] = i;
+        }
+        return reordering;
+    }
+
+    @Override
+    public int[] inverseReordering(int[] reordering) {
+        int[] inverse = new int[reordering.length];
+        for (int i = 0; i < reordering.length; i++) {
+            inverse[reordering[i]] = i;
+        }
+        return inverse;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Bracket pairs are not known to this shaper, so the passed value is always returned.
+     */
+    @Override
+    public int getPairedBracket(int unicode) {
+        return unicode;
+    }
+
+    private static String[] getScriptTags(Character.UnicodeScript script) {
+        String[] tags = script != null ? SCRIPT_TAGS.get(script) : null;
+        if (tags == null) {
+            return new String[]{DEFAULT_SCRIPT_TAG, "latn"};
+        }
+        return tags;
+    }
+
+    /**
+     * Applies the lookups of the given features in the lookup list order.
+     *
+     * @return true if the table defines any of the features for the script
+     */
+    private static boolean applyLookups(OpenTypeFontTableReader table, GlyphLine text, String[] scriptTags, String[] featureTags) {
+        if (table == null) {
+            return false;
+        }
+        List<FeatureRecord> features = table.getFeatures(scriptTags, null);
+        if (features == null) {
+            return false;
+        }
+        List<FeatureRecord> specificFeatures = table.getSpecificFeatures(features, featureTags);
+        if (specificFeatures.isEmpty()) {
+            return false;
+        }
+        List<OpenTableLookup> lookups = table.getLookups(specificFeatures.toArray(new FeatureRecord[specificFeatures.size()]));
+        for (OpenTableLookup lookup : lookups) {
+            if (lookup != null) {
+                lookup.transformLine(text);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.TrueTypeFont;
+import com.itextpdf.io.font.otf.GlyphLine;
+import com.itextpdf.io.util.MessageFormatUtil;
+import com.itextpdf.layout.property.BaseDirection;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adapter for pdfCalligraph versions which do not provide an {@link ITypographyShaper} service.
+ * All the members are looked up once, when the adapter is created, so that shaping a text run
+ * costs a single {@link Method#invoke(Object, Object...)} without any map lookups.
+ */
+final class CalligraphTypographyShaper implements ITypographyShaper {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalligraphTypographyShaper.class);
+
+    private static final String TYPOGRAPHY_PACKAGE = "com.itextpdf.typography.";
+
+    private static final String SHAPER = "shaping.Shaper";
+    private static final String BIDI_CHARACTER_MAP = "bidi.BidiCharacterMap";
+    private static final String BIDI_BRACKET_MAP = "bidi.BidiBracketMap";
+    private static final String BIDI_ALGORITHM = "bidi.BidiAlgorithm";
+
+    private final Method applyOtfScript;
+    private final Method applyKerning;
+    private final Method getSupportedScripts;
+    private final Method getCharacterTypes;
+    private final Method getBracketTypes;
+    private final Method getBracketValues;
+    private final Method getPairedBracket;
+    private final Constructor<?> bidiAlgorithmConstructor;
+    private final Method getLevels;
+    private final Method computeReordering;
+    private final Method inverseReordering;
+
+    private CalligraphTypographyShaper(Class<?> shaper) throws ClassNotFoundException, NoSuchMethodException {
+        Class<?> bidiCharacterMap = Class.forName(TYPOGRAPHY_PACKAGE + BIDI_CHARACTER_MAP);
+        Class<?> bidiBracketMap = Class.forName(TYPOGRAPHY_PACKAGE + BIDI_BRACKET_MAP);
+        Class<?> bidiAlgorithm = Class.forName(TYPOGRAPHY_PACKAGE + BIDI_ALGORITHM);
+
+        applyOtfScript = shaper.getMethod("applyOtfScript", TrueTypeFont.class, GlyphLine.class, Character.UnicodeScript.class);
+        applyKerning = shaper.getMethod("applyKerning", FontProgram.class, GlyphLine.class);
+        getSupportedScripts = shaper.getMethod("getSupportedScripts");
+        getCharacterTypes = bidiCharacterMap.getMethod("getCharacterTypes", int[].class, int.class, int.class);
+        getBracketTypes = bidiBracketMap.getMethod("getBracketTypes", int[].class, int.class, int.class);
+        getBracketValues = bidiBracketMap.getMethod("getBracketValues", int[].class, int.class, int.class);
+        getPairedBracket = bidiBracketMap.getMethod("getPairedBracket", int.class);
+        bidiAlgorithmConstructor = bidiAlgorithm.getConstructor(byte[].class, byte[].class, int[].class, byte.class);
+        getLevels = bidiAlgorithm.getMethod("getLevels", int[].class);
+        computeReordering = bidiAlgorithm.getMethod("computeReordering", byte[].class);
+        inverseReordering = bidiAlgorithm.getMethod("inverseReordering", int[].class);
+    }
+
+    /**
+     * Creates the adapter if pdfCalligraph is available on the class path.
+     *
+     * An incompatible pdfCalligraph version is reported with a warning and treated as a missing one.
+     *
+     * @return the adapter, or null if a compatible pdfCalligraph cannot be found
+     */
+    static CalligraphTypographyShaper createIfAvailable() {
+        Class<?> shaper;
+        try {
+            shaper = Class.forName(TYPOGRAPHY_PACKAGE + SHAPER);
+        } catch (ClassNotFoundException ignored) {
+            return null;
+        }
+        try {
+            return new CalligraphTypographyShaper(shaper);
+        } catch (ClassNotFoundException e) {
+            logger.warn(MessageFormatUtil.format("Cannot find class {0}", e.getMessage()));
+        } catch (NoSuchMethodException e) {
+            logger.warn(MessageFormatUtil.format("Cannot find method {0}", e.getMessage()));
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Collection<Character.UnicodeScript> getSupportedScripts() {
+        return (Collection<Character.UnicodeScript>) invoke(getSupportedScripts, null);
+    }
+
+    @Override
+    public void applyOtfScript(TrueTypeFont fontProgram, GlyphLine text, Character.UnicodeScript script) {
+        invoke(applyOtfScript, null, fontProgram, text, script);
+    }
+
+    @Override
+    public void applyKerning(FontProgram fontProgram, GlyphLine text) {
+        invoke(applyKerning, null, fontProgram, text);
+    }
+
+    @Override
+    public boolean isBidiSupported() {
+        return true;
+    }
+
+    @Override
+    public byte[] getBidiLevels(BaseDirection baseDirection, int[] unicodeIds) {
+        byte direction;
+        switch (baseDirection) {
+            case LEFT_TO_RIGHT:
+                direction = 0;
+                break;
+            case RIGHT_TO_LEFT:
+                direction = 1;
+                break;
+            case DEFAULT_BIDI:
+            default:
+                direction = 2;
+                break;
+        }
+
+        int len = unicodeIds.length;
+        byte[] types = (byte[]) invoke(getCharacterTypes, null, unicodeIds, 0, len);
+        byte[] pairTypes = (byte[]) invoke(getBracketTypes, null, unicodeIds, 0, len);
+        int[] pairValues = (int[]) invoke(getBracketValues, null, unicodeIds, 0, len);
+        Object bidiReorder;
+        try {
+            bidiReorder = bidiAlgorithmConstructor.newInstance(types, pairTypes, pairValues, direction);
+        } catch (Exception e) {
+            throw new RuntimeException(e.toString(), e);
+        }
+        return (byte[]) invoke(getLevels, bidiReorder, new int[]{len});
+    }
+
+    @Override
+    public int[] computeReordering(byte[] lineLevels) {
+        return (int[]) invoke(computeReordering, null, lineLevels);
+    }
+
+    @Override
+    public int[] inverseReordering(int[] reordering) {
+        return (int[]) invoke(inverseReordering, null, reordering);
+    }
+
+    @Override
+    public int getPairedBracket(int unicode) {
+        return (int) invoke(getPairedBracket, null, unicode);
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e.getCause().toString(), e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e.toString(), e);
+        }
+    }
+}
@@ -196,7 +196,7 @@ class CollapsedTableBorders extends TableBorders {
     public List<Border> getHorizontalBorder(int index) {
         if (index == startRow) {
             List<Border> firstBorderOnCurrentPage = TableBorderUtil.createAndFillBorderList(topBorderCollapseWith, tableBoundingBorders[0], numberOfColumns);
-            if (index == largeTableIndexOffset) {
+            if (index == largeTableWindowStart) {
                 return getCollapsedList(horizontalBorders.get(index - largeTableIndexOffset), firstBorderOnCurrentPage);
             }
             if (0 != rows.size()) {
@@ -217,7 +217,7 @@ class CollapsedTableBorders extends TableBorders {
                         row = index;
                     } else {
                         row++;
-                        if (row == rows.size()) {
+                        if (row - largeTableIndexOffset == rows.size()) {
                             break;
                         }
                     }
@@ -247,7 +247,7 @@ class CollapsedTableBorders extends TableBorders {
                         row = index - 1;
                     } else {
                         row++;
-                        if (row == rows.size()) {
+                        if (row - largeTableIndexOffset == rows.size()) {
                             break;
                         }
                     }
@@ -46,6 +46,7 @@ package com.itextpdf.layout.renderer;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfStream;
 import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.borders.Border;
@@ -65,14 +66,39 @@ public class DocumentRenderer extends RootRenderer {
 
     protected Document document;
     protected List<Integer> wrappedContentPage = new ArrayList<>();
+    protected boolean spillFinishedPages;
+    private int lastSpilledPageNumber;
 
     public DocumentRenderer(Document document) {
         this(document, true);
     }
 
     public DocumentRenderer(Document document, boolean immediateFlush) {
+        this(document, immediateFlush, false);
+    }
+
+    /**
+     * Creates a document renderer.
+     * <p>
+     * If immediate flush is disabled, all the laid out content is normally kept in memory until the document is closed,
+     * so that it can be changed and laid out again. With <code>spillFinishedPages</code> set to true, the content
+     * of the finished pages (all but the current and the previous one) is drawn and its content streams are written
+     * to the output right away, while the pages themselves are kept open. The renderers of such pages
+     * are released and the memory consumption no longer grows with the number of pages. The spilled pages are final:
+     * {@link Document#relayout(com.itextpdf.layout.element.IElement)} can only resume the layout on a page which
+     * is not spilled yet, and the entire document cannot be laid out again with {@link Document#relayout()}.
+     * <p>
+     * Spilling is ignored for tagged documents and for documents opened in stamping mode.
+     *
+     * @param document           the document to be rendered
+     * @param immediateFlush     whether the content is drawn and the pages are flushed as soon as possible
+     * @param spillFinishedPages whether the content of the finished pages is written to the output
+     *                           if immediate flush is disabled
+     */
+    public DocumentRenderer(Document document, boolean immediateFlush, boolean spillFinishedPages) {
         this.document = document;
         this.immediateFlush = immediateFlush;
+        this.spillFinishedPages = spillFinishedPages;
         this.modelElement = document;
     }
 
@@ -88,7 +114,19 @@ public class DocumentRenderer extends RootRenderer {
      */
     @Override
     public IRenderer getNextRenderer() {
-        return new DocumentRenderer(document, immediateFlush);
+        DocumentRenderer nextRenderer = new DocumentRenderer(document, immediateFlush, spillFinishedPages);
+        nextRenderer.setLayoutCheckpointsEnabled(isLayoutCheckpointsEnabled());
+        return nextRenderer;
+    }
+
+    /**
+     * Gets the number of the last page whose content has been written to the output,
+     * see {@link #DocumentRenderer(Document, boolean, boolean)}.
+     *
+     * @return the number of the last spilled page, or 0 if no pages have been spilled
+     */
+    public int getLastSpilledPageNumber() {
+        return lastSpilledPageNumber;
     }
 
     protected LayoutArea updateCurrentArea(LayoutResult overflowResult) {
@@ -169,7 +207,30 @@ public class DocumentRenderer extends RootRenderer {
         // of keepTogether property.
         if (immediateFlush && currentPageNumber > 1) {
             document.getPdfDocument().getPage(currentPageNumber - 1).flush();
+        } else if (spillFinishedPages && currentPageNumber > 1) {
+            spillPages(currentPageNumber - 1);
         }
         currentPageNumber++;
     }
+
+    /**
+     * Draws the content of the pages up to the given one and writes their content streams to the output.
+     */
+    private void spillPages(int lastPageNumber) {
+        PdfDocument pdfDocument = document.getPdfDocument();
+        if (pdfDocument.isTagged() || pdfDocument.getReader() != null) {
+            return;
+        }
+        flushChildRenderersUpToPage(lastPageNumber);
+        for (int pageNum = lastSpilledPageNumber + 1; pageNum <= lastPageNumber && pageNum <= pdfDocument.getNumberOfPages(); pageNum++) {
+            PdfPage page = pdfDocument.getPage(pageNum);
+            for (int i = 0; i < page.getContentStreamCount(); i++) {
+                PdfStream contentStream = page.getContentStream(i);
+                if (contentStream != null && contentStream.getIndirectReference() != null) {
+                    contentStream.flush();
+                }
+            }
+            lastSpilledPageNumber = pageNum;
+        }
+    }
 }
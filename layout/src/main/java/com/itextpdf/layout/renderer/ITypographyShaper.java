@@ -0,0 +1,128 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.TrueTypeFont;
+import com.itextpdf.io.font.otf.GlyphLine;
+import com.itextpdf.layout.property.BaseDirection;
+
+import java.util.Collection;
+
+/**
+ * Shaping and BiDi service used by layout for complex scripts and kerning.
+ * <p>
+ * Implementations are discovered once per class loader with {@link java.util.ServiceLoader},
+ * i.e. they should be listed in {@code META-INF/services/com.itextpdf.layout.renderer.ITypographyShaper}
+ * and have a public no-argument constructor. Implementations must be thread-safe, since a single instance
+ * is shared by all the renderers.
+ */
+public interface ITypographyShaper {
+
+    /**
+     * Gets the scripts which can be shaped by this implementation. Layout uses this collection
+     * to autodetect the script of a text when {@link com.itextpdf.layout.property.Property#FONT_SCRIPT} is not set.
+     *
+     * @return the collection of supported scripts
+     */
+    Collection<Character.UnicodeScript> getSupportedScripts();
+
+    /**
+     * Applies the OpenType features of the given script to the glyph line.
+     *
+     * @param fontProgram the font containing GSUB and GPOS tables
+     * @param text        the glyph line to be modified
+     * @param script      the script of the text
+     */
+    void applyOtfScript(TrueTypeFont fontProgram, GlyphLine text, Character.UnicodeScript script);
+
+    /**
+     * Applies kerning to the glyph line.
+     *
+     * @param fontProgram the font of the text
+     * @param text        the glyph line to be modified
+     */
+    void applyKerning(FontProgram fontProgram, GlyphLine text);
+
+    /**
+     * Checks whether {@link #getBidiLevels(BaseDirection, int[])}, {@link #computeReordering(byte[])},
+     * {@link #inverseReordering(int[])} and {@link #getPairedBracket(int)} are implemented.
+     *
+     * @return true if the implementation supports bidirectional text
+     */
+    boolean isBidiSupported();
+
+    /**
+     * Resolves the embedding levels of the characters of a paragraph.
+     *
+     * @param baseDirection the base direction of the paragraph
+     * @param unicodeIds    the unicode values of the characters
+     * @return the embedding level of each character
+     */
+    byte[] getBidiLevels(BaseDirection baseDirection, int[] unicodeIds);
+
+    /**
+     * Computes the visual order of the characters of a line.
+     *
+     * @param lineLevels the embedding levels of the characters of the line
+     * @return the logical index of the character at each visual position
+     */
+    int[] computeReordering(byte[] lineLevels);
+
+    /**
+     * Inverts the reordering computed by {@link #computeReordering(byte[])}.
+     *
+     * @param reordering the reordering to be inverted
+     * @return the visual position of each logical index
+     */
+    int[] inverseReordering(int[] reordering);
+
+    /**
+     * Gets the mirrored counterpart of a bracket character.
+     *
+     * @param unicode the unicode value of the character
+     * @return the paired bracket, or the passed value if the character is not a bracket
+     */
+    int getPairedBracket(int unicode);
+}
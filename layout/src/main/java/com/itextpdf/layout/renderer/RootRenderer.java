@@ -74,8 +74,30 @@ public abstract class RootRenderer extends AbstractRenderer {
     private LayoutArea initialCurrentArea;
     private List<Rectangle> floatRendererAreas;
     private List<IRenderer> waitingNextPageRenderers = new ArrayList<>();
+    private boolean layoutCheckpointsEnabled;
+    private List<LayoutCheckpoint> layoutCheckpoints = new ArrayList<>();
+    private int firstCheckpointChildIndex;
+    private int addedChildrenCount;
+    private int addChildDepth;
+    private int lastPageWithDrawnContent;
+    private int flushedChildRenderersCount;
 
     public void addChild(IRenderer renderer) {
+        if (addChildDepth == 0) {
+            if (layoutCheckpointsEnabled && !immediateFlush) {
+                layoutCheckpoints.add(createLayoutCheckpoint());
+            }
+            addedChildrenCount++;
+        }
+        addChildDepth++;
+        try {
+            addChildToLayout(renderer);
+        } finally {
+            addChildDepth--;
+        }
+    }
+
+    private void addChildToLayout(IRenderer renderer) {
         LayoutTaggingHelper taggingHelper = this.<LayoutTaggingHelper>getProperty(Property.TAGGING_HELPER);
         if (taggingHelper != null) {
             LayoutTaggingHelper.addTreeHints(taggingHelper, renderer);
@@ -285,6 +307,11 @@ public abstract class RootRenderer extends AbstractRenderer {
         for (IRenderer resultRenderer : positionedRenderers) {
             flushSingleRenderer(resultRenderer);
         }
+        if (!immediateFlush) {
+            flushedChildRenderersCount += childRenderers.size();
+            lastPageWithDrawnContent = Math.max(lastPageWithDrawnContent, currentPageNumber);
+            discardLayoutCheckpoints();
+        }
         childRenderers.clear();
         positionedRenderers.clear();
     }
@@ -320,6 +347,78 @@ public abstract class RootRenderer extends AbstractRenderer {
         throw new IllegalStateException("Layout is not supported for root renderers.");
     }
 
+    /**
+     * Checks whether the state of the root renderer is recorded before each top-level child is laid out,
+     * see {@link #setLayoutCheckpointsEnabled(boolean)}.
+     *
+     * @return true if the layout can be rolled back with {@link #rollbackLayout(int)}
+     */
+    public boolean isLayoutCheckpointsEnabled() {
+        return layoutCheckpointsEnabled;
+    }
+
+    /**
+     * Enables or disables recording of the state of the root renderer before each top-level child is laid out.
+     * The recorded states are needed to roll back the layout with {@link #rollbackLayout(int)}, but they cost
+     * memory and time for every added child, so recording is disabled by default. Only applicable if immediate flush
+     * is disabled. Recording starts with the next added child, i.e. the layout cannot be rolled back to the children
+     * which have already been added.
+     *
+     * @param layoutCheckpointsEnabled whether the layout states should be recorded
+     */
+    public void setLayoutCheckpointsEnabled(boolean layoutCheckpointsEnabled) {
+        if (layoutCheckpointsEnabled != this.layoutCheckpointsEnabled) {
+            this.layoutCheckpointsEnabled = layoutCheckpointsEnabled;
+            discardLayoutCheckpoints();
+        }
+    }
+
+    /**
+     * Discards the layout results of the top-level child with the given index and of all the following ones,
+     * so that they can be laid out again starting from the same position. The results of the preceding children
+     * are kept as they are. Only applicable if immediate flush is disabled and the state before the child
+     * was recorded, see {@link #setLayoutCheckpointsEnabled(boolean)}.
+     * <p>
+     * Rolling back is not possible if the state of the root renderer before the child cannot be restored,
+     * e.g. if margins collapsing is enabled, if there were floating or keep-with-next elements waiting to be placed,
+     * or if some content has already been drawn on the page where the child was placed, see also
+     * {@link #flushChildRenderersUpToPage(int)}.
+     *
+     * @param childIndex the index of the top-level child in the order the children were added
+     * @return the number of the page the layout will be continued on, i.e. the content of the following pages
+     * is not needed anymore, or -1 if the layout cannot be rolled back and the whole content has to be laid out again
+     */
+    public int rollbackLayout(int childIndex) {
+        int checkpointIndex = childIndex - firstCheckpointChildIndex;
+        if (immediateFlush || checkpointIndex < 0 || checkpointIndex >= layoutCheckpoints.size()) {
+            return -1;
+        }
+        LayoutCheckpoint checkpoint = layoutCheckpoints.get(checkpointIndex);
+        // the pages after the one of the checkpoint are expected to be recreated, but the content drawn on that page can't be taken back
+        if (checkpoint == null || lastPageWithDrawnContent > 0 && lastPageWithDrawnContent >= checkpoint.currentPageNumber
+                || checkpoint.childRenderersCount < flushedChildRenderersCount) {
+            return -1;
+        }
+        List<IRenderer> keptChildRenderers = new ArrayList<>(childRenderers.subList(0, checkpoint.childRenderersCount - flushedChildRenderersCount));
+        childRenderers.clear();
+        childRenderers.addAll(keptChildRenderers);
+        List<IRenderer> keptPositionedRenderers = new ArrayList<>(positionedRenderers.subList(0, checkpoint.positionedRenderersCount));
+        positionedRenderers.clear();
+        positionedRenderers.addAll(keptPositionedRenderers);
+        layoutCheckpoints.subList(checkpointIndex, layoutCheckpoints.size()).clear();
+        addedChildrenCount = childIndex;
+
+        currentArea = checkpoint.currentArea == null ? null : (RootLayoutArea) checkpoint.currentArea.clone();
+        initialCurrentArea = checkpoint.initialCurrentArea == null ? null : checkpoint.initialCurrentArea.clone();
+        currentPageNumber = checkpoint.currentPageNumber;
+        floatRendererAreas = cloneAreas(checkpoint.floatRendererAreas);
+        waitingDrawingElements.clear();
+        waitingNextPageRenderers.clear();
+        keepWithNextHangingRenderer = null;
+        keepWithNextHangingRendererLayoutResult = null;
+        return currentPageNumber;
+    }
+
     public LayoutArea getCurrentArea() {
         if (currentArea == null) {
             updateCurrentAndInitialArea(null);
@@ -331,9 +430,42 @@ public abstract class RootRenderer extends AbstractRenderer {
 
     protected abstract LayoutArea updateCurrentArea(LayoutResult overflowResult);
 
+    /**
+     * Draws the result renderers laid out on the pages up to the given one and releases them, so that the renderer trees
+     * of the finished pages are not kept in memory until {@link #close()}. Only applicable if immediate flush is disabled.
+     * The layout cannot be rolled back to the children placed on these pages anymore.
+     *
+     * @param pageNumber the number of the last page whose result renderers are drawn
+     */
+    protected void flushChildRenderersUpToPage(int pageNumber) {
+        if (immediateFlush) {
+            return;
+        }
+        int count = 0;
+        while (count < childRenderers.size()) {
+            LayoutArea occupiedArea = childRenderers.get(count).getOccupiedArea();
+            if (occupiedArea != null && occupiedArea.getPageNumber() > pageNumber) {
+                break;
+            }
+            count++;
+        }
+        for (int i = 0; i < count; i++) {
+            flushSingleRenderer(childRenderers.get(i));
+        }
+        List<IRenderer> notFlushedChildRenderers = new ArrayList<>(childRenderers.subList(count, childRenderers.size()));
+        childRenderers.clear();
+        childRenderers.addAll(notFlushedChildRenderers);
+        flushedChildRenderersCount += count;
+        lastPageWithDrawnContent = Math.max(lastPageWithDrawnContent, pageNumber);
+        pruneLayoutCheckpoints();
+    }
+
     protected void flushWaitingDrawingElements() {
         for (int i = 0; i < waitingDrawingElements.size(); ++i) {
             IRenderer waitingDrawingElement = waitingDrawingElements.get(i);
+            if (!immediateFlush && waitingDrawingElement.getOccupiedArea() != null) {
+                lastPageWithDrawnContent = Math.max(lastPageWithDrawnContent, waitingDrawingElement.getOccupiedArea().getPageNumber());
+            }
             flushSingleRenderer(waitingDrawingElement);
         }
         waitingDrawingElements.clear();
@@ -463,4 +595,71 @@ public abstract class RootRenderer extends AbstractRenderer {
             addChild(renderer);
         }
     }
+
+    /**
+     * Drops the recorded layout states, so that the layout can only be rolled back to the children added afterwards.
+     */
+    private void discardLayoutCheckpoints() {
+        layoutCheckpoints.clear();
+        firstCheckpointChildIndex = addedChildrenCount;
+    }
+
+    /**
+     * Drops the recorded layout states of the children placed on the pages with drawn content, since they cannot be
+     * restored anymore. The states of the following children are kept.
+     */
+    private void pruneLayoutCheckpoints() {
+        int count = 0;
+        while (count < layoutCheckpoints.size()) {
+            LayoutCheckpoint checkpoint = layoutCheckpoints.get(count);
+            if (checkpoint != null && checkpoint.currentPageNumber > lastPageWithDrawnContent
+                    && checkpoint.childRenderersCount >= flushedChildRenderersCount) {
+                break;
+            }
+            count++;
+        }
+        layoutCheckpoints.subList(0, count).clear();
+        firstCheckpointChildIndex += count;
+    }
+
+    /**
+     * Remembers the state of the root renderer before a top-level child is laid out.
+     *
+     * @return the state, or null if it cannot be restored later
+     */
+    private LayoutCheckpoint createLayoutCheckpoint() {
+        boolean marginsCollapsingEnabled = Boolean.TRUE.equals(getPropertyAsBoolean(Property.COLLAPSING_MARGINS));
+        if (marginsCollapsingEnabled || keepWithNextHangingRenderer != null || !waitingNextPageRenderers.isEmpty()
+                || !waitingDrawingElements.isEmpty() || this.<LayoutTaggingHelper>getProperty(Property.TAGGING_HELPER) != null) {
+            return null;
+        }
+        LayoutCheckpoint checkpoint = new LayoutCheckpoint();
+        checkpoint.childRenderersCount = flushedChildRenderersCount + childRenderers.size();
+        checkpoint.positionedRenderersCount = positionedRenderers.size();
+        checkpoint.currentArea = currentArea == null ? null : (RootLayoutArea) currentArea.clone();
+        checkpoint.initialCurrentArea = initialCurrentArea == null ? null : initialCurrentArea.clone();
+        checkpoint.currentPageNumber = currentPageNumber;
+        checkpoint.floatRendererAreas = cloneAreas(floatRendererAreas);
+        return checkpoint;
+    }
+
+    private static List<Rectangle> cloneAreas(List<Rectangle> areas) {
+        if (areas == null) {
+            return null;
+        }
+        List<Rectangle> clone = new ArrayList<>(areas.size());
+        for (Rectangle area : areas) {
+            clone.add(area.clone());
+        }
+        return clone;
+    }
+
+    private static class LayoutCheckpoint {
+        int childRenderersCount;
+        int positionedRenderersCount;
+        RootLayoutArea currentArea;
+        LayoutArea initialCurrentArea;
+        int currentPageNumber;
+        List<Rectangle> floatRendererAreas;
+    }
 }
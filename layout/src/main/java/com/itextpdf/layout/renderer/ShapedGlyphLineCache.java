@@ -0,0 +1,247 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.otf.Glyph;
+import com.itextpdf.io.font.otf.GlyphLine;
+import com.itextpdf.io.util.LruCache;
+
+
+/**
+ * A bounded cache of shaped text runs, i.e. of the {@link GlyphLine glyph lines} which are the result of converting
+ * a text to glyphs and applying OpenType features (script-specific substitutions and positioning, kerning) to them.
+ * <p>
+ * Documents often repeat the same labels and numbers many times. With the cache set as
+ * {@link com.itextpdf.layout.property.Property#SHAPED_GLYPH_LINE_CACHE} property (usually on the
+ * {@link com.itextpdf.layout.Document}), a {@link TextRenderer} which has the same text, font program, encoding, script
+ * and kerning settings as an already shaped one reuses its result and skips conversion and shaping altogether.
+ * <p>
+ * Cached runs are keyed by {@link FontProgram} rather than by {@link com.itextpdf.kernel.font.PdfFont}, so
+ * a single cache instance may be shared across documents (and threads) which use the same cached font programs.
+ * When the maximum size is reached, the least recently used runs are evicted.
+ */
+public class ShapedGlyphLineCache {
+
+    /**
+     * The default maximum number of shaped runs kept in the cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    private final LruCache<Key, ShapedRun> cache;
+
+    /**
+     * Creates a cache which keeps at most {@link #DEFAULT_MAX_SIZE} shaped runs.
+     */
+    public ShapedGlyphLineCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a cache which keeps at most the specified number of shaped runs.
+     *
+     * @param maxSize the maximum number of shaped runs, must be positive
+     */
+    public ShapedGlyphLineCache(int maxSize) {
+        this.cache = new LruCache<>(maxSize);
+    }
+
+    /**
+     * Gets the maximum number of shaped runs kept in the cache.
+     *
+     * @return the maximum size of the cache
+     */
+    public int getMaxSize() {
+        return cache.getMaxSize();
+    }
+
+    /**
+     * Gets the number of shaped runs currently kept in the cache.
+     *
+     * @return the current size of the cache
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * Gets the number of lookups which have been served from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return cache.getHits();
+    }
+
+    /**
+     * Gets the number of lookups which have not been served from the cache and required shaping.
+     *
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return cache.getMisses();
+    }
+
+    /**
+     * Removes all the shaped runs from the cache.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Looks up the shaped run. The returned glyph line is a copy which can be freely modified by the caller.
+     *
+     * @return the found shaped run or {@code null} if there is no such run in the cache
+     */
+    ShapedRun get(Key key) {
+        ShapedRun run = cache.get(key);
+        if (run == null) {
+            return null;
+        }
+        // the cached line is never modified, so its glyphs are copied only if the consumer modifies them
+        return new ShapedRun(copyGlyphLine(run.glyphLine.copyOnWrite(0, run.glyphLine.size()), run.glyphLine), run.detectedScript);
+    }
+
+    void put(Key key, GlyphLine shapedText, Character.UnicodeScript detectedScript) {
+        cache.put(key, new ShapedRun(copyGlyphLine(shapedText.copy(0, shapedText.size()), shapedText), detectedScript));
+    }
+
+    /**
+     * Prepares the copy of the glyph line so that neither the cached run nor its consumers can affect each other.
+     * Glyphs with placement are copied as well, since their anchor delta is updated on reordering.
+     */
+    private static GlyphLine copyGlyphLine(GlyphLine copy, GlyphLine line) {
+        copy.start = line.start;
+        copy.end = line.end;
+        for (int i = 0; i < copy.size(); i++) {
+            Glyph glyph = copy.get(i);
+            if (glyph.hasPlacement()) {
+                copy.set(i, new Glyph(glyph));
+            }
+        }
+        return copy;
+    }
+
+    static final class Key {
+        private final FontProgram fontProgram;
+        private final String encoding;
+        private final String text;
+        private final boolean glyphCodesText;
+        private final Character.UnicodeScript script;
+        private final boolean kerning;
+        private final int hashCode;
+
+        /**
+         * Creates a key of a shaped run.
+         *
+         * @param fontProgram    the font program of the text
+         * @param encoding       the name of the encoding which maps the text to the glyphs of the font program
+         * @param text           the source text or glyph codes of the run, see {@link #createGlyphCodesText(GlyphLine)}
+         * @param glyphCodesText whether the text is the source one or represents glyph codes of the run
+         * @param script         the script of the text set by the user, or {@code null} if it should be detected
+         * @param kerning        whether kerning is applied
+         */
+        Key(FontProgram fontProgram, String encoding, String text, boolean glyphCodesText, Character.UnicodeScript script, boolean kerning) {
+            this.fontProgram = fontProgram;
+            this.encoding = encoding;
+            this.text = text;
+            this.glyphCodesText = glyphCodesText;
+            this.script = script;
+            this.kerning = kerning;
+            int result = System.identityHashCode(fontProgram);
+            result = 31 * result + (encoding != null ? encoding.hashCode() : 0);
+            result = 31 * result + text.hashCode();
+            result = 31 * result + (glyphCodesText ? 1 : 0);
+            result = 31 * result + (script != null ? script.hashCode() : 0);
+            result = 31 * result + (kerning ? 1 : 0);
+            this.hashCode = result;
+        }
+
+        /**
+         * Creates a string which unambiguously represents glyph codes and unicode values of the not yet shaped run.
+         */
+        static String createGlyphCodesText(GlyphLine line) {
+            StringBuilder sb = new StringBuilder(2 * (line.end - line.start));
+            for (int i = line.start; i < line.end; i++) {
+                Glyph glyph = line.get(i);
+                sb.append((char) glyph.getCode());
+                sb.append((char) (glyph.getCode() >> 16));
+                sb.append((char) glyph.getUnicode());
+                sb.append((char) (glyph.getUnicode() >> 16));
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hashCode == other.hashCode && fontProgram == other.fontProgram && glyphCodesText == other.glyphCodesText
+                    && kerning == other.kerning && script == other.script && text.equals(other.text)
+                    && (encoding == null ? other.encoding == null : encoding.equals(other.encoding));
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    static final class ShapedRun {
+        final GlyphLine glyphLine;
+        // The script detected in the source text, it's needed for the base direction detection
+        final Character.UnicodeScript detectedScript;
+
+        ShapedRun(GlyphLine glyphLine, Character.UnicodeScript detectedScript) {
+            this.glyphLine = glyphLine;
+            this.detectedScript = detectedScript;
+        }
+    }
+}
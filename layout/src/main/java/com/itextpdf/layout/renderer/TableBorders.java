@@ -71,6 +71,10 @@ abstract class TableBorders {
 
     protected int largeTableIndexOffset = 0;
 
+    // The first row of the rows window of a large table. Unlike largeTableIndexOffset,
+    // it doesn't change when the drawn rows of the window are released.
+    protected int largeTableWindowStart = 0;
+
     public TableBorders(List<CellRenderer[]> rows, int numberOfColumns, Border[] tableBoundingBorders) {
         this.rows = rows;
         this.numberOfColumns = numberOfColumns;
@@ -80,6 +84,7 @@ abstract class TableBorders {
     public TableBorders(List<CellRenderer[]> rows, int numberOfColumns, Border[] tableBoundingBorders, int largeTableIndexOffset) {
         this(rows, numberOfColumns, tableBoundingBorders);
         this.largeTableIndexOffset = largeTableIndexOffset;
+        this.largeTableWindowStart = largeTableIndexOffset;
     }
     // region abstract
 
@@ -145,6 +150,29 @@ abstract class TableBorders {
         }
         return this;
     }
+
+    /**
+     * Releases the rows preceding {@link #finishRow} and their borders once they have been drawn.
+     * The released entries are removed from the lists and {@link #largeTableIndexOffset} is increased,
+     * so that the remaining rows keep their indices. The last drawn row and its borders are kept,
+     * since the row may have been split and continue on the next area.
+     */
+    protected TableBorders releaseDrawnRows() {
+        int releasedRows = finishRow - largeTableIndexOffset;
+        if (releasedRows > 0) {
+            removeFirst(rows, releasedRows);
+            removeFirst(horizontalBorders, releasedRows);
+            for (List<Border> borders : verticalBorders) {
+                removeFirst(borders, releasedRows);
+            }
+            largeTableIndexOffset += releasedRows;
+        }
+        return this;
+    }
+
+    private static void removeFirst(List<?> list, int count) {
+        list.subList(0, Math.min(count, list.size())).clear();
+    }
     // endregion
 
     // region setters
@@ -176,6 +176,26 @@ public class TableRenderer extends AbstractRenderer {
         }
     }
 
+    private boolean isLargeTablePart() {
+        Table table = getTable();
+        return !isFooterRenderer() && !isHeaderRenderer() && (!table.isComplete() || 0 != table.getLastRowBottomBorder().size());
+    }
+
+    /**
+     * Large tables are laid out in row windows which may span several pages. Once a part of the window has been drawn,
+     * its cells and borders are not needed anymore, so they are removed in order to keep the memory consumption
+     * bounded by the rows which have not been drawn yet.
+     */
+    private void releaseDrawnRows() {
+        // the rows of this renderer may be a view of the rows released by the borders handler
+        rows = new ArrayList<>();
+        if (null != bordersHandler) {
+            bordersHandler.releaseDrawnRows();
+        }
+        childRenderers.clear();
+        heights.clear();
+    }
+
     private boolean isOriginalRenderer() {
         return isOriginalNonSplitRenderer && !isFooterRenderer() && !isHeaderRenderer();
     }
@@ -961,6 +981,10 @@ public class TableRenderer extends AbstractRenderer {
             }
             taggingHelper.restoreAutoTaggingPointerPosition(this);
         }
+
+        if (isLargeTablePart()) {
+            releaseDrawnRows();
+        }
     }
 
     /**
@@ -1057,7 +1081,12 @@ public class TableRenderer extends AbstractRenderer {
         if (0 == row && !(hasContent || cellWithBigRowspanAdded) && 0 == rowRange.getStartRow()) {
             overflowRenderer.isOriginalNonSplitRenderer = isOriginalNonSplitRenderer;
         }
-        overflowRenderer.rows = rows.subList(row, rows.size());
+        if (isLargeTablePart()) {
+            // the drawn rows are removed from the rows list, so the overflow renderer can't keep a view of it
+            overflowRenderer.rows = new ArrayList<>(rows.subList(row, rows.size()));
+        } else {
+            overflowRenderer.rows = rows.subList(row, rows.size());
+        }
         splitRenderer.occupiedArea = occupiedArea;
 
         overflowRenderer.bordersHandler = bordersHandler;
@@ -524,9 +524,28 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
     }
 
     public void applyOtf() {
-        updateFontAndText();
         Character.UnicodeScript script = this.<Character.UnicodeScript>getProperty(Property.FONT_SCRIPT);
+        FontKerning fontKerning = (FontKerning) this.<FontKerning>getProperty(Property.FONT_KERNING, FontKerning.NO);
+        ShapedGlyphLineCache shapingCache = this.<ShapedGlyphLineCache>getProperty(Property.SHAPED_GLYPH_LINE_CACHE);
+        ShapedGlyphLineCache.Key shapingCacheKey = null;
+        if (shapingCache != null && (strToBeConverted != null || !otfFeaturesApplied)) {
+            shapingCacheKey = createShapingCacheKey(script, fontKerning == FontKerning.YES);
+            ShapedGlyphLineCache.ShapedRun shapedRun = shapingCacheKey != null ? shapingCache.get(shapingCacheKey) : null;
+            if (shapedRun != null) {
+                if (strToBeConverted != null) {
+                    font = getPropertyAsFont(Property.FONT);
+                    strToBeConverted = null;
+                }
+                text = shapedRun.glyphLine;
+                updateBaseDirection(shapedRun.detectedScript);
+                otfFeaturesApplied = true;
+                return;
+            }
+        }
+
+        updateFontAndText();
         if (!otfFeaturesApplied) {
+            Character.UnicodeScript detectedScript = null;
             if (script == null && TypographyUtils.isTypographyModuleInitialized()) {
                 // Try to autodetect complex script.
                 Collection<Character.UnicodeScript> supportedScripts = TypographyUtils.getSupportedScripts();
@@ -554,9 +573,8 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
                 }
                 if (selectedEntry != null) {
                     Character.UnicodeScript selectScript = ((Map.Entry<Character.UnicodeScript, Integer>) selectedEntry).getKey();
-                    if ((selectScript == Character.UnicodeScript.ARABIC || selectScript == Character.UnicodeScript.HEBREW) && parent instanceof LineRenderer) {
-                        setProperty(Property.BASE_DIRECTION, BaseDirection.DEFAULT_BIDI);
-                    }
+                    detectedScript = selectScript;
+                    updateBaseDirection(selectScript);
                     if (supportedScripts != null && supportedScripts.contains(selectScript)) {
                         script = selectScript;
                     }
@@ -567,12 +585,14 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
                 TypographyUtils.applyOtfScript(font.getFontProgram(), text, script);
             }
 
-            FontKerning fontKerning = (FontKerning) this.<FontKerning>getProperty(Property.FONT_KERNING, FontKerning.NO);
             if (fontKerning == FontKerning.YES) {
                 TypographyUtils.applyKerning(font.getFontProgram(), text);
             }
 
             otfFeaturesApplied = true;
+            if (shapingCacheKey != null) {
+                shapingCache.put(shapingCacheKey, text, detectedScript);
+            }
         }
     }
 
@@ -1008,6 +1028,43 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
         return font.createGlyphLine(text);
     }
 
+    private void updateBaseDirection(Character.UnicodeScript detectedScript) {
+        if ((detectedScript == Character.UnicodeScript.ARABIC || detectedScript == Character.UnicodeScript.HEBREW) && parent instanceof LineRenderer) {
+            setProperty(Property.BASE_DIRECTION, BaseDirection.DEFAULT_BIDI);
+        }
+    }
+
+    /**
+     * Creates the key of the text run in the {@link ShapedGlyphLineCache}. The run is identified either by its source
+     * string, if it hasn't been converted yet, or by its glyphs otherwise.
+     * Only the runs of {@link PdfType0Font} are cached, since they map text to glyphs regardless of the document.
+     *
+     * @return the key, or {@code null} if the run cannot be cached
+     */
+    private ShapedGlyphLineCache.Key createShapingCacheKey(Character.UnicodeScript script, boolean kerning) {
+        PdfFont runFont;
+        String runText;
+        boolean glyphCodesText;
+        if (strToBeConverted != null) {
+            Object fontProperty = this.<Object>getProperty(Property.FONT);
+            runFont = fontProperty instanceof PdfFont ? (PdfFont) fontProperty : null;
+            runText = strToBeConverted;
+            glyphCodesText = false;
+        } else {
+            if (text == null || text.start != 0 || text.end != text.size()) {
+                return null;
+            }
+            runFont = font;
+            runText = ShapedGlyphLineCache.Key.createGlyphCodesText(text);
+            glyphCodesText = true;
+        }
+        if (!(runFont instanceof PdfType0Font)) {
+            return null;
+        }
+        String encoding = ((PdfType0Font) runFont).getCmap().getCmapName();
+        return new ShapedGlyphLineCache.Key(runFont.getFontProgram(), encoding, runText, glyphCodesText, script, kerning);
+    }
+
     private boolean hasOtfFont() {
         return font instanceof PdfType0Font && font.getFontProgram() instanceof TrueTypeFont;
     }
@@ -51,16 +51,11 @@ import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.layout.property.BaseDirection;
 import com.itextpdf.layout.property.Property;
 
-import java.lang.reflect.AccessibleObject;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
-import com.itextpdf.io.util.MessageFormatUtil;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.ServiceLoader;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,120 +64,48 @@ final class TypographyUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(TypographyUtils.class);
 
-    private static final String TYPOGRAPHY_PACKAGE = "com.itextpdf.typography.";
-
-    private static final String SHAPER = "shaping.Shaper";
-    private static final String BIDI_CHARACTER_MAP = "bidi.BidiCharacterMap";
-    private static final String BIDI_BRACKET_MAP = "bidi.BidiBracketMap";
-    private static final String BIDI_ALGORITHM = "bidi.BidiAlgorithm";
-
-    private static final String APPLY_OTF_SCRIPT = "applyOtfScript";
-    private static final String APPLY_KERNING = "applyKerning";
-    private static final String GET_SUPPORTED_SCRIPTS = "getSupportedScripts";
-
-    private static final String GET_CHARACTER_TYPES = "getCharacterTypes";
-    private static final String GET_BRACKET_TYPES = "getBracketTypes";
-    private static final String GET_BRACKET_VALUES = "getBracketValues";
-    private static final String GET_PAIRED_BRACKET = "getPairedBracket";
-    private static final String GET_LEVELS = "getLevels";
-    private static final String COMPUTE_REORDERING = "computeReordering";
-    private static final String INVERSE_REORDERING = "inverseReordering";
-
     private static final Collection<Character.UnicodeScript> SUPPORTED_SCRIPTS;
     private static final boolean TYPOGRAPHY_MODULE_INITIALIZED;
 
-    private static Map<String, Class<?>> cachedClasses = new HashMap<>();
-    private static Map<TypographyMethodSignature, AccessibleObject> cachedMethods = new HashMap<>();
+    /**
+     * The shaper is resolved once: an {@link ITypographyShaper} service if one is registered,
+     * otherwise pdfCalligraph if it is on the class path, otherwise the built-in {@link BasicTypographyShaper}.
+     */
+    private static final ITypographyShaper SHAPER;
 
     private static final String typographyNotFoundException = "Cannot find pdfCalligraph module, which was implicitly required by one of the layout properties";
 
     static {
-        boolean moduleFound = false;
-        try {
-            Class<?> type = getTypographyClass(TYPOGRAPHY_PACKAGE + SHAPER);
-            if (type != null) {
-                moduleFound = true;
-            }
-        } catch (ClassNotFoundException ignored) {
-        }
-        TYPOGRAPHY_MODULE_INITIALIZED = moduleFound;
-        if (moduleFound) {
-            SUPPORTED_SCRIPTS = getSupportedScripts();
-        } else {
-            SUPPORTED_SCRIPTS = null;
-        }
+        SHAPER = resolveShaper(TypographyUtils.class.getClassLoader());
+        TYPOGRAPHY_MODULE_INITIALIZED = !(SHAPER instanceof BasicTypographyShaper);
+        SUPPORTED_SCRIPTS = TYPOGRAPHY_MODULE_INITIALIZED ? SHAPER.getSupportedScripts() : null;
     }
 
     static void applyOtfScript(FontProgram fontProgram, GlyphLine text, Character.UnicodeScript script) {
-        if (!TYPOGRAPHY_MODULE_INITIALIZED) {
-            logger.warn(typographyNotFoundException);
-        } else {
-            callMethod(TYPOGRAPHY_PACKAGE + SHAPER, APPLY_OTF_SCRIPT, new Class[]{TrueTypeFont.class, GlyphLine.class, Character.UnicodeScript.class},
-                    fontProgram, text, script);
-//            Shaper.applyOtfScript((TrueTypeFont)fontProgram, text, script);
-        }
+        SHAPER.applyOtfScript((TrueTypeFont) fontProgram, text, script);
     }
 
     static void applyKerning(FontProgram fontProgram, GlyphLine text) {
-        if (!TYPOGRAPHY_MODULE_INITIALIZED) {
-            logger.warn(typographyNotFoundException);
-        } else {
-            callMethod(TYPOGRAPHY_PACKAGE + SHAPER, APPLY_KERNING, new Class[]{FontProgram.class, GlyphLine.class},
-                    fontProgram, text);
-//            Shaper.applyKerning(fontProgram, text);
-        }
+        SHAPER.applyKerning(fontProgram, text);
     }
 
     static byte[] getBidiLevels(BaseDirection baseDirection, int[] unicodeIds) {
-        if (!TYPOGRAPHY_MODULE_INITIALIZED) {
+        if (!SHAPER.isBidiSupported()) {
             logger.warn(typographyNotFoundException);
-        } else {
-            byte direction;
-            switch (baseDirection) {
-                case LEFT_TO_RIGHT:
-                    direction = 0;
-                    break;
-                case RIGHT_TO_LEFT:
-                    direction = 1;
-                    break;
-                case DEFAULT_BIDI:
-                default:
-                    direction = 2;
-                    break;
-            }
-
-            int len = unicodeIds.length;
-            byte[] types = (byte[]) callMethod(TYPOGRAPHY_PACKAGE + BIDI_CHARACTER_MAP, GET_CHARACTER_TYPES, new Class[]{int[].class, int.class, int.class},
-                    unicodeIds, 0, len);
-//            byte[] types = BidiCharacterMap.getCharacterTypes(unicodeIds, 0, len);
-            byte[] pairTypes = (byte[]) callMethod(TYPOGRAPHY_PACKAGE + BIDI_BRACKET_MAP, GET_BRACKET_TYPES, new Class[]{int[].class, int.class, int.class},
-                    unicodeIds, 0, len);
-//            byte[] pairTypes = BidiBracketMap.getBracketTypes(unicodeIds, 0, len);
-            int[] pairValues = (int[]) callMethod(TYPOGRAPHY_PACKAGE + BIDI_BRACKET_MAP, GET_BRACKET_VALUES, new Class[]{int[].class, int.class, int.class},
-                    unicodeIds, 0, len);
-//            int[] pairValues = BidiBracketMap.getBracketValues(unicodeIds, 0, len);
-            Object bidiReorder = callConstructor(TYPOGRAPHY_PACKAGE + BIDI_ALGORITHM, new Class[]{byte[].class, byte[].class, int[].class, byte.class},
-                    types, pairTypes, pairValues, direction);
-//            BidiAlgorithm bidiReorder = new BidiAlgorithm(types, pairTypes, pairValues, direction);
-            return (byte[]) callMethod(TYPOGRAPHY_PACKAGE + BIDI_ALGORITHM, GET_LEVELS, bidiReorder, new Class[]{int[].class},
-                    new int[]{len});
-//            return bidiReorder.getLevels(new int[]{len});
+            return null;
         }
-        return null;
+        return SHAPER.getBidiLevels(baseDirection, unicodeIds);
     }
 
     static int[] reorderLine(List<LineRenderer.RendererGlyph> line, byte[] lineLevels, byte[] levels) {
-        if (!TYPOGRAPHY_MODULE_INITIALIZED) {
+        if (!SHAPER.isBidiSupported()) {
             logger.warn(typographyNotFoundException);
         } else {
             if (levels == null) {
                 return null;
             }
-            int[] reorder = (int[]) callMethod(TYPOGRAPHY_PACKAGE + BIDI_ALGORITHM, COMPUTE_REORDERING, new Class[]{byte[].class},
-                    lineLevels);
-//            int[] reorder = BidiAlgorithm.computeReordering(lineLevels);
-            int[] inverseReorder = (int[]) callMethod(TYPOGRAPHY_PACKAGE + BIDI_ALGORITHM, INVERSE_REORDERING, new Class[] {int[].class}, reorder);
-//            int[] inverseReorder = BidiAlgorithm.inverseReordering(reorder);
+            int[] reorder = SHAPER.computeReordering(lineLevels);
+            int[] inverseReorder = SHAPER.inverseReordering(reorder);
             List<LineRenderer.RendererGlyph> reorderedLine = new ArrayList<>(lineLevels.length);
             for (int i = 0; i < line.size(); i++) {
                 reorderedLine.add(line.get(reorder[i]));
@@ -191,9 +114,7 @@ final class TypographyUtils {
                 if (levels[reorder[i]] % 2 == 1) {
                     if (reorderedLine.get(i).glyph.hasValidUnicode()) {
                         int unicode = reorderedLine.get(i).glyph.getUnicode();
-                        int pairedBracket = (int) callMethod(TYPOGRAPHY_PACKAGE + BIDI_BRACKET_MAP, GET_PAIRED_BRACKET, new Class[]{int.class},
-                                unicode);
-//                        int pairedBracket = BidiBracketMap.getPairedBracket(reorderedLine.get(i).glyph.getUnicode());
+                        int pairedBracket = SHAPER.getPairedBracket(unicode);
                         if (pairedBracket != unicode) {
                             PdfFont font = reorderedLine.get(i).renderer.getPropertyAsFont(Property.FONT);
                             reorderedLine.set(i, new LineRenderer.RendererGlyph(font.getGlyph(pairedBracket), reorderedLine.get(i).renderer));
@@ -224,117 +145,32 @@ final class TypographyUtils {
         if (!TYPOGRAPHY_MODULE_INITIALIZED) {
             logger.warn(typographyNotFoundException);
             return null;
-        } else if (SUPPORTED_SCRIPTS != null) {
-            return SUPPORTED_SCRIPTS;
         } else {
-            return (Collection<Character.UnicodeScript>) callMethod(TYPOGRAPHY_PACKAGE + SHAPER, GET_SUPPORTED_SCRIPTS, new Class[]{});
-//            return (Collection<Character.UnicodeScript>) Shaper.getSupportedScripts();
+            return SUPPORTED_SCRIPTS;
         }
     }
 
+    /**
+     * Checks whether a full typography implementation (a registered {@link ITypographyShaper} or pdfCalligraph)
+     * is available. The built-in shaper is only used for explicitly requested scripts and kerning,
+     * so it does not count as one.
+     */
     static boolean isTypographyModuleInitialized() {
         return TYPOGRAPHY_MODULE_INITIALIZED;
     }
 
-    private static Object callMethod(String className, String methodName, Class[] parameterTypes, Object... args) {
-        return callMethod(className, methodName, (Object) null, parameterTypes, args);
-    }
-
-    private static Object callMethod(String className, String methodName, Object target, Class[] parameterTypes, Object... args) {
-        try {
-            Method method = findMethod(className, methodName, parameterTypes);
-            return method.invoke(target, args);
-        } catch (NoSuchMethodException e) {
-            logger.warn(MessageFormatUtil.format("Cannot find method {0} for class {1}", methodName, className));
-        } catch (ClassNotFoundException e) {
-            logger.warn(MessageFormatUtil.format("Cannot find class {0}", className));
-        } catch (Exception e) {
-            throw new RuntimeException(e.toString(), e);
-        }
-        return null;
-    }
-
-    private static Object callConstructor(String className, Class[] parameterTypes, Object... args) {
-        try {
-            Constructor<?> constructor = findConstructor(className, parameterTypes);
-            return constructor.newInstance(args);
-        } catch (NoSuchMethodException e) {
-            logger.warn(MessageFormatUtil.format("Cannot find constructor for class {0}", className));
-        } catch (ClassNotFoundException e) {
-            logger.warn(MessageFormatUtil.format("Cannot find class {0}", className));
-        } catch (Exception exc) {
-            throw new RuntimeException(exc.toString(), exc);
-        }
-        return null;
-    }
-
-    private static Method findMethod(String className, String methodName, Class[] parameterTypes) throws NoSuchMethodException, ClassNotFoundException {
-        TypographyMethodSignature tm = new TypographyMethodSignature(className, parameterTypes, methodName);
-        Method m = (Method) cachedMethods.get(tm);
-        if (m == null) {
-            m = findClass(className).getMethod(methodName, parameterTypes);
-            cachedMethods.put(tm, m);
-        }
-        return m;
-    }
-
-    private static Constructor<?> findConstructor(String className, Class[] parameterTypes) throws NoSuchMethodException, ClassNotFoundException {
-        TypographyMethodSignature tc = new TypographyMethodSignature(className, parameterTypes);
-        Constructor<?> c = (Constructor<?>) cachedMethods.get(tc);
-        if (c == null) {
-            c = findClass(className).getConstructor(parameterTypes);
-            cachedMethods.put(tc, c);
-        }
-        return c;
-    }
-
-    private static Class<?> findClass(String className) throws ClassNotFoundException {
-        Class<?> c = cachedClasses.get(className);
-        if (c == null) {
-            c = getTypographyClass(className);
-            cachedClasses.put(className, c);
-        }
-        return c;
-    }
-
-    private static Class<?> getTypographyClass(String typographyClassName) throws ClassNotFoundException {
-        return Class.forName(typographyClassName);
-    }
-
-    private static class TypographyMethodSignature {
-        protected final String className;
-        protected Class[] parameterTypes;
-        private final String methodName;
-
-        TypographyMethodSignature(String className, Class[] parameterTypes) {
-            this(className, parameterTypes, null);
-        }
-
-        TypographyMethodSignature(String className, Class[] parameterTypes, String methodName) {
-            this.methodName = methodName;
-            this.className = className;
-            this.parameterTypes = parameterTypes;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-
-            TypographyMethodSignature that = (TypographyMethodSignature) o;
-
-            if (!className.equals(that.className)) return false;
-            if (!Arrays.equals(parameterTypes, that.parameterTypes)) return false;
-            return methodName != null ? methodName.equals(that.methodName) : that.methodName == null;
-
-        }
-
-        @Override
-        public int hashCode() {
-            int result = className.hashCode();
-            result = 31 * result + Arrays.hashCode(parameterTypes);
-            result = 31 * result + (methodName != null ? methodName.hashCode() : 0);
-            return result;
-        }
+    /**
+     * Resolves the shaper visible from the given class loader, see {@link #SHAPER}.
+     *
+     * @param classLoader the class loader used to look up {@link ITypographyShaper} services
+     * @return the resolved shaper, never null
+     */
+    static ITypographyShaper resolveShaper(ClassLoader classLoader) {
+        Iterator<ITypographyShaper> services = ServiceLoader.load(ITypographyShaper.class, classLoader).iterator();
+        if (services.hasNext()) {
+            return services.next();
+        }
+        ITypographyShaper shaper = CalligraphTypographyShaper.createIfAvailable();
+        return shaper != null ? shaper : new BasicTypographyShaper();
     }
 }
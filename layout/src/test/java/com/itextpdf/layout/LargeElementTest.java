@@ -117,6 +117,38 @@ public class LargeElementTest extends ExtendedITextTest {
         Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, testName + "_diff"));
     }
 
+    @Test
+    public void largeTableWindowOnSeveralPagesTest01() throws IOException, InterruptedException {
+        String testName = "largeTableWindowOnSeveralPagesTest01.pdf";
+        String outFileName = destinationFolder + testName;
+        String cmpFileName = sourceFolder + "cmp_" + testName;
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(outFileName));
+        Document doc = new Document(pdfDoc);
+
+        Table table = new Table(UnitValue.createPercentArray(3), true);
+
+        doc.add(table);
+        for (int i = 0; i < 300; i++) {
+            table.addCell(new Cell().add(new Paragraph(MessageFormatUtil.format("Cell {0}, 1", i + 1))));
+            table.addCell(new Cell().add(new Paragraph(MessageFormatUtil.format("Cell {0}, 2", i + 1)))
+                    .setBorder(new SolidBorder(ColorConstants.BLUE, i % 5)));
+            table.addCell(new Cell().add(new Paragraph(MessageFormatUtil.format("Cell {0}, 3", i + 1)))
+                    .setBorderBottom(new SolidBorder(ColorConstants.RED, i % 3)));
+
+            // The row window spans several pages, so its drawn parts are released before the window is flushed.
+            if (i % 120 == 119) {
+                table.flush();
+            }
+        }
+
+        table.complete();
+        doc.add(new Table(UnitValue.createPercentArray(1)).useAllAvailableWidth().setBorder(new SolidBorder(ColorConstants.ORANGE, 2)).addCell("Is my occupied area correct?"));
+
+        doc.close();
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, testName + "_diff"));
+    }
+
     @Test
     public void largeTableTest02() throws IOException, InterruptedException {
         String testName = "largeTableTest02.pdf";
@@ -53,16 +53,21 @@ import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Text;
 import com.itextpdf.layout.layout.LayoutArea;
 import com.itextpdf.layout.property.Property;
+import com.itextpdf.layout.renderer.DocumentRenderer;
 import com.itextpdf.layout.renderer.IRenderer;
 import com.itextpdf.layout.renderer.ParagraphRenderer;
+import com.itextpdf.layout.renderer.RootRenderer;
 import com.itextpdf.layout.renderer.TextRenderer;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -73,6 +78,9 @@ public class PreLayoutTest extends ExtendedITextTest{
     public static final String sourceFolder = "./src/test/resources/com/itextpdf/layout/PreLayoutTest/";
     public static final String destinationFolder = "./target/test/com/itextpdf/layout/PreLayoutTest/";
 
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
     @BeforeClass
     public static void beforeClass() {
         createDestinationFolder(destinationFolder);
@@ -158,6 +166,157 @@ public class PreLayoutTest extends ExtendedITextTest{
         Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
     }
 
+    @Test
+    public void incrementalRelayoutTest01() throws IOException, InterruptedException {
+        String outFileName = destinationFolder + "incrementalRelayoutTest01.pdf";
+        String cmpFileName = sourceFolder + "cmp_incrementalRelayoutTest01.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(outFileName));
+
+        Document document = new Document(pdfDoc, PageSize.Default, false);
+        document.getRenderer().setLayoutCheckpointsEnabled(true);
+
+        document.add(new Paragraph("AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"));
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1200; i++) {
+            text.append("A very long text is here...");
+        }
+        Paragraph twoColumnParagraph = new Paragraph();
+        twoColumnParagraph.setNextRenderer(new TwoColumnParagraphRenderer(twoColumnParagraph));
+        Text textElement = new Text(text.toString());
+        twoColumnParagraph.add(textElement).setFont(PdfFontFactory.createFont(StandardFonts.HELVETICA));
+        document.add(twoColumnParagraph);
+
+        document.add(new Paragraph("AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"));
+
+        int paragraphLastPageNumber = -1;
+        List<IRenderer> documentChildRenderers = document.getRenderer().getChildRenderers();
+        IRenderer firstParagraphRenderer = documentChildRenderers.get(0);
+        for (int i = documentChildRenderers.size() - 1; i >= 0; i--) {
+            if (documentChildRenderers.get(i).getModelElement() == twoColumnParagraph) {
+                paragraphLastPageNumber = documentChildRenderers.get(i).getOccupiedArea().getPageNumber();
+                break;
+            }
+        }
+
+        twoColumnParagraph.setNextRenderer(new TwoColumnParagraphRenderer(twoColumnParagraph, paragraphLastPageNumber));
+        document.relayout(twoColumnParagraph);
+
+        // The layout result of the unchanged paragraph is reused
+        Assert.assertSame(firstParagraphRenderer, document.getRenderer().getChildRenderers().get(0));
+
+        //Close document. Drawing of content is happened on close
+        document.close();
+
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
+    }
+
+    @Test
+    public void layoutCheckpointsTest() {
+        Document document = new Document(new PdfDocument(new PdfWriter(new ByteArrayOutputStream())), PageSize.Default, false);
+        RootRenderer renderer = document.getRenderer();
+        Assert.assertFalse(renderer.isLayoutCheckpointsEnabled());
+        document.add(new Paragraph("Not recorded"));
+        Assert.assertEquals(-1, renderer.rollbackLayout(0));
+
+        renderer.setLayoutCheckpointsEnabled(true);
+        document.add(new Paragraph("Recorded"));
+        document.add(new Paragraph("Recorded"));
+        Assert.assertEquals(-1, renderer.rollbackLayout(0));
+        Assert.assertEquals(1, renderer.rollbackLayout(2));
+        Assert.assertEquals(1, renderer.rollbackLayout(1));
+
+        // The content drawn on flush cannot be taken back
+        document.add(new Paragraph("Recorded"));
+        document.flush();
+        Assert.assertEquals(-1, renderer.rollbackLayout(1));
+        document.add(new Paragraph("Recorded after flush"));
+        Assert.assertEquals(-1, renderer.rollbackLayout(2));
+
+        document.close();
+    }
+
+    @Test
+    public void spillFinishedPagesTest01() throws IOException, InterruptedException {
+        String outFileName = destinationFolder + "spillFinishedPagesTest01.pdf";
+        String cmpFileName = sourceFolder + "cmp_spillFinishedPagesTest01.pdf";
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(outFileName));
+
+        Document document = new Document(pdfDocument, PageSize.Default, false);
+        document.setRenderer(new DocumentRenderer(document, false, true));
+        document.getRenderer().setLayoutCheckpointsEnabled(true);
+        document.setProperty(Property.FONT, PdfFontFactory.createFont(StandardFonts.HELVETICA));
+
+        for (int i = 0; i < 500; i++) {
+            document.add(new Paragraph("This is just junk text"));
+        }
+        Paragraph totalPagesParagraph = new Paragraph("Total pages:");
+        document.add(totalPagesParagraph);
+
+        // Only the renderers of the last two pages are kept
+        List<IRenderer> childRenderers = document.getRenderer().getChildRenderers();
+        Assert.assertTrue(childRenderers.get(0).getOccupiedArea().getPageNumber() >= pdfDocument.getNumberOfPages() - 1);
+
+        // The last page has not been spilled yet, so the layout is resumed on it
+        totalPagesParagraph.add(" " + pdfDocument.getNumberOfPages());
+        document.relayout(totalPagesParagraph);
+
+        document.close();
+
+        Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
+    }
+
+    @Test
+    public void spillFinishedPagesTest02() throws IOException {
+        junitExpectedException.expect(IllegalStateException.class);
+        junitExpectedException.expectMessage("Operation not supported after finished pages have been spilled");
+
+        Document document = new Document(new PdfDocument(new PdfWriter(new ByteArrayOutputStream())), PageSize.Default, false);
+        document.setRenderer(new DocumentRenderer(document, false, true));
+        document.getRenderer().setLayoutCheckpointsEnabled(true);
+        document.setProperty(Property.FONT, PdfFontFactory.createFont(StandardFonts.HELVETICA));
+
+        Paragraph totalPagesParagraph = new Paragraph("Total pages:");
+        document.add(totalPagesParagraph);
+        for (int i = 0; i < 500; i++) {
+            document.add(new Paragraph("This is just junk text"));
+        }
+
+        // The first page has already been written to the output and cannot be laid out again
+        document.relayout(totalPagesParagraph);
+    }
+
+    @Test
+    public void spillFinishedPagesTest03() throws IOException {
+        // Laying out the last page again doesn't leave anything behind in the output
+        long[] expected = createSpilledDocument(0);
+        Assert.assertArrayEquals(expected, createSpilledDocument(1));
+        Assert.assertArrayEquals(expected, createSpilledDocument(10));
+    }
+
+    /**
+     * @return the size of the output and the number of the objects in it
+     */
+    private static long[] createSpilledDocument(int relayoutsCount) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        Document document = new Document(pdfDocument, PageSize.Default, false);
+        document.setRenderer(new DocumentRenderer(document, false, true));
+        document.getRenderer().setLayoutCheckpointsEnabled(true);
+        document.setProperty(Property.FONT, PdfFontFactory.createFont(StandardFonts.HELVETICA));
+
+        for (int i = 0; i < 500; i++) {
+            document.add(new Paragraph("This is just junk text"));
+        }
+        Paragraph lastParagraph = new Paragraph("The last paragraph");
+        document.add(lastParagraph);
+        for (int i = 0; i < relayoutsCount; i++) {
+            document.relayout(lastParagraph);
+        }
+        document.close();
+        return new long[] {baos.size(), pdfDocument.getNumberOfPdfObjects()};
+    }
+
     @Test
     public void columnDocumentRendererRelayoutTest() throws IOException, InterruptedException {
         String outFileName = destinationFolder + "columnDocumentRendererRelayoutTest.pdf";
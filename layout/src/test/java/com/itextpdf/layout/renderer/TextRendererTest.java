@@ -43,6 +43,10 @@
 package com.itextpdf.layout.renderer;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.otf.GlyphLine;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
@@ -54,6 +58,7 @@ import com.itextpdf.layout.layout.LayoutArea;
 import com.itextpdf.layout.layout.LayoutContext;
 import com.itextpdf.layout.layout.LayoutPosition;
 import com.itextpdf.layout.layout.LayoutResult;
+import com.itextpdf.layout.property.FontKerning;
 import com.itextpdf.layout.property.Property;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
@@ -61,6 +66,7 @@ import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.UnitTest;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -68,6 +74,8 @@ import org.junit.experimental.categories.Category;
 @Category(UnitTest.class)
 public class TextRendererTest extends ExtendedITextTest {
 
+    private static final String FONTS_FOLDER = "./src/test/resources/com/itextpdf/layout/fonts/";
+
     @Test
     public void nextRendererTest() {
         PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
@@ -130,4 +138,65 @@ public class TextRendererTest extends ExtendedITextTest {
         doc.add(new Paragraph().add(txt));
         doc.close();
     }
+
+    @Test
+    public void shapedGlyphLineCacheTest() throws IOException {
+        ShapedGlyphLineCache cache = new ShapedGlyphLineCache(2);
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        pdfDoc.addNewPage();
+        Document doc = new Document(pdfDoc);
+        doc.setProperty(Property.SHAPED_GLYPH_LINE_CACHE, cache);
+        PdfFont font = PdfFontFactory.createFont(FONTS_FOLDER + "FreeSans.ttf", PdfEncodings.IDENTITY_H);
+        RootRenderer documentRenderer = doc.getRenderer();
+        LayoutContext layoutContext = new LayoutContext(new LayoutArea(1, new Rectangle(100, 100, 400, 100)));
+
+        TextRenderer textRenderer1 = (TextRenderer) new Text("Total amount").setFont(font).createRendererSubTree().setParent(documentRenderer);
+        textRenderer1.applyOtf();
+        LayoutResult result1 = textRenderer1.layout(layoutContext);
+        Assert.assertEquals(0, cache.getHits());
+        Assert.assertEquals(1, cache.size());
+
+        TextRenderer textRenderer2 = (TextRenderer) new Text("Total amount").setFont(font).createRendererSubTree().setParent(documentRenderer);
+        textRenderer2.applyOtf();
+        LayoutResult result2 = textRenderer2.layout(layoutContext);
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(textRenderer1.getText(), textRenderer2.getText());
+        Assert.assertNotSame(textRenderer1.getText(), textRenderer2.getText());
+        Assert.assertEquals(result1.getOccupiedArea(), result2.getOccupiedArea());
+
+        TextRenderer textRenderer3 = (TextRenderer) new Text("Subtotal").setFont(font).createRendererSubTree().setParent(documentRenderer);
+        textRenderer3.applyOtf();
+        TextRenderer textRenderer4 = (TextRenderer) new Text("Tax").setFont(font).createRendererSubTree().setParent(documentRenderer);
+        textRenderer4.applyOtf();
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(3, cache.getMisses());
+        Assert.assertEquals(2, cache.size());
+
+        doc.close();
+    }
+
+    @Test
+    public void basicShaperKerningTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        pdfDoc.addNewPage();
+        Document doc = new Document(pdfDoc);
+        PdfFont font = PdfFontFactory.createFont(FONTS_FOLDER + "FreeSans.ttf", PdfEncodings.IDENTITY_H);
+        RootRenderer documentRenderer = doc.getRenderer();
+
+        TextRenderer plainRenderer = (TextRenderer) new Text("AVAV").setFont(font).createRendererSubTree().setParent(documentRenderer);
+        plainRenderer.applyOtf();
+        TextRenderer kernedRenderer = (TextRenderer) new Text("AVAV").setFont(font).setFontKerning(FontKerning.YES)
+                .createRendererSubTree().setParent(documentRenderer);
+        kernedRenderer.applyOtf();
+
+        GlyphLine plain = plainRenderer.getText();
+        GlyphLine kerned = kernedRenderer.getText();
+        Assert.assertEquals(plain.size(), kerned.size());
+        Assert.assertEquals(0, plain.get(0).getXAdvance());
+        Assert.assertTrue(kerned.get(0).getXAdvance() < 0);
+        Assert.assertEquals(plain.get(0).getCode(), kerned.get(0).getCode());
+
+        doc.close();
+    }
 }
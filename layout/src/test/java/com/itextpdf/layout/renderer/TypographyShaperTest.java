@@ -0,0 +1,174 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: iText Software.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.TrueTypeFont;
+import com.itextpdf.io.font.otf.GlyphLine;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.property.BaseDirection;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.LogMessage;
+import com.itextpdf.test.annotations.LogMessages;
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collection;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class TypographyShaperTest extends ExtendedITextTest {
+
+    public static final String destinationFolder = "./target/test/com/itextpdf/layout/TypographyShaperTest/";
+
+    @BeforeClass
+    public static void beforeClass() {
+        createDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    public void serviceLoaderDispatchTest() throws IOException {
+        File servicesFolder = new File(destinationFolder + "services/META-INF/services");
+        servicesFolder.mkdirs();
+        OutputStream os = new FileOutputStream(new File(servicesFolder, ITypographyShaper.class.getName()));
+        try {
+            os.write((TestShaper.class.getName() + "\n").getBytes("UTF-8"));
+        } finally {
+            os.close();
+        }
+
+        URLClassLoader classLoader = new URLClassLoader(new URL[]{new File(destinationFolder + "services").toURI().toURL()},
+                TypographyShaperTest.class.getClassLoader());
+        try {
+            ITypographyShaper shaper = TypographyUtils.resolveShaper(classLoader);
+            Assert.assertTrue(shaper instanceof TestShaper);
+            Assert.assertEquals(Collections.singletonList(Character.UnicodeScript.LATIN), shaper.getSupportedScripts());
+        } finally {
+            classLoader.close();
+        }
+    }
+
+    @Test
+    public void fallbackShaperResolvedTest() {
+        URLClassLoader classLoader = new URLClassLoader(new URL[0], TypographyShaperTest.class.getClassLoader());
+        Assert.assertNull(CalligraphTypographyShaper.createIfAvailable());
+        Assert.assertTrue(TypographyUtils.resolveShaper(classLoader) instanceof BasicTypographyShaper);
+        Assert.assertFalse(TypographyUtils.isTypographyModuleInitialized());
+    }
+
+    @Test
+    public void fallbackShaperBidiTest() {
+        BasicTypographyShaper shaper = new BasicTypographyShaper();
+        Assert.assertFalse(shaper.isBidiSupported());
+        Assert.assertNull(shaper.getBidiLevels(BaseDirection.RIGHT_TO_LEFT, new int[]{'a', 'b', 'c'}));
+        Assert.assertArrayEquals(new int[]{0, 1, 2}, shaper.computeReordering(new byte[]{1, 1, 0}));
+        Assert.assertArrayEquals(new int[]{1, 2, 0}, shaper.inverseReordering(new int[]{2, 0, 1}));
+        Assert.assertEquals('(', shaper.getPairedBracket('('));
+    }
+
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = "Cannot find pdfCalligraph module, which was implicitly required by one of the layout properties", count = 2)
+    })
+    public void fallbackShaperRightToLeftLayoutTest() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document doc = new Document(new PdfDocument(new PdfWriter(baos)));
+        doc.add(new Paragraph("abc (def)").setBaseDirection(BaseDirection.RIGHT_TO_LEFT));
+        doc.close();
+        Assert.assertTrue(baos.size() > 0);
+    }
+
+    public static class TestShaper implements ITypographyShaper {
+
+        @Override
+        public Collection<Character.UnicodeScript> getSupportedScripts() {
+            return Collections.singletonList(Character.UnicodeScript.LATIN);
+        }
+
+        @Override
+        public void applyOtfScript(TrueTypeFont fontProgram, GlyphLine text, Character.UnicodeScript script) {
+        }
+
+        @Override
+        public void applyKerning(FontProgram fontProgram, GlyphLine text) {
+        }
+
+        @Override
+        public boolean isBidiSupported() {
+            return false;
+        }
+
+        @Override
+        public byte[] getBidiLevels(BaseDirection baseDirection, int[] unicodeIds) {
+            return null;
+        }
+
+        @Override
+        public int[] computeReordering(byte[] lineLevels) {
+            return null;
+        }
+
+        @Override
+        public int[] inverseReordering(int[] reordering) {
+            return null;
+        }
+
+        @Override
+        public int getPairedBracket(int unicode) {
+            return unicode;
+        }
+    }
+}